@@ -0,0 +1,21 @@
+#!/bin/sh
+set -e
+
+SRC_DIR=geim
+BIN_DIR=bin
+
+rm -rf "$BIN_DIR"
+mkdir -p "$BIN_DIR"
+
+echo "Coletando arquivos"
+find "$SRC_DIR" -name '*.java' > "$BIN_DIR/fontes.txt"
+
+javac -g -parameters -encoding UTF-8 -d "$BIN_DIR" -sourcepath "$SRC_DIR" @"$BIN_DIR/fontes.txt"
+rm "$BIN_DIR/fontes.txt"
+
+jar cfe "$BIN_DIR/geim.jar" geim.cli.LinhaComando -C "$BIN_DIR" .
+
+echo
+echo "Jar gerado em \"$BIN_DIR\""
+
+echo "Build finalizado."
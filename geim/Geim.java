@@ -1,12 +1,39 @@
 package geim;
 
 import java.awt.Color;
+import java.awt.GraphicsEnvironment;
 import java.awt.image.BufferedImage;
+import java.io.OutputStream;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
 
 import geim.imagem.Imagem;
+import geim.codificadores.Codificador;
+import geim.codificadores.Codificadores;
+import geim.comparacao.Comparador;
+import geim.comparacao.ResultadoComparacao;
+import geim.cores.ConversorCores;
+import geim.cores.EspacoCor;
+import geim.fluxo.FluxoImagem;
+import geim.hash.HashPerceptual;
+import geim.morfologia.Componentes;
+import geim.morfologia.ImagemBinaria;
+import geim.morfologia.Morfologia;
+import geim.morfologia.Rotulador;
+import geim.quantizacao.ImagemIndexada;
+import geim.quantizacao.MetodoQuantizacao;
+import geim.quantizacao.Paleta;
+import geim.quantizacao.Pontilhamento;
+import geim.quantizacao.Quantizador;
+import geim.sequencia.EscritorSequencia;
+import geim.sequencia.LeitorSequencia;
+import geim.sequencia.ProcessadorSequencia;
 import geim.desenho.DrawFrame;
+import geim.desenho.Renderizador;
 import geim.gerenciadores.GerenciadorArquivos;
 import geim.gerenciadores.GerenciadorDadosImagem;
+import geim.gerenciadores.GerenciadorTransformacoes;
+import geim.gerenciadores.Interpolacao;
 
 /**
  * <p>
@@ -15,11 +42,25 @@ import geim.gerenciadores.GerenciadorDadosImagem;
  * Oferece utilitários para manipulação e processamento de imagens em formato RGB ou escala de cinza.
  * Permite ler imagens, gerar estruturas de dados a partir das imagens, configurar cores, exibir informações 
  * de cores, exportar imagens em formato PNG e ampliar imagens usando uma rede neural treinada.
+ * <p>
+ *    O {@code Geim} e seus gerenciadores não guardam estado mutável, uma mesma 
+ *    instância pode ser usada por várias threads. As garantias de acesso 
+ *    concorrente às imagens estão descritas em {@code Imagem}.
+ * </p>
  */
 public class Geim {
 
 	private GerenciadorArquivos ga;
 	private GerenciadorDadosImagem gdi;
+	private GerenciadorTransformacoes gt;
+	private Renderizador rdz;
+	private ConversorCores cc;
+	private HashPerceptual hp;
+	private Comparador cmp;
+	private Morfologia mf;
+	private Rotulador rot;
+	private ProcessadorSequencia ps;
+	private Quantizador qz;
 
 	/**
 	 * Objeto responsável por fazer operações com imagens.
@@ -30,6 +71,15 @@ public class Geim {
 	public Geim() {
 		ga = new GerenciadorArquivos();
 		gdi = new GerenciadorDadosImagem();
+		gt = new GerenciadorTransformacoes();
+		rdz = new Renderizador();
+		cc = new ConversorCores();
+		hp = new HashPerceptual();
+		cmp = new Comparador();
+		mf = new Morfologia();
+		rot = new Rotulador();
+		ps = new ProcessadorSequencia();
+		qz = new Quantizador();
 	}
 
 	/**
@@ -43,6 +93,51 @@ public class Geim {
 		return ga.lerImagem(caminho);
 	}
 
+	/**
+	 * Abre uma imagem animada ({@code gif}) ou com várias páginas ({@code tiff}) 
+	 * para leitura sequencial dos quadros.
+	 * <p>
+	 *    Os quadros são decodificados sob demanda e entregues em uma mesma 
+	 *    {@code Imagem} reaproveitada. O leitor deve ser fechado após o uso.
+	 * </p>
+	 * @param caminho caminho do arquivo.
+	 * @return {@code LeitorSequencia} aberto.
+	 */
+	public LeitorSequencia lerSequencia(String caminho) {
+		return new LeitorSequencia(caminho);
+	}
+
+	/**
+	 * Cria um arquivo {@code gif} animado ou {@code tiff} com várias páginas para 
+	 * escrita sequencial dos quadros. O escritor deve ser fechado após o uso.
+	 * @param caminho caminho do arquivo, o formato é escolhido pela extensão.
+	 * @return {@code EscritorSequencia} aberto.
+	 */
+	public EscritorSequencia escreverSequencia(String caminho) {
+		return new EscritorSequencia(caminho);
+	}
+
+	/**
+	 * Aplica uma transformação em todos os quadros de uma sequência e grava o 
+	 * resultado em outro arquivo, em memória constante.
+	 * <p>
+	 *    Os quadros são transformados em paralelo e gravados na ordem original, 
+	 *    mantendo o atraso de cada quadro.
+	 * </p>
+	 * @param entrada caminho do arquivo de entrada.
+	 * @param saida caminho do arquivo de saída ({@code gif}, {@code tif} ou {@code tiff}).
+	 * @param transformacao transformação aplicada a cada quadro, recebe uma cópia 
+	 * que pode ser alterada.
+	 * @param paralelismo quantidade de quadros transformados ao mesmo tempo.
+	 * @return quantidade de quadros processados.
+	 */
+	public int processarSequencia(String entrada, String saida, UnaryOperator<Imagem> transformacao, int paralelismo) {
+		try (LeitorSequencia l = new LeitorSequencia(entrada);
+			 EscritorSequencia e = new EscritorSequencia(saida)) {
+			return ps.processar(l, e, transformacao, paralelismo);
+		}
+	}
+
 	/**
 	 * Gera uma estrutura de dados do tipo {@code Imagem} contendo as informações de cada cor 
 	 * em cada pixel da imagem.
@@ -59,6 +154,21 @@ public class Geim {
 		return gdi.gerarImagem(img);
 	}
 
+	/**
+	 * Copia os dados de uma imagem para a estrutura de destino, reaproveitando-a
+	 * quando tiver as mesmas dimensões.
+	 * <p>
+	 *    Útil ao processar continuamente imagens do mesmo tamanho, evitando a 
+	 *    alocação de uma nova estrutura a cada imagem.
+	 * </p>
+	 * @param img imagem com suas dimensões e cores.
+	 * @param destino estrutura a ser reaproveitada, pode ser nula.
+	 * @return {@code destino} preenchida, ou uma nova estrutura caso as dimensões sejam diferentes.
+	 */
+	public Imagem gerarEstruturaImagem(BufferedImage img, Imagem destino) {
+		return gdi.gerarImagem(img, destino);
+	}
+
 	/**
 	 * Gera uma estrutura de dados do tipo {@code Pixel[][]}, a estrutura terá seus elementos inicializados
 	 * como 0.
@@ -115,6 +225,27 @@ public class Geim {
 		gdi.preencher(img, c);
 	}
 
+	/**
+	 * Executa a ação em paralelo sobre faixas horizontais disjuntas da imagem, 
+	 * cada faixa pode ser alterada pela ação sem sincronização.
+	 * @param img {@code Imagem} base.
+	 * @param faixas quantidade de faixas.
+	 * @param acao ação aplicada a cada faixa.
+	 */
+	public void paraCadaFaixa(Imagem img, int faixas, Consumer<Imagem> acao) {
+		gdi.paraCadaFaixa(img, faixas, acao);
+	}
+
+	/**
+	 * Gera uma cópia imutável da imagem, que pode ser compartilhada entre 
+	 * threads sem sincronização.
+	 * @param img {@code Imagem} base.
+	 * @return {@code Imagem} congelada.
+	 */
+	public Imagem congelar(Imagem img) {
+		return img.congelar();
+	}
+
 	/**
 	 * Captura o valor de cor vermelha de cada pixel da imagem.
 	 * @param img imagem com os valore de cores.
@@ -151,11 +282,415 @@ public class Geim {
 		return gdi.getGray(img);
 	}
 
+	/**
+	 * Rotaciona a imagem em 90 graus no sentido horário.
+	 * @param img {@code Imagem} base.
+	 * @return nova {@code Imagem} rotacionada.
+	 */
+	public Imagem rotacionar90(Imagem img) {
+		return gt.rotacionar90(img);
+	}
+
+	/**
+	 * Rotaciona a imagem em 180 graus.
+	 * @param img {@code Imagem} base.
+	 * @return nova {@code Imagem} rotacionada.
+	 */
+	public Imagem rotacionar180(Imagem img) {
+		return gt.rotacionar180(img);
+	}
+
+	/**
+	 * Rotaciona a imagem em 270 graus no sentido horário.
+	 * @param img {@code Imagem} base.
+	 * @return nova {@code Imagem} rotacionada.
+	 */
+	public Imagem rotacionar270(Imagem img) {
+		return gt.rotacionar270(img);
+	}
+
+	/**
+	 * Rotaciona a imagem em torno do seu centro por um ângulo arbitrário, 
+	 * mantendo suas dimensões.
+	 * @param img {@code Imagem} base.
+	 * @param graus ângulo em graus, no sentido horário.
+	 * @param interp método de interpolação.
+	 * @return nova {@code Imagem} rotacionada, com fundo preto nas regiões descobertas.
+	 */
+	public Imagem rotacionar(Imagem img, double graus, Interpolacao interp) {
+		return gt.rotacionar(img, graus, interp, 0);
+	}
+
+	/**
+	 * Espelha a imagem horizontalmente.
+	 * @param img {@code Imagem} base.
+	 * @return nova {@code Imagem} espelhada.
+	 */
+	public Imagem espelharHorizontal(Imagem img) {
+		return gt.espelharHorizontal(img);
+	}
+
+	/**
+	 * Espelha a imagem verticalmente.
+	 * @param img {@code Imagem} base.
+	 * @return nova {@code Imagem} espelhada.
+	 */
+	public Imagem espelharVertical(Imagem img) {
+		return gt.espelharVertical(img);
+	}
+
+	/**
+	 * Transpõe a imagem, trocando linhas por colunas.
+	 * @param img {@code Imagem} base.
+	 * @return nova {@code Imagem} transposta.
+	 */
+	public Imagem transpor(Imagem img) {
+		return gt.transpor(img);
+	}
+
+	/**
+	 * Recorta uma região retangular da imagem.
+	 * @param img {@code Imagem} base.
+	 * @param x coordenada x do canto superior esquerdo.
+	 * @param y coordenada y do canto superior esquerdo.
+	 * @param largura largura do recorte.
+	 * @param altura altura do recorte.
+	 * @return nova {@code Imagem} recortada.
+	 */
+	public Imagem recortar(Imagem img, int x, int y, int largura, int altura) {
+		return gt.recortar(img, x, y, largura, altura);
+	}
+
+	/**
+	 * Aplica uma transformação afim à imagem.
+	 * <p>
+	 *    A matriz segue o formato {@code [a, b, c, d, e, f]}, onde
+	 *    {@code x' = a*x + b*y + c} e {@code y' = d*x + e*y + f}.
+	 * </p>
+	 * @param img {@code Imagem} base.
+	 * @param matriz matriz de transformação afim.
+	 * @param largura largura da imagem de destino.
+	 * @param altura altura da imagem de destino.
+	 * @param interp método de interpolação.
+	 * @return nova {@code Imagem} transformada, com fundo preto fora da imagem base.
+	 */
+	public Imagem transformar(Imagem img, double[] matriz, int largura, int altura, Interpolacao interp) {
+		return gt.transformar(img, matriz, largura, altura, interp, 0);
+	}
+
+	/**
+	 * Captura o valor de cor vermelha de cada pixel da imagem.
+	 * @param img {@code Imagem} base.
+	 * @return matriz com o valor de cor vermelha de cada pixel.
+	 */
+	public int[][] getR(Imagem img) {
+		return gdi.getR(img);
+	}
+
+	/**
+	 * Captura o valor de cor vermelha de cada pixel da imagem, reaproveitando a matriz 
+	 * de destino quando ela tiver as dimensões da imagem.
+	 * @param img {@code Imagem} base.
+	 * @param destino matriz {@code [altura][largura]} a ser reaproveitada, pode ser nula.
+	 * @return matriz com o valor de cor vermelha de cada pixel.
+	 */
+	public int[][] getR(Imagem img, int[][] destino) {
+		return gdi.getR(img, destino);
+	}
+
+	/**
+	 * Captura o valor de cor verde de cada pixel da imagem.
+	 * @param img {@code Imagem} base.
+	 * @return matriz com o valor de cor verde de cada pixel.
+	 */
+	public int[][] getG(Imagem img) {
+		return gdi.getG(img);
+	}
+
+	/**
+	 * Captura o valor de cor verde de cada pixel da imagem, reaproveitando a matriz 
+	 * de destino quando ela tiver as dimensões da imagem.
+	 * @param img {@code Imagem} base.
+	 * @param destino matriz {@code [altura][largura]} a ser reaproveitada, pode ser nula.
+	 * @return matriz com o valor de cor verde de cada pixel.
+	 */
+	public int[][] getG(Imagem img, int[][] destino) {
+		return gdi.getG(img, destino);
+	}
+
+	/**
+	 * Captura o valor de cor azul de cada pixel da imagem.
+	 * @param img {@code Imagem} base.
+	 * @return matriz com o valor de cor azul de cada pixel.
+	 */
+	public int[][] getB(Imagem img) {
+		return gdi.getB(img);
+	}
+
+	/**
+	 * Captura o valor de cor azul de cada pixel da imagem, reaproveitando a matriz 
+	 * de destino quando ela tiver as dimensões da imagem.
+	 * @param img {@code Imagem} base.
+	 * @param destino matriz {@code [altura][largura]} a ser reaproveitada, pode ser nula.
+	 * @return matriz com o valor de cor azul de cada pixel.
+	 */
+	public int[][] getB(Imagem img, int[][] destino) {
+		return gdi.getB(img, destino);
+	}
+
+	/**
+	 * Captura o valor de escala de cinza de cada pixel da imagem.
+	 * @param img {@code Imagem} base.
+	 * @return matriz com o valor de escala de cinza de cada pixel.
+	 */
+	public int[][] getGray(Imagem img) {
+		return gdi.getGray(img);
+	}
+
+	/**
+	 * Captura o valor de escala de cinza de cada pixel da imagem, reaproveitando a matriz 
+	 * de destino quando ela tiver as dimensões da imagem.
+	 * @param img {@code Imagem} base.
+	 * @param destino matriz {@code [altura][largura]} a ser reaproveitada, pode ser nula.
+	 * @return matriz com o valor de escala de cinza de cada pixel.
+	 */
+	public int[][] getGray(Imagem img, int[][] destino) {
+		return gdi.getGray(img, destino);
+	}
+
+	/**
+	 * Converte a imagem para o espaço de cor desejado, com um plano em ponto 
+	 * flutuante para cada canal.
+	 * @param img {@code Imagem} base.
+	 * @param espaco espaço de cor de destino.
+	 * @return planos {@code [3][largura * altura]}, os intervalos de cada canal 
+	 * estão descritos em {@code EspacoCor}.
+	 */
+	public float[][] paraEspacoCor(Imagem img, EspacoCor espaco) {
+		return cc.paraPlanar(img, espaco);
+	}
+
+	/**
+	 * Reconstrói uma imagem RGB a partir dos planos de um espaço de cor.
+	 * @param planos planos {@code [3][largura * altura]}.
+	 * @param largura largura da imagem.
+	 * @param altura altura da imagem.
+	 * @param espaco espaço de cor dos planos.
+	 * @return nova {@code Imagem}.
+	 */
+	public Imagem deEspacoCor(float[][] planos, int largura, int altura, EspacoCor espaco) {
+		return cc.dePlanar(planos, largura, altura, espaco);
+	}
+
+	/**
+	 * Retorna uma região retangular da imagem que compartilha seus pixels, 
+	 * sem cópia.
+	 * <p>
+	 *    A região pode ser usada em qualquer operação do Geim e alterações nela 
+	 *    são refletidas na imagem original.
+	 * </p>
+	 * @param img {@code Imagem} base.
+	 * @param x coordenada x do canto superior esquerdo.
+	 * @param y coordenada y do canto superior esquerdo.
+	 * @param largura largura da região.
+	 * @param altura altura da região.
+	 * @return {@code Imagem} que representa a região.
+	 */
+	public Imagem regiao(Imagem img, int x, int y, int largura, int altura) {
+		return img.regiao(x, y, largura, altura);
+	}
+
+	/**
+	 * Calcula o hash perceptual baseado em DCT da imagem.
+	 * <p>
+	 *    Imagens visualmente parecidas geram hashes com poucos bits diferentes, 
+	 *    ver {@code HashPerceptual.distancia} e {@code IndiceHash}.
+	 * </p>
+	 * @param img {@code Imagem} base.
+	 * @return hash de 64 bits.
+	 */
+	public long pHash(Imagem img) {
+		return hp.pHash(img);
+	}
+
+	/**
+	 * Calcula o hash de diferença (gradiente horizontal) da imagem.
+	 * @param img {@code Imagem} base.
+	 * @return hash de 64 bits.
+	 */
+	public long dHash(Imagem img) {
+		return hp.dHash(img);
+	}
+
+	/**
+	 * Calcula o hash médio da imagem.
+	 * @param img {@code Imagem} base.
+	 * @return hash de 64 bits.
+	 */
+	public long aHash(Imagem img) {
+		return hp.aHash(img);
+	}
+
+	/**
+	 * Compara duas imagens do mesmo tamanho, calculando MSE, PSNR, SSIM e a 
+	 * região com pixels diferentes em uma única passada.
+	 * @param a primeira {@code Imagem}.
+	 * @param b segunda {@code Imagem}.
+	 * @return resultado da comparação.
+	 */
+	public ResultadoComparacao comparar(Imagem a, Imagem b) {
+		return cmp.comparar(a, b);
+	}
+
+	/**
+	 * Compara duas imagens do mesmo tamanho, interrompendo a comparação 
+	 * quando o MSE exceder o limite.
+	 * @param a primeira {@code Imagem}.
+	 * @param b segunda {@code Imagem}.
+	 * @param tolerancia diferença máxima por canal para que um pixel ainda seja 
+	 * considerado igual.
+	 * @param limiteMSE MSE a partir do qual a comparação é interrompida.
+	 * @return resultado da comparação.
+	 */
+	public ResultadoComparacao comparar(Imagem a, Imagem b, int tolerancia, double limiteMSE) {
+		return cmp.comparar(a, b, tolerancia, limiteMSE);
+	}
+
+	/**
+	 * Gera uma máscara com pixels brancos onde as imagens diferem.
+	 * @param a primeira {@code Imagem}.
+	 * @param b segunda {@code Imagem}.
+	 * @param tolerancia diferença máxima por canal para que um pixel ainda seja 
+	 * considerado igual.
+	 * @return máscara de diferenças.
+	 */
+	public Imagem mascaraDiferencas(Imagem a, Imagem b, int tolerancia) {
+		return cmp.mascaraDiferencas(a, b, tolerancia);
+	}
+
+	/**
+	 * Gera uma imagem binária (um bit por pixel) ligando os pixels com 
+	 * intensidade de cinza maior ou igual ao limiar.
+	 * @param img {@code Imagem} base.
+	 * @param limiar intensidade mínima, no intervalo [0, 255].
+	 * @return nova {@code ImagemBinaria}.
+	 */
+	public ImagemBinaria limiarizar(Imagem img, int limiar) {
+		return ImagemBinaria.limiarizar(img, limiar);
+	}
+
+	/**
+	 * Aplica a erosão na imagem binária usando um elemento quadrado de 
+	 * lado {@code 2 * raio + 1}.
+	 * @param img imagem base, não é alterada.
+	 * @param raio raio do elemento estruturante.
+	 * @return nova {@code ImagemBinaria} erodida.
+	 */
+	public ImagemBinaria erodir(ImagemBinaria img, int raio) {
+		return mf.erodir(img, raio);
+	}
+
+	/**
+	 * Aplica a dilatação na imagem binária usando um elemento quadrado de 
+	 * lado {@code 2 * raio + 1}.
+	 * @param img imagem base, não é alterada.
+	 * @param raio raio do elemento estruturante.
+	 * @return nova {@code ImagemBinaria} dilatada.
+	 */
+	public ImagemBinaria dilatar(ImagemBinaria img, int raio) {
+		return mf.dilatar(img, raio);
+	}
+
+	/**
+	 * Aplica a abertura na imagem binária usando um elemento quadrado de 
+	 * lado {@code 2 * raio + 1}.
+	 * @param img imagem base, não é alterada.
+	 * @param raio raio do elemento estruturante.
+	 * @return nova {@code ImagemBinaria}.
+	 */
+	public ImagemBinaria abrir(ImagemBinaria img, int raio) {
+		return mf.abrir(img, raio, raio);
+	}
+
+	/**
+	 * Aplica o fechamento na imagem binária usando um elemento quadrado de 
+	 * lado {@code 2 * raio + 1}.
+	 * @param img imagem base, não é alterada.
+	 * @param raio raio do elemento estruturante.
+	 * @return nova {@code ImagemBinaria}.
+	 */
+	public ImagemBinaria fechar(ImagemBinaria img, int raio) {
+		return mf.fechar(img, raio, raio);
+	}
+
+	/**
+	 * Rotula os componentes conectados da imagem binária.
+	 * @param img imagem base.
+	 * @param conectividade {@code 4} ou {@code 8}.
+	 * @return {@code Componentes} encontrados, com as estatísticas de cada região.
+	 */
+	public Componentes rotular(ImagemBinaria img, int conectividade) {
+		return rot.rotular(img, conectividade);
+	}
+
+	/**
+	 * Gera uma paleta de cores para a imagem.
+	 * @param img {@code Imagem} base.
+	 * @param cores quantidade máxima de cores, entre 1 e 256.
+	 * @param metodo algoritmo de geração da paleta.
+	 * @return {@code Paleta} gerada.
+	 */
+	public Paleta gerarPaleta(Imagem img, int cores, MetodoQuantizacao metodo) {
+		return qz.gerarPaleta(img, cores, metodo);
+	}
+
+	/**
+	 * Reduz as cores da imagem para uma paleta de até 256 cores.
+	 * <p>
+	 *    O resultado pode ser gravado em {@code png} com cor indexada usando 
+	 *    {@code ImagemIndexada.paraPNG()}.
+	 * </p>
+	 * @param img {@code Imagem} base.
+	 * @param cores quantidade máxima de cores, entre 1 e 256.
+	 * @param metodo algoritmo de geração da paleta.
+	 * @param pontilhamento pontilhamento aplicado no mapeamento.
+	 * @return {@code ImagemIndexada} resultante.
+	 */
+	public ImagemIndexada quantizar(Imagem img, int cores, MetodoQuantizacao metodo, Pontilhamento pontilhamento) {
+		return qz.quantizar(img, cores, metodo, pontilhamento);
+	}
+
+	/**
+	 * Inicia uma sequência de operações sobre a imagem, avaliada apenas 
+	 * quando uma operação terminal for chamada.
+	 * <p>
+	 *    Operações pontuais consecutivas são fundidas em uma única passada e a 
+	 *    execução é feita em faixas de linhas, evitando imagens intermediárias.
+	 * </p>
+	 * @param img {@code Imagem} base, não é alterada.
+	 * @return novo {@code FluxoImagem}.
+	 */
+	public FluxoImagem fluxo(Imagem img) {
+		return new FluxoImagem(img);
+	}
+
 	/**
 	 * Exibe a imagem em janela gráfica.
+	 * <p>
+	 *    As classes do Swing só são carregadas quando este método é chamado,
+	 *    em ambientes sem interface gráfica use {@code renderizar}.
+	 * </p>
 	 * @param img {@code Imagem} base.
+	 * @param escala fator de escala da janela em relação à imagem.
+	 * @throws IllegalStateException se o ambiente não suportar interface gráfica.
 	 */
 	public void desenhar(Imagem img, double escala) {
+		if (GraphicsEnvironment.isHeadless()) {
+			throw new IllegalStateException(
+				"\nAmbiente sem suporte a interface gráfica, use renderizar()."
+			);
+		}
+
 		int w = (int) (img.largura() * escala);
 		int h = (int) (img.altura() * escala);
 		DrawFrame df = new DrawFrame(w, h);
@@ -163,12 +698,76 @@ public class Geim {
 	}
 
 	/**
-	 * Salva a estrutura de imagem em um arquivo de imagem {@code png}.
+	 * Renderiza a imagem em memória, sem abrir janelas gráficas.
 	 * @param img {@code Imagem} base.
-	 * @param caminho caminho relativo, deve conter o nome do arquivo, sem extensão
+	 * @param escala fator de escala aplicado à largura e altura.
+	 * @return {@code BufferedImage} renderizada.
+	 */
+	public BufferedImage renderizar(Imagem img, double escala) {
+		return rdz.paraBufferedImage(img, escala);
+	}
+
+	/**
+	 * Renderiza a imagem diretamente em um arquivo, sem abrir janelas gráficas.
+	 * <p>
+	 *    O formato é deduzido pela extensão do caminho.
+	 * </p>
+	 * @param img {@code Imagem} base.
+	 * @param escala fator de escala aplicado à largura e altura.
+	 * @param caminho caminho do arquivo de destino.
+	 */
+	public void renderizar(Imagem img, double escala, String caminho) {
+		rdz.escrever(img, escala, caminho);
+	}
+
+	/**
+	 * Renderiza a imagem em formato {@code png} diretamente em um fluxo de bytes, 
+	 * sem abrir janelas gráficas.
+	 * @param img {@code Imagem} base.
+	 * @param escala fator de escala aplicado à largura e altura.
+	 * @param saida fluxo de destino, não é fechado ao final.
+	 */
+	public void renderizar(Imagem img, double escala, OutputStream saida) {
+		rdz.escrever(img, escala, Renderizador.FORMATO_PADRAO, saida);
+	}
+
+	/**
+	 * Salva a estrutura de imagem em um arquivo de imagem {@code png}, usando o 
+	 * codificador {@code png} padrão da thread atual.
+	 * @param img {@code Imagem} base.
+	 * @param caminho caminho relativo, deve conter o nome do arquivo com a extensão {@code .png}.
 	 */
 	public void paraPNG(Imagem img, String caminho) {
-		img.paraPNG(caminho);
+		if (caminho == null || !caminho.endsWith(".png")) {
+			throw new IllegalArgumentException(
+				"\nCaminho deve conter a extensão .png"
+			);
+		}
+
+		Codificadores.png().codificar(img, caminho);
+	}
+
+	/**
+	 * Salva a estrutura de imagem em um arquivo, o formato é escolhido pela
+	 * extensão do caminho ({@code png}, {@code jpg}, {@code jpeg}, {@code ppm} 
+	 * ou {@code pgm}).
+	 * @param img {@code Imagem} base.
+	 * @param caminho caminho do arquivo, deve conter a extensão.
+	 * @return quantidade de bytes escritos.
+	 */
+	public long exportar(Imagem img, String caminho) {
+		return Codificadores.porCaminho(caminho).codificar(img, caminho);
+	}
+
+	/**
+	 * Codifica a estrutura de imagem em um fluxo de saída.
+	 * @param img {@code Imagem} base.
+	 * @param cod codificador desejado, pode ser reutilizado entre chamadas.
+	 * @param saida fluxo de destino, não é fechado ao final.
+	 * @return quantidade de bytes escritos.
+	 */
+	public long exportar(Imagem img, Codificador cod, OutputStream saida) {
+		return cod.codificar(img, saida);
 	}
 
 	/**
@@ -185,4 +784,16 @@ public class Geim {
 		return gdi.getDadosImagem(img);
 	}
 
+	/**
+	 * Captura os dados das posições dos pixeis e seus valores de cor rgb, 
+	 * reaproveitando o conjunto fornecido quando ele tiver o mesmo formato, 
+	 * evitando alocar uma linha por pixel a cada chamada.
+	 * @param img imagem desejada
+	 * @param reutilizar conjunto retornado por uma chamada anterior, pode ser nulo.
+	 * @return estrutura de dados baseada na imagem.
+	 */
+	public int[][] obterDadosImagem(BufferedImage img, int[][] reutilizar) {
+		return gdi.getDadosImagem(img, reutilizar);
+	}
+
 }
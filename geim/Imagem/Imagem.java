@@ -1,29 +1,144 @@
 package geim.imagem;
 
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DirectColorModel;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntUnaryOperator;
 
 import javax.imageio.ImageIO;
 
+import geim.memoria.PoolBuffers;
+import geim.metricas.Metricas;
+import geim.metricas.Operacao;
+
 /**
- * Estrutura para mapear uma imagem RBG usando Pixels.
+ * Estrutura para mapear uma imagem RBG.
+ * <p>
+ *    Os pixels são armazenados de forma compactada ({@code 0xRRGGBB}) em um 
+ *    único array, linha por linha. Uma imagem pode ser uma região de outra 
+ *    imagem (ver {@link #regiao(int, int, int, int)}), nesse caso ela compartilha 
+ *    o armazenamento da imagem original usando um deslocamento e um passo entre 
+ *    linhas, sem copiar pixels.
+ * </p>
+ * <p><strong>
+ *    Concorrência
+ * </strong></p>
+ * <p>
+ *    Cada pixel é um único {@code int}, então escritas por {@code set}, 
+ *    {@code setRGB} e {@code setLinha} nunca deixam um pixel com canais 
+ *    misturados de escritas diferentes, e {@code get} sempre retorna uma cópia 
+ *    independente. Fora isso a imagem não tem sincronização própria:
+ * </p>
+ * <ul>
+ *    <li>
+ *       Threads que escrevem em pixels diferentes não precisam de sincronização 
+ *       entre si; {@link #faixas(int)} divide a imagem em regiões de linhas 
+ *       disjuntas para esse uso. Os resultados ficam visíveis para quem aguardar 
+ *       o término das threads (ex: fim de um {@code parallel().forEach}, 
+ *       {@code Thread.join} ou {@code Future.get}).
+ *    </li>
+ *    <li>
+ *       Pixels lidos e escritos ao mesmo tempo por threads diferentes devem usar 
+ *       os métodos atômicos ({@link #getRGBAtomico(int, int)}, 
+ *       {@link #setRGBAtomico(int, int, int)}, {@link #compararETrocarRGB(int, int, int, int)} 
+ *       e {@link #atualizarRGB(int, int, IntUnaryOperator)}) ou sincronização externa.
+ *    </li>
+ *    <li>
+ *       {@link #congelar()} gera uma cópia imutável, que pode ser compartilhada 
+ *       livremente entre threads sem sincronização nem cópias defensivas.
+ *    </li>
+ * </ul>
  */
 public class Imagem {
 
     /**
-     * Conjunto de dados.
+     * Acesso atômico aos elementos do conjunto de dados.
+     */
+    private static final VarHandle PIXEL = MethodHandles.arrayElementVarHandle(int[].class);
+
+    /**
+     * Máscaras dos canais no formato {@code 0xRRGGBB}.
+     */
+    private static final int[] MASCARAS_RGB = {0xFF0000, 0x00FF00, 0x0000FF};
+
+    /**
+     * Modelo de cor equivalente a {@code BufferedImage.TYPE_INT_RGB}.
+     */
+    private static final DirectColorModel MODELO_RGB = new DirectColorModel(24, 0xFF0000, 0x00FF00, 0x0000FF);
+
+    /**
+     * Conjunto de dados, possivelmente compartilhado com outras imagens.
      */
-    private Pixel[] dados;
+    private final int[] dados;
+
+    /**
+     * Índice do pixel (0, 0) da imagem no conjunto de dados.
+     */
+    private final int deslocamento;
+
+    /**
+     * Distância, em elementos, entre o início de duas linhas consecutivas
+     * no conjunto de dados.
+     */
+    private final int passo;
 
     /**
      * Altura da imagem.
      */
-    private int altura;
+    private final int altura;
 
     /**
      * Largura da imagem.
      */
-    private int largura;
+    private final int largura;
+
+    /**
+     * Indica se a imagem é uma região de outra imagem.
+     */
+    private final boolean regiao;
+
+    /**
+     * Indica se a imagem é imutável.
+     * <p>
+     *    Os campos de geometria e o conjunto de dados são {@code final}, 
+     *    garantindo que uma imagem congelada seja vista completa por qualquer 
+     *    thread. Imagens congeladas nunca são alugadas, então o estado de 
+     *    aluguel não afeta a leitura delas.
+     * </p>
+     */
+    private final boolean congelada;
+
+    /**
+     * Aluguel do conjunto de dados, compartilhado entre a imagem alugada e suas 
+     * regiões, ou {@code null} caso o conjunto de dados não tenha sido alugado.
+     */
+    private final Aluguel aluguel;
+
+    /**
+     * Estado do aluguel de um conjunto de dados do pool global.
+     */
+    private static final class Aluguel {
+
+        /**
+         * Indica se o conjunto de dados já foi devolvido ao pool, visível para 
+         * todas as threads e todas as regiões da imagem alugada.
+         */
+        volatile boolean liberado;
+
+    }
 
     /**
      * Inicializa uma imagem a partir de um tamanho predefinido com pixels zerados.
@@ -39,11 +154,85 @@ public class Imagem {
 
         this.altura = altura;
         this.largura = largura;
+        this.deslocamento = 0;
+        this.passo = largura;
+        this.regiao = false;
+        this.congelada = false;
+        this.aluguel = null;
+
+        dados = new int[this.altura * this.largura];
+    }
+
+    /**
+     * Inicializa uma imagem que compartilha o conjunto de dados fornecido.
+     * @param dados conjunto de dados.
+     * @param deslocamento índice do pixel (0, 0).
+     * @param passo distância entre linhas.
+     * @param altura altura da imagem.
+     * @param largura largura da imagem.
+     * @param regiao se a imagem é uma região de outra imagem.
+     * @param congelada se a imagem é imutável.
+     * @param aluguel aluguel do conjunto de dados, ou {@code null}.
+     */
+    private Imagem(int[] dados, int deslocamento, int passo, int altura, int largura, boolean regiao, boolean congelada, Aluguel aluguel) {
+        this.dados = dados;
+        this.deslocamento = deslocamento;
+        this.passo = passo;
+        this.altura = altura;
+        this.largura = largura;
+        this.regiao = regiao;
+        this.congelada = congelada;
+        this.aluguel = aluguel;
+    }
 
-        dados = new Pixel[this.altura * this.largura];
-        for (int i = 0; i < dados.length; i++) {
-            dados[i] = new Pixel();
+    /**
+     * Cria uma imagem cujo armazenamento é alugado do pool global de buffers
+     * ({@code PoolBuffers.global()}).
+     * <p>
+     *    O conteúdo inicial dos pixels é indefinido. Quando a imagem não for 
+     *    mais necessária, chame {@link #liberar()} para devolver o armazenamento 
+     *    ao pool, evitando novas alocações para imagens do mesmo tamanho.
+     * </p>
+     * @param altura altura desejada.
+     * @param largura largura desejada.
+     * @return nova {@code Imagem}.
+     */
+    public static Imagem alugar(int altura, int largura) {
+        if (altura < 1 || largura < 1) {
+            throw new IllegalArgumentException(
+                "\nAltura e Largura devem ser maiores que zero."
+            );
         }
+
+        int[] buf = PoolBuffers.global().alugar(Math.multiplyExact(altura, largura));
+        return new Imagem(buf, 0, largura, altura, largura, false, false, new Aluguel());
+    }
+
+    /**
+     * Devolve o armazenamento de uma imagem criada por {@link #alugar(int, int)}
+     * ao pool global.
+     * <p>
+     *    Após a chamada a imagem fica vazia e qualquer acesso aos seus pixels 
+     *    lança {@code IllegalStateException}, inclusive nas regiões criadas a 
+     *    partir dela. Para regiões e imagens que não foram alugadas o método 
+     *    não tem efeito.
+     * </p>
+     */
+    public void liberar() {
+        if (aluguel == null || regiao) return;
+
+        synchronized (aluguel) {
+            if (aluguel.liberado) return;
+            aluguel.liberado = true;
+        }
+        PoolBuffers.global().devolver(dados);
+    }
+
+    /**
+     * Verifica se o conjunto de dados foi devolvido ao pool.
+     */
+    private boolean liberada() {
+        return aluguel != null && aluguel.liberado;
     }
 
     /**
@@ -53,28 +242,59 @@ public class Imagem {
      * @return índice calculado.
      */
     private int indice(int x, int y) {
+        if (liberada()) {
+            throw new IllegalStateException("\nA imagem foi liberada e não pode mais ser usada.");
+        }
         if (x < 0 || x >= this.largura) {
             throw new IllegalArgumentException("\nValor de x (" + x + ") fora de alcance.");
         }
-        if (y < 0 || y >= this.largura) {
+        if (y < 0 || y >= this.altura) {
             throw new IllegalArgumentException("\nValor de y (" + y + ") fora de alcance.");
         }
 
-        return y * altura + x;
+        return deslocamento + y * passo + x;
+    }
+
+    /**
+     * Calcula o índice interno de um elemento que será alterado.
+     * @param x valor horizontal.
+     * @param y valor vertical.
+     * @return índice calculado.
+     */
+    private int indiceEscrita(int x, int y) {
+        verificarEscrita();
+        return indice(x, y);
+    }
+
+    /**
+     * Verifica se a imagem pode ser alterada.
+     */
+    private void verificarEscrita() {
+        if (congelada) {
+            throw new IllegalStateException("\nA imagem está congelada e não pode ser alterada.");
+        }
     }
 
     /**
      * Retorna um pixel a partir da posição dada.
+     * <p>
+     *    O pixel retornado é uma cópia, alterações nele não afetam a imagem, 
+     *    use {@code set} para alterar o valor do pixel.
+     * </p>
      * @param x valor horizontal.
      * @param y valor vertical.
      * @return {@code Pixel} correspondente.
      */
     public Pixel get(int x, int y) {
-        return dados[indice(x, y)];
+        int rgb = dados[indice(x, y)];
+        return new Pixel((rgb >> 16) & 0xFF, (rgb >> 8) & 0xFF, rgb & 0xFF);
     }
 
     /**
      * Altera o valor RGB de um pixel.
+     * <p><strong>
+     *    Valores fora do intervalo [0, 255] serão limitados ao intervalo.
+     * </strong></p>
      * @param x valor horizontal.
      * @param y valor vertical.
      * @param r intensidade da cor vermelha.
@@ -82,8 +302,7 @@ public class Imagem {
      * @param b intensidade da cor azul.
      */
     public void set(int x, int y, int r, int g, int b) {
-        Pixel p = dados[indice(x, y)];
-        p.setRGB(r, g, b);
+        dados[indiceEscrita(x, y)] = compactar(r, g, b);
     }
 
     /**
@@ -93,8 +312,255 @@ public class Imagem {
      * @param pixel pixel base.
      */
     public void set(int x, int y, Pixel pixel) {
-        Pixel p = dados[indice(x, y)];
-        p.setRGB(pixel.getR(), pixel.getG(), pixel.getB());
+        dados[indiceEscrita(x, y)] = compactar(pixel.getR(), pixel.getG(), pixel.getB());
+    }
+
+    /**
+     * Retorna o valor RGB compactado de um pixel, no formato {@code 0xRRGGBB}.
+     * @param x valor horizontal.
+     * @param y valor vertical.
+     * @return valor RGB do pixel.
+     */
+    public int getRGB(int x, int y) {
+        return dados[indice(x, y)];
+    }
+
+    /**
+     * Altera o valor RGB de um pixel a partir de um valor compactado no
+     * formato {@code 0xRRGGBB}.
+     * @param x valor horizontal.
+     * @param y valor vertical.
+     * @param rgb valor RGB.
+     */
+    public void setRGB(int x, int y, int rgb) {
+        dados[indiceEscrita(x, y)] = rgb & 0xFFFFFF;
+    }
+
+    /**
+     * Retorna o valor RGB de um pixel com semântica {@code volatile}, vendo a 
+     * escrita mais recente feita por {@link #setRGBAtomico(int, int, int)}, 
+     * {@link #compararETrocarRGB(int, int, int, int)} ou 
+     * {@link #atualizarRGB(int, int, IntUnaryOperator)} em outra thread.
+     * @param x valor horizontal.
+     * @param y valor vertical.
+     * @return valor RGB do pixel.
+     */
+    public int getRGBAtomico(int x, int y) {
+        return (int) PIXEL.getVolatile(dados, indice(x, y));
+    }
+
+    /**
+     * Altera o valor RGB de um pixel com semântica {@code volatile}, tornando 
+     * a escrita imediatamente visível para {@link #getRGBAtomico(int, int)} em 
+     * outras threads.
+     * @param x valor horizontal.
+     * @param y valor vertical.
+     * @param rgb valor RGB no formato {@code 0xRRGGBB}.
+     */
+    public void setRGBAtomico(int x, int y, int rgb) {
+        PIXEL.setVolatile(dados, indiceEscrita(x, y), rgb & 0xFFFFFF);
+    }
+
+    /**
+     * Altera o valor RGB de um pixel apenas se o valor atual for igual ao 
+     * esperado, de forma atômica.
+     * @param x valor horizontal.
+     * @param y valor vertical.
+     * @param esperado valor RGB esperado.
+     * @param rgb novo valor RGB no formato {@code 0xRRGGBB}.
+     * @return {@code true} caso o valor tenha sido alterado.
+     */
+    public boolean compararETrocarRGB(int x, int y, int esperado, int rgb) {
+        return PIXEL.compareAndSet(dados, indiceEscrita(x, y), esperado & 0xFFFFFF, rgb & 0xFFFFFF);
+    }
+
+    /**
+     * Atualiza o valor RGB de um pixel de forma atômica, aplicando a função 
+     * ao valor atual até que nenhuma outra thread altere o pixel no meio 
+     * da atualização.
+     * <p>
+     *    A função pode ser chamada mais de uma vez e não deve ter efeitos 
+     *    colaterais.
+     * </p>
+     * @param x valor horizontal.
+     * @param y valor vertical.
+     * @param funcao função que recebe o valor atual e retorna o novo valor.
+     * @return novo valor RGB do pixel.
+     */
+    public int atualizarRGB(int x, int y, IntUnaryOperator funcao) {
+        int i = indiceEscrita(x, y);
+        int atual, novo;
+        do {
+            atual = (int) PIXEL.getVolatile(dados, i);
+            novo = funcao.applyAsInt(atual) & 0xFFFFFF;
+        } while (!PIXEL.compareAndSet(dados, i, atual, novo));
+
+        return novo;
+    }
+
+    /**
+     * Copia os valores RGB de uma linha da imagem para o array de destino.
+     * @param y linha desejada.
+     * @param destino array de destino, deve ter espaço para {@code largura()} 
+     * elementos a partir de {@code inicio}.
+     * @param inicio índice inicial no array de destino.
+     */
+    public void getLinha(int y, int[] destino, int inicio) {
+        System.arraycopy(dados, indice(0, y), destino, inicio, largura);
+    }
+
+    /**
+     * Copia os valores RGB do array de origem para uma linha da imagem.
+     * <p>
+     *    Os valores são gravados como estão, apenas os 24 bits menos 
+     *    significativos devem ser usados.
+     * </p>
+     * @param y linha desejada.
+     * @param origem array de origem, deve conter {@code largura()} elementos
+     * a partir de {@code inicio}.
+     * @param inicio índice inicial no array de origem.
+     */
+    public void setLinha(int y, int[] origem, int inicio) {
+        System.arraycopy(origem, inicio, dados, indiceEscrita(0, y), largura);
+    }
+
+    /**
+     * Preenche todos os pixels da imagem com o mesmo valor RGB.
+     * @param rgb valor RGB no formato {@code 0xRRGGBB}.
+     */
+    public void preencher(int rgb) {
+        rgb &= 0xFFFFFF;
+        for (int y = 0; y < altura; y++) {
+            int ini = indiceEscrita(0, y);
+            Arrays.fill(dados, ini, ini + largura, rgb);
+        }
+    }
+
+    /**
+     * Retorna uma região retangular da imagem.
+     * <p>
+     *    A região compartilha o armazenamento com esta imagem: nenhum pixel é 
+     *    copiado e alterações em uma são visíveis na outra. Regiões podem ser 
+     *    usadas em qualquer operação que aceite uma {@code Imagem}.
+     * </p>
+     * @param x coordenada x do canto superior esquerdo da região.
+     * @param y coordenada y do canto superior esquerdo da região.
+     * @param largura largura da região.
+     * @param altura altura da região.
+     * @return {@code Imagem} que representa a região.
+     */
+    public Imagem regiao(int x, int y, int largura, int altura) {
+        if (largura < 1 || altura < 1) {
+            throw new IllegalArgumentException(
+                "\nLargura e altura da região devem ser maiores que zero."
+            );
+        }
+        if (x < 0 || y < 0 || x + largura > this.largura || y + altura > this.altura) {
+            throw new IllegalArgumentException(
+                "\nRegião (" + x + ", " + y + ", " + largura + ", " + altura + ") " +
+                "fora dos limites da imagem."
+            );
+        }
+
+        return new Imagem(dados, indice(x, y), passo, altura, largura, true, congelada, aluguel);
+    }
+
+    /**
+     * Divide a imagem em faixas horizontais de linhas consecutivas.
+     * <p>
+     *    As faixas são regiões (ver {@link #regiao(int, int, int, int)}) que não 
+     *    se sobrepõem e cobrem toda a imagem, com alturas que diferem em no máximo 
+     *    uma linha. Cada faixa pode ser alterada por uma thread diferente sem 
+     *    sincronização, por exemplo:
+     * </p>
+     * <pre>
+     *img.faixas(n).parallelStream().forEach(faixa -> {
+     *    // altera apenas os pixels da faixa
+     *});
+     * </pre>
+     * @param quantidade quantidade desejada de faixas, limitada à altura da imagem.
+     * @return lista de faixas, de cima para baixo.
+     */
+    public List<Imagem> faixas(int quantidade) {
+        if (quantidade < 1) {
+            throw new IllegalArgumentException(
+                "\nQuantidade de faixas deve ser maior que zero, recebido: " + quantidade
+            );
+        }
+
+        int n = Math.min(quantidade, altura);
+        List<Imagem> faixas = new ArrayList<>(n);
+        int y = 0;
+        for (int i = 0; i < n; i++) {
+            int h = altura / n + (i < altura % n ? 1 : 0);
+            faixas.add(regiao(0, y, largura, h));
+            y += h;
+        }
+
+        return faixas;
+    }
+
+    /**
+     * Retorna uma cópia imutável da imagem.
+     * <p>
+     *    A cópia pode ser compartilhada entre threads sem sincronização, qualquer 
+     *    tentativa de alteração lança {@code IllegalStateException}. Regiões de 
+     *    uma imagem congelada também são congeladas, e {@link #copiar()} gera uma 
+     *    cópia alterável. Caso a imagem já esteja congelada ela mesma é retornada.
+     * </p>
+     * @return {@code Imagem} congelada.
+     */
+    public Imagem congelar() {
+        if (congelada) return this;
+
+        int[] copia = new int[altura * largura];
+        for (int y = 0; y < altura; y++) {
+            System.arraycopy(dados, indice(0, y), copia, y * largura, largura);
+        }
+
+        return new Imagem(copia, 0, largura, altura, largura, false, true, null);
+    }
+
+    /**
+     * Verifica se a imagem é imutável.
+     * @return {@code true} caso a imagem tenha sido criada por {@code congelar}.
+     */
+    public boolean ehCongelada() {
+        return congelada;
+    }
+
+    /**
+     * Verifica se a imagem é uma região que compartilha o armazenamento com 
+     * outra imagem.
+     * @return {@code true} caso a imagem tenha sido criada por {@code regiao}.
+     */
+    public boolean ehRegiao() {
+        return regiao;
+    }
+
+    /**
+     * Cria uma cópia independente da imagem, com armazenamento próprio.
+     * @return nova {@code Imagem}.
+     */
+    public Imagem copiar() {
+        Imagem copia = new Imagem(altura, largura);
+        for (int y = 0; y < altura; y++) {
+            System.arraycopy(dados, indice(0, y), copia.dados, y * largura, largura);
+        }
+
+        return copia;
+    }
+
+    /**
+     * Compacta os valores de cor no formato {@code 0xRRGGBB}, limitando cada
+     * canal ao intervalo [0, 255].
+     * @param r intensidade da cor vermelha.
+     * @param g intensidade da cor verde.
+     * @param b intensidade da cor azul.
+     * @return valor compactado.
+     */
+    private static int compactar(int r, int g, int b) {
+        return (Math.clamp(r, 0, 255) << 16) | (Math.clamp(g, 0, 255) << 8) | Math.clamp(b, 0, 255);
     }
 
     /**
@@ -102,7 +568,7 @@ public class Imagem {
      * @return valor de altura.
      */
     public int altura() {
-        return altura;
+        return liberada() ? 0 : altura;
     }
     
     /**
@@ -110,13 +576,20 @@ public class Imagem {
      * @return valor de largura.
      */
     public int largura() {
-        return largura;
+        return liberada() ? 0 : largura;
     }
 
 	/**
 	 * Salva a imagem em um arquivo externo {@code png}.
-	 * @param img {@code Imagem} base.
+	 * <p>
+	 *    Os pixels são copiados para um buffer alugado do pool global, então 
+	 *    exportações sucessivas de imagens do mesmo tamanho não alocam um novo 
+	 *    raster. Em caso de erro o arquivo parcial é removido. Para outros 
+	 *    formatos e opções, {@code Geim.exportar} usa os codificadores de 
+	 *    {@code geim.codificadores}.
+	 * </p>
 	 * @param caminho caminho desejado.
+	 * @throws UncheckedIOException se ocorrer um erro ao gravar o arquivo.
 	 */
 	public void paraPNG(String caminho) {
 		if (!caminho.endsWith(".png")) {
@@ -125,35 +598,40 @@ public class Imagem {
 			);
 		}
 
-		int altura = altura();
-		int largura = largura();
-
-		BufferedImage imagem = new BufferedImage(largura, altura, BufferedImage.TYPE_INT_RGB);
+		long t = Metricas.iniciar();
 
-		int r = 0;
-		int g = 0;
-		int b = 0;
-		int rgb = 0;
+		File arquivo = new File(caminho);
+		int n = Math.multiplyExact(largura, altura);
+		PoolBuffers pool = PoolBuffers.global();
+		int[] pixels = pool.alugar(n);
+		boolean aberto = false;
 
-		for (int y = 0; y < altura; y++) {
-			for (int x = 0; x < largura; x++) {
-				Pixel p = get(x, y);
-				r = p.getR();
-				g = p.getG();
-				b = p.getB();
-				rgb = (r << 16) | (g << 8) | b;
-				imagem.setRGB(x, y, rgb);
+		try {
+			for (int y = 0; y < altura; y++) {
+				getLinha(y, pixels, y * largura);
 			}
-		}
 
-		try {
-			File arquivo = new File((caminho));
-			ImageIO.write(imagem, "png", arquivo);
+			DataBufferInt db = new DataBufferInt(pixels, n);
+			WritableRaster raster = Raster.createPackedRaster(db, largura, altura, largura, MASCARAS_RGB, null);
+			BufferedImage imagem = new BufferedImage(MODELO_RGB, raster, false, null);
 
-		} catch (Exception e) {
-			System.out.println("\nErro ao exportar imagem");
-			e.printStackTrace();
+			try (OutputStream saida = new BufferedOutputStream(new FileOutputStream(arquivo), 1 << 16)) {
+				aberto = true;
+				ImageIO.write(imagem, "png", saida);
+			}
+		} catch (IOException e) {
+			if (aberto) arquivo.delete();
+			Metricas.registrarErro(Operacao.EXPORTACAO, e);
+			throw new UncheckedIOException("\nErro ao exportar imagem \"" + caminho + "\".", e);
+		} catch (RuntimeException e) {
+			if (aberto) arquivo.delete();
+			Metricas.registrarErro(Operacao.EXPORTACAO, e);
+			throw e;
+		} finally {
+			pool.devolver(pixels);
 		}
+
+		Metricas.registrar(Operacao.EXPORTACAO, t, arquivo.length(), n, 0);
 	}
 
 }
@@ -0,0 +1,146 @@
+package geim.cli;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import javax.imageio.ImageIO;
+
+/**
+ * Expansão das entradas da linha de comando em arquivos.
+ * <p>
+ *    Cada entrada pode ser um arquivo, um diretório (são usados os arquivos 
+ *    com extensão de imagem suportada pelo {@code ImageIO}) ou um padrão 
+ *    {@code glob} como {@code fotos/*.jpg}, expandido 
+ *    a partir do diretório anterior ao primeiro curinga.
+ * </p>
+ */
+final class Entradas {
+
+	/**
+	 * Arquivo de entrada.
+	 * @param arquivo caminho do arquivo.
+	 * @param relativo caminho relativo à base da entrada, usado para manter a 
+	 * estrutura de diretórios na saída.
+	 */
+	record Entrada(Path arquivo, Path relativo) {}
+
+	/**
+	 * Arquivos encontrados, sem repetições e na ordem das entradas.
+	 */
+	final List<Entrada> arquivos;
+
+	/**
+	 * Entradas que não corresponderam a nenhum arquivo.
+	 */
+	final List<String> naoEncontradas;
+
+	private Entradas(List<Entrada> arquivos, List<String> naoEncontradas) {
+		this.arquivos = arquivos;
+		this.naoEncontradas = naoEncontradas;
+	}
+
+	/**
+	 * Expande as entradas em arquivos.
+	 * @param entradas arquivos, diretórios ou padrões {@code glob}.
+	 * @param recursivo se os diretórios devem ser percorridos recursivamente.
+	 * @return arquivos encontrados.
+	 * @throws UncheckedIOException se ocorrer um erro ao percorrer um diretório.
+	 */
+	static Entradas expandir(List<String> entradas, boolean recursivo) {
+		Set<String> sufixos = Set.of(ImageIO.getReaderFileSuffixes());
+		Map<Path, Entrada> arquivos = new LinkedHashMap<>();
+		List<String> naoEncontradas = new ArrayList<>();
+
+		for (String e : entradas) {
+			int antes = arquivos.size();
+
+			if (ehGlob(e)) {
+				glob(e, arquivos);
+			} else {
+				Path p = Path.of(e);
+				if (Files.isDirectory(p)) {
+					diretorio(p, recursivo, sufixos, arquivos);
+				} else if (Files.isRegularFile(p)) {
+					arquivos.putIfAbsent(p.toAbsolutePath().normalize(), new Entrada(p, p.getFileName()));
+				}
+			}
+
+			if (arquivos.size() == antes) naoEncontradas.add(e);
+		}
+
+		return new Entradas(new ArrayList<>(arquivos.values()), naoEncontradas);
+	}
+
+	private static boolean ehGlob(String entrada) {
+		for (char c : entrada.toCharArray()) {
+			if (c == '*' || c == '?' || c == '[' || c == '{') return true;
+		}
+		return false;
+	}
+
+	private static void diretorio(Path dir, boolean recursivo, Set<String> sufixos, Map<Path, Entrada> arquivos) {
+		try (Stream<Path> s = recursivo ? Files.walk(dir) : Files.list(dir)) {
+			s.filter(Files::isRegularFile)
+				.filter(p -> sufixos.contains(extensao(p)))
+				.sorted()
+				.forEach(p -> arquivos.putIfAbsent(p.toAbsolutePath().normalize(), new Entrada(p, dir.relativize(p))));
+		} catch (IOException ex) {
+			throw new UncheckedIOException("\nErro ao listar o diretório \"" + dir + "\".", ex);
+		}
+	}
+
+	private static void glob(String padrao, Map<Path, Entrada> arquivos) {
+		// base: segmentos anteriores ao primeiro curinga
+		String[] partes = padrao.replace('\\', '/').split("/", -1);
+		StringBuilder base = new StringBuilder();
+		int i = 0;
+		for (; i < partes.length - 1 && !ehGlob(partes[i]); i++) {
+			base.append(partes[i]).append('/');
+		}
+
+		Path dir = base.length() == 0 ? Path.of(".") : Path.of(base.toString());
+		if (!Files.isDirectory(dir)) return;
+
+		String resto = String.join("/", List.of(partes).subList(i, partes.length));
+		PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + resto);
+		// "**/" também corresponde a arquivos diretamente na base
+		PathMatcher raiz = resto.startsWith("**/") ? 
+			FileSystems.getDefault().getPathMatcher("glob:" + resto.substring(3)) : matcher;
+		int profundidade = resto.contains("**") ? Integer.MAX_VALUE : partes.length - i;
+
+		try (Stream<Path> s = Files.walk(dir, profundidade)) {
+			s.filter(Files::isRegularFile)
+				.filter(p -> {
+					Path rel = dir.relativize(p);
+					return matcher.matches(rel) || raiz.matches(rel);
+				})
+				.sorted()
+				.forEach(p -> arquivos.putIfAbsent(p.toAbsolutePath().normalize(), new Entrada(p, dir.relativize(p))));
+		} catch (IOException ex) {
+			throw new UncheckedIOException("\nErro ao listar o diretório \"" + dir + "\".", ex);
+		}
+	}
+
+	/**
+	 * Retorna a extensão do arquivo em letras minúsculas.
+	 * @param p caminho do arquivo.
+	 * @return extensão sem o ponto, ou vazio caso não exista.
+	 */
+	static String extensao(Path p) {
+		String nome = p.getFileName().toString();
+		int ponto = nome.lastIndexOf('.');
+		return ponto < 0 ? "" : nome.substring(ponto + 1).toLowerCase(Locale.ROOT);
+	}
+
+}
@@ -0,0 +1,320 @@
+package geim.cli;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import geim.Geim;
+import geim.codificadores.Codificador;
+import geim.imagem.Imagem;
+import geim.metricas.Metricas;
+
+/**
+ * Ferramenta de linha de comando para processamento de imagens em lote.
+ * <p>
+ *    Não depende de interface gráfica e pode ser executada em ambientes 
+ *    {@code headless}. Os arquivos são processados em paralelo, cada thread 
+ *    reaproveitando sua {@code Imagem}, matriz de canal e codificador entre 
+ *    arquivos.
+ * </p>
+ * <p>
+ *    Códigos de saída:
+ * </p>
+ * <ul>
+ *    <li>{@code 0}: todos os arquivos foram processados.</li>
+ *    <li>{@code 1}: algum arquivo falhou ou alguma entrada não foi encontrada.</li>
+ *    <li>{@code 2}: argumentos inválidos.</li>
+ *    <li>{@code 3}: nenhum arquivo encontrado nas entradas.</li>
+ *    <li>{@code 4}: erro interno inesperado.</li>
+ * </ul>
+ */
+public final class LinhaComando {
+
+	/**
+	 * Todos os arquivos foram processados.
+	 */
+	public static final int SUCESSO = 0;
+
+	/**
+	 * Algum arquivo falhou ou alguma entrada não foi encontrada.
+	 */
+	public static final int FALHA_PARCIAL = 1;
+
+	/**
+	 * Argumentos inválidos.
+	 */
+	public static final int USO_INVALIDO = 2;
+
+	/**
+	 * Nenhum arquivo encontrado nas entradas.
+	 */
+	public static final int SEM_ENTRADAS = 3;
+
+	/**
+	 * Erro interno inesperado.
+	 */
+	public static final int ERRO_INTERNO = 4;
+
+	private static final String AJUDA = """
+		Uso: geim <comando> [opções] <entradas...>
+
+		Comandos:
+		  ler         lê e decodifica as imagens, sem gravar nada
+		  converter   grava as imagens no formato de saída
+		  preencher   preenche as imagens com --cor e grava no formato de saída
+		  canal       extrai o canal --canal e grava como imagem em escala de cinza
+
+		Entradas:
+		  arquivos, diretórios ou padrões glob (ex: "fotos/*.jpg", "dados/**/*.png")
+
+		Opções:
+		  -o, --saida <dir>           diretório de saída (padrão: junto à entrada)
+		  -f, --formato <fmt>         png, jpg, ppm ou pgm (padrão: png)
+		  -p, --predefinicao <nome>   rapido, equilibrado ou compacto (padrão: equilibrado)
+		  -j, --paralelismo <n>       arquivos processados em paralelo (padrão: núcleos)
+		  -c, --canal <canal>         r, g, b ou cinza (padrão: cinza)
+		      --cor <RRGGBB>          cor usada por preencher (padrão: 000000)
+		  -r, --recursivo             percorre diretórios recursivamente
+		      --falhar-rapido         interrompe no primeiro erro
+		      --metricas              imprime as métricas internas ao final
+		  -v, --verboso               imprime uma linha por arquivo
+		  -s, --silencioso            não imprime o resumo
+		  -h, --ajuda                 mostra esta ajuda
+
+		Códigos de saída:
+		  0 sucesso, 1 falha em algum arquivo, 2 argumentos inválidos,
+		  3 nenhum arquivo encontrado, 4 erro interno
+		""";
+
+	private final Opcoes op;
+	private final PrintStream out;
+	private final PrintStream err;
+	private final Geim geim = new Geim();
+
+	private final ThreadLocal<Imagem> imagens = new ThreadLocal<>();
+	private final ThreadLocal<int[][]> matrizes = new ThreadLocal<>();
+	private final ThreadLocal<Codificador> codificadores;
+	private final ConcurrentLinkedQueue<Codificador> criados = new ConcurrentLinkedQueue<>();
+
+	private final LongAdder processados = new LongAdder();
+	private final LongAdder falhas = new LongAdder();
+	private final LongAdder pixels = new LongAdder();
+	private final LongAdder bytesLidos = new LongAdder();
+	private final LongAdder bytesEscritos = new LongAdder();
+	private final AtomicBoolean parar = new AtomicBoolean();
+
+	private LinhaComando(Opcoes op, PrintStream out, PrintStream err) {
+		this.op = op;
+		this.out = out;
+		this.err = err;
+		this.codificadores = ThreadLocal.withInitial(() -> {
+			Codificador c = op.criarCodificador();
+			criados.add(c);
+			return c;
+		});
+	}
+
+	/**
+	 * Ponto de entrada da ferramenta.
+	 * @param args argumentos da linha de comando.
+	 */
+	public static void main(String[] args) {
+		System.exit(executar(args, System.out, System.err));
+	}
+
+	/**
+	 * Executa a ferramenta sem encerrar a JVM.
+	 * @param args argumentos da linha de comando.
+	 * @param out saída para o resumo e mensagens informativas.
+	 * @param err saída para mensagens de erro.
+	 * @return código de saída.
+	 */
+	public static int executar(String[] args, PrintStream out, PrintStream err) {
+		Opcoes op;
+		try {
+			op = Opcoes.ler(args);
+		} catch (IllegalArgumentException e) {
+			err.println("geim: " + e.getMessage().strip());
+			err.println("Use \"geim --ajuda\" para ver as opções.");
+			return USO_INVALIDO;
+		}
+
+		if (op.ajuda) {
+			out.print(AJUDA);
+			return SUCESSO;
+		}
+
+		try {
+			return new LinhaComando(op, out, err).executar();
+		} catch (RuntimeException e) {
+			err.println("geim: erro interno: " + e);
+			return ERRO_INTERNO;
+		}
+	}
+
+	private int executar() {
+		Entradas entradas;
+		try {
+			entradas = Entradas.expandir(op.entradas, op.recursivo);
+		} catch (UncheckedIOException e) {
+			err.println("geim: " + e.getMessage().strip() + " " + e.getCause().getMessage());
+			return SEM_ENTRADAS;
+		}
+
+		for (String e : entradas.naoEncontradas) {
+			err.println("geim: nenhum arquivo encontrado para \"" + e + "\"");
+		}
+		if (entradas.arquivos.isEmpty()) {
+			return SEM_ENTRADAS;
+		}
+
+		if (op.metricas) Metricas.ativar();
+
+		long inicio = System.nanoTime();
+		ForkJoinPool pool = new ForkJoinPool(op.paralelismo);
+		try {
+			pool.submit(() -> entradas.arquivos.parallelStream().forEach(this::processar)).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			parar.set(true);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException(e.getCause());
+		} finally {
+			pool.shutdown();
+			criados.forEach(Codificador::close);
+		}
+		long nanos = System.nanoTime() - inicio;
+
+		if (!op.silencioso) resumo(entradas.arquivos.size(), nanos);
+		if (op.metricas) out.print(Metricas.resumo());
+
+		boolean falhou = falhas.sum() > 0 || !entradas.naoEncontradas.isEmpty() || 
+			processados.sum() < entradas.arquivos.size();
+		return falhou ? FALHA_PARCIAL : SUCESSO;
+	}
+
+	/**
+	 * Processa um arquivo de entrada.
+	 */
+	private void processar(Entradas.Entrada e) {
+		if (parar.get()) return;
+
+		long t = System.nanoTime();
+		try {
+			Path arquivo = e.arquivo();
+			BufferedImage bi = geim.lerImagem(arquivo.toString());
+			Imagem img = geim.gerarEstruturaImagem(bi, imagens.get());
+			imagens.set(img);
+
+			long escritos = switch (op.comando) {
+				case LER -> 0;
+				case CONVERTER -> gravar(img, e, "");
+				case PREENCHER -> {
+					geim.preencher(img, op.cor);
+					yield gravar(img, e, "_preenchido");
+				}
+				case CANAL -> {
+					extrairCanal(img);
+					yield gravar(img, e, "_" + op.canal);
+				}
+			};
+
+			processados.increment();
+			pixels.add((long) img.largura() * img.altura());
+			bytesLidos.add(Files.size(arquivo));
+			bytesEscritos.add(escritos);
+
+			if (op.verboso) {
+				out.printf(Locale.ROOT, "ok   %s (%dx%d, %.1f ms)%n", 
+					arquivo, img.largura(), img.altura(), (System.nanoTime() - t) / 1e6);
+			}
+		} catch (IOException | RuntimeException ex) {
+			falhas.increment();
+			String msg = ex.getMessage() == null ? ex.toString() : ex.getMessage().strip();
+			if (ex.getCause() != null && ex.getCause().getMessage() != null) {
+				msg += " (" + ex.getCause().getMessage() + ")";
+			}
+			err.println("erro " + e.arquivo() + ": " + msg);
+			if (op.falharRapido) parar.set(true);
+		}
+	}
+
+	/**
+	 * Substitui os pixels da imagem pelo canal escolhido, em escala de cinza.
+	 */
+	private void extrairCanal(Imagem img) {
+		int[][] m = switch (op.canal) {
+			case "r" -> geim.getR(img, matrizes.get());
+			case "g" -> geim.getG(img, matrizes.get());
+			case "b" -> geim.getB(img, matrizes.get());
+			default -> geim.getGray(img, matrizes.get());
+		};
+		matrizes.set(m);
+
+		for (int y = 0; y < m.length; y++) {
+			int[] linha = m[y];
+			for (int x = 0; x < linha.length; x++) {
+				linha[x] *= 0x010101;
+			}
+			img.setLinha(y, linha, 0);
+		}
+	}
+
+	/**
+	 * Grava a imagem no diretório de saída, mantendo a estrutura relativa da entrada.
+	 * @return quantidade de bytes escritos.
+	 */
+	private long gravar(Imagem img, Entradas.Entrada e, String sufixo) throws IOException {
+		Path rel = e.relativo();
+		Path dir = op.saida == null ? e.arquivo().toAbsolutePath().getParent() : op.saida.resolve(rel).getParent();
+
+		String nome = rel.getFileName().toString();
+		int ponto = nome.lastIndexOf('.');
+		if (ponto > 0) nome = nome.substring(0, ponto);
+		Path destino = dir.resolve(nome + sufixo + "." + op.formato);
+
+		if (Files.exists(destino) && Files.isSameFile(destino, e.arquivo())) {
+			throw new IllegalArgumentException(
+				"\nA saída \"" + destino + "\" sobrescreveria a entrada, use --saida."
+			);
+		}
+
+		Files.createDirectories(dir);
+		return codificadores.get().codificar(img, destino.toString());
+	}
+
+	/**
+	 * Imprime o resumo de vazão da execução.
+	 */
+	private void resumo(int total, long nanos) {
+		double seg = nanos / 1e9;
+		long ok = processados.sum();
+		double mp = pixels.sum() / 1e6;
+
+		out.printf(Locale.ROOT, "%d/%d arquivos processados, %d falhas, %d ignorados em %.2f s (%d threads)%n",
+			ok, total, falhas.sum(), total - ok - falhas.sum(), seg, op.paralelismo);
+		out.printf(Locale.ROOT, "  %.1f imagens/s, %.1f MP/s, %.1f MP no total%n", 
+			ok / seg, mp / seg, mp);
+		out.printf(Locale.ROOT, "  lidos %s (%s/s), escritos %s (%s/s)%n",
+			bytes(bytesLidos.sum()), bytes((long) (bytesLidos.sum() / seg)),
+			bytes(bytesEscritos.sum()), bytes((long) (bytesEscritos.sum() / seg)));
+	}
+
+	private static String bytes(long n) {
+		if (n < 1024) return n + " B";
+		if (n < 1024 * 1024) return String.format(Locale.ROOT, "%.1f KB", n / 1024.0);
+		if (n < 1024L * 1024 * 1024) return String.format(Locale.ROOT, "%.1f MB", n / (1024.0 * 1024));
+		return String.format(Locale.ROOT, "%.2f GB", n / (1024.0 * 1024 * 1024));
+	}
+
+}
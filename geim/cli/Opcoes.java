@@ -0,0 +1,204 @@
+package geim.cli;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import geim.codificadores.Codificador;
+import geim.codificadores.CodificadorJPEG;
+import geim.codificadores.CodificadorPNG;
+import geim.codificadores.CodificadorPNM;
+import geim.codificadores.Predefinicao;
+
+/**
+ * Opções da linha de comando já validadas.
+ */
+final class Opcoes {
+
+	/**
+	 * Comandos disponíveis.
+	 */
+	enum Comando {
+
+		/**
+		 * Apenas lê e decodifica as imagens.
+		 */
+		LER,
+
+		/**
+		 * Lê as imagens e grava no formato de saída.
+		 */
+		CONVERTER,
+
+		/**
+		 * Preenche as imagens com uma cor e grava no formato de saída.
+		 */
+		PREENCHER,
+
+		/**
+		 * Extrai um canal das imagens e grava como imagem em escala de cinza.
+		 */
+		CANAL
+	}
+
+	Comando comando;
+	final List<String> entradas = new ArrayList<>();
+	Path saida;
+	String formato = "png";
+	Predefinicao predefinicao = Predefinicao.EQUILIBRADO;
+	int paralelismo = Runtime.getRuntime().availableProcessors();
+	String canal = "cinza";
+	int cor = 0x000000;
+	boolean recursivo;
+	boolean falharRapido;
+	boolean verboso;
+	boolean silencioso;
+	boolean metricas;
+	boolean ajuda;
+
+	private Opcoes() {}
+
+	/**
+	 * Interpreta os argumentos da linha de comando.
+	 * @param args argumentos recebidos.
+	 * @return opções lidas.
+	 * @throws IllegalArgumentException se algum argumento for inválido.
+	 */
+	static Opcoes ler(String[] args) {
+		Opcoes op = new Opcoes();
+
+		for (int i = 0; i < args.length; i++) {
+			String a = args[i];
+
+			if (!a.startsWith("-") || a.equals("-")) {
+				if (op.comando == null) op.comando = comando(a);
+				else op.entradas.add(a);
+				continue;
+			}
+
+			switch (a) {
+				case "-h", "--ajuda" -> op.ajuda = true;
+				case "-r", "--recursivo" -> op.recursivo = true;
+				case "-v", "--verboso" -> op.verboso = true;
+				case "-s", "--silencioso" -> op.silencioso = true;
+				case "--falhar-rapido" -> op.falharRapido = true;
+				case "--metricas" -> op.metricas = true;
+				case "-o", "--saida" -> op.saida = Path.of(valor(args, ++i, a));
+				case "-f", "--formato" -> op.formato = formato(valor(args, ++i, a));
+				case "-p", "--predefinicao" -> op.predefinicao = predefinicao(valor(args, ++i, a));
+				case "-j", "--paralelismo" -> op.paralelismo = paralelismo(valor(args, ++i, a));
+				case "-c", "--canal" -> op.canal = canal(valor(args, ++i, a));
+				case "--cor" -> op.cor = cor(valor(args, ++i, a));
+				case "--" -> {
+					for (i++; i < args.length; i++) {
+						if (op.comando == null) op.comando = comando(args[i]);
+						else op.entradas.add(args[i]);
+					}
+				}
+				default -> throw new IllegalArgumentException("\nOpção desconhecida: " + a);
+			}
+		}
+
+		if (op.ajuda) return op;
+
+		if (op.comando == null) {
+			throw new IllegalArgumentException("\nNenhum comando informado.");
+		}
+		if (op.entradas.isEmpty()) {
+			throw new IllegalArgumentException("\nNenhuma entrada informada.");
+		}
+
+		return op;
+	}
+
+	/**
+	 * Cria um novo codificador para o formato e a predefinição escolhidos.
+	 * @return novo {@code Codificador}.
+	 */
+	Codificador criarCodificador() {
+		return switch (formato) {
+			case "png" -> new CodificadorPNG(predefinicao);
+			case "jpg" -> new CodificadorJPEG(predefinicao);
+			case "ppm" -> new CodificadorPNM(false);
+			case "pgm" -> new CodificadorPNM(true);
+			default -> throw new IllegalStateException("\nFormato \"" + formato + "\" não suportado.");
+		};
+	}
+
+	private static String valor(String[] args, int i, String opcao) {
+		if (i >= args.length) {
+			throw new IllegalArgumentException("\nOpção " + opcao + " requer um valor.");
+		}
+		return args[i];
+	}
+
+	private static Comando comando(String nome) {
+		return switch (nome) {
+			case "ler" -> Comando.LER;
+			case "converter" -> Comando.CONVERTER;
+			case "preencher" -> Comando.PREENCHER;
+			case "canal" -> Comando.CANAL;
+			default -> throw new IllegalArgumentException("\nComando desconhecido: " + nome);
+		};
+	}
+
+	private static String formato(String valor) {
+		String f = valor.toLowerCase(Locale.ROOT);
+		if (f.equals("jpeg")) f = "jpg";
+		if (!List.of("png", "jpg", "ppm", "pgm").contains(f)) {
+			throw new IllegalArgumentException("\nFormato \"" + valor + "\" não suportado.");
+		}
+		return f;
+	}
+
+	private static Predefinicao predefinicao(String valor) {
+		try {
+			return Predefinicao.valueOf(valor.toUpperCase(Locale.ROOT));
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException(
+				"\nPredefinição \"" + valor + "\" inválida, use rapido, equilibrado ou compacto."
+			);
+		}
+	}
+
+	private static int paralelismo(String valor) {
+		int n;
+		try {
+			n = Integer.parseInt(valor);
+		} catch (NumberFormatException e) {
+			n = 0;
+		}
+
+		if (n < 1) {
+			throw new IllegalArgumentException(
+				"\nParalelismo deve ser um inteiro maior que zero, recebido: " + valor
+			);
+		}
+		return n;
+	}
+
+	private static String canal(String valor) {
+		String c = valor.toLowerCase(Locale.ROOT);
+		if (!List.of("r", "g", "b", "cinza").contains(c)) {
+			throw new IllegalArgumentException(
+				"\nCanal \"" + valor + "\" inválido, use r, g, b ou cinza."
+			);
+		}
+		return c;
+	}
+
+	private static int cor(String valor) {
+		String v = valor.startsWith("#") ? valor.substring(1) : valor;
+		if (v.length() != 6) {
+			throw new IllegalArgumentException("\nCor \"" + valor + "\" inválida, use o formato RRGGBB.");
+		}
+
+		try {
+			return Integer.parseInt(v, 16);
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("\nCor \"" + valor + "\" inválida, use o formato RRGGBB.");
+		}
+	}
+
+}
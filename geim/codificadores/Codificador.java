@@ -0,0 +1,218 @@
+package geim.codificadores;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+
+import geim.imagem.Imagem;
+import geim.metricas.Metricas;
+import geim.metricas.Operacao;
+
+/**
+ * Base dos codificadores de imagem do Geim.
+ * <p>
+ *    Um codificador pode ser reutilizado em várias chamadas, mantendo seus 
+ *    buffers internos e o escritor de imagens já configurado. Instâncias não 
+ *    são seguras para uso concorrente, use uma instância por thread (ver 
+ *    {@link Codificadores}).
+ * </p>
+ */
+public abstract class Codificador implements AutoCloseable {
+
+	/**
+	 * Tamanho do buffer usado na escrita de arquivos.
+	 */
+	private static final int TAM_BUFFER_ARQUIVO = 1 << 16;
+
+	/**
+	 * Buffer reutilizável para codificação em {@code ByteBuffer}.
+	 */
+	private SaidaMemoria memoria;
+
+	/**
+	 * Estimativa de bytes alocados pela codificação atual.
+	 */
+	protected long alocados;
+
+	/**
+	 * Inicializa o codificador.
+	 */
+	protected Codificador() {}
+
+	/**
+	 * Retorna a extensão de arquivo padrão do formato, sem o ponto.
+	 * @return extensão do formato.
+	 */
+	public abstract String extensao();
+
+	/**
+	 * Escreve a imagem codificada no fluxo de saída.
+	 * @param img {@code Imagem} base.
+	 * @param saida fluxo de destino.
+	 * @throws IOException caso ocorra um erro de escrita.
+	 */
+	protected abstract void escrever(Imagem img, OutputStream saida) throws IOException;
+
+	/**
+	 * Codifica a imagem em um fluxo de saída.
+	 * <p>
+	 *    O fluxo não é fechado ao final.
+	 * </p>
+	 * @param img {@code Imagem} base.
+	 * @param saida fluxo de destino.
+	 * @return quantidade de bytes escritos.
+	 */
+	public long codificar(Imagem img, OutputStream saida) {
+		if (img == null) {
+			throw new IllegalArgumentException("\nA imagem fornecida é nula.");
+		}
+		if (saida == null) {
+			throw new IllegalArgumentException("\nO fluxo de saída é nulo.");
+		}
+
+		long t = Metricas.iniciar();
+		alocados = 0;
+		Contador contador = new Contador(saida);
+
+		try {
+			escrever(img, contador);
+			contador.flush();
+		} catch (IOException e) {
+			Metricas.registrarErro(Operacao.EXPORTACAO, e);
+			throw new UncheckedIOException("\nErro ao codificar imagem em " + extensao() + ".", e);
+		}
+
+		long pixels = (long) img.largura() * img.altura();
+		Metricas.registrar(Operacao.EXPORTACAO, t, contador.total, pixels, alocados);
+
+		return contador.total;
+	}
+
+	/**
+	 * Codifica a imagem em um arquivo.
+	 * <p>
+	 *    Caso a codificação falhe depois de o arquivo ser criado, o arquivo 
+	 *    parcial é removido.
+	 * </p>
+	 * @param img {@code Imagem} base.
+	 * @param caminho caminho do arquivo de destino.
+	 * @return quantidade de bytes escritos.
+	 */
+	public long codificar(Imagem img, String caminho) {
+		if (img == null) {
+			throw new IllegalArgumentException("\nA imagem fornecida é nula.");
+		}
+		if (caminho == null) {
+			throw new IllegalArgumentException("\nO caminho fornecido é nulo.");
+		}
+
+		File arquivo = new File(caminho);
+		boolean aberto = false;
+
+		try (OutputStream saida = new BufferedOutputStream(new FileOutputStream(arquivo), TAM_BUFFER_ARQUIVO)) {
+			aberto = true;
+			return codificar(img, saida);
+		} catch (IOException e) {
+			if (aberto) arquivo.delete();
+			Metricas.registrarErro(Operacao.EXPORTACAO, e);
+			throw new UncheckedIOException("\nErro ao exportar imagem \"" + caminho + "\".", e);
+		} catch (RuntimeException e) {
+			// os erros de codificação já foram registrados nas métricas
+			if (aberto) arquivo.delete();
+			throw e;
+		}
+	}
+
+	/**
+	 * Codifica a imagem em um {@code ByteBuffer}, a partir da sua posição atual.
+	 * <p>
+	 *    A codificação é feita em um buffer interno reutilizável e então copiada 
+	 *    para o destino, que tem sua posição avançada.
+	 * </p>
+	 * @param img {@code Imagem} base.
+	 * @param destino buffer de destino.
+	 * @return quantidade de bytes escritos.
+	 * @throws IllegalArgumentException se o destino não tiver espaço suficiente.
+	 */
+	public int codificar(Imagem img, ByteBuffer destino) {
+		if (destino == null) {
+			throw new IllegalArgumentException("\nO buffer de destino é nulo.");
+		}
+
+		if (memoria == null) {
+			memoria = new SaidaMemoria();
+		}
+		memoria.reset();
+		codificar(img, memoria);
+
+		int tam = memoria.size();
+		if (tam > destino.remaining()) {
+			throw new IllegalArgumentException(
+				"\nBuffer de destino sem espaço suficiente, necessário " + tam + 
+				" bytes, disponível " + destino.remaining() + "."
+			);
+		}
+
+		destino.put(memoria.dados(), 0, tam);
+		return tam;
+	}
+
+	/**
+	 * Libera os buffers e recursos mantidos pelo codificador.
+	 * <p>
+	 *    O codificador continua utilizável, os recursos serão recriados quando 
+	 *    necessário.
+	 * </p>
+	 */
+	@Override
+	public void close() {
+		memoria = null;
+	}
+
+	/**
+	 * Fluxo em memória que expõe seu array interno para evitar cópias.
+	 */
+	private static class SaidaMemoria extends ByteArrayOutputStream {
+
+		SaidaMemoria() {
+			super(1 << 16);
+		}
+
+		byte[] dados() {
+			return buf;
+		}
+
+	}
+
+	/**
+	 * Fluxo que conta os bytes escritos.
+	 */
+	private static class Contador extends FilterOutputStream {
+
+		long total = 0;
+
+		Contador(OutputStream saida) {
+			super(saida);
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			out.write(b);
+			total++;
+		}
+
+		@Override
+		public void write(byte[] b, int ini, int tam) throws IOException {
+			out.write(b, ini, tam);
+			total += tam;
+		}
+
+	}
+
+}
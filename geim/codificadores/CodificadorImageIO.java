@@ -0,0 +1,148 @@
+package geim.codificadores;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+
+import geim.imagem.Imagem;
+
+/**
+ * Base dos codificadores que usam um {@code ImageWriter} do {@code ImageIO}.
+ * <p>
+ *    O escritor é procurado e configurado uma única vez e a {@code BufferedImage}
+ *    intermediária é reaproveitada enquanto as imagens tiverem o mesmo tamanho.
+ * </p>
+ */
+abstract class CodificadorImageIO extends Codificador {
+
+	/**
+	 * Nome do formato no {@code ImageIO}.
+	 */
+	private final String formato;
+
+	/**
+	 * Escritor de imagens reutilizado.
+	 */
+	private ImageWriter escritor;
+
+	/**
+	 * Parâmetros de escrita configurados.
+	 */
+	private ImageWriteParam param;
+
+	/**
+	 * Metadados de escrita configurados, podem ser nulos.
+	 */
+	private IIOMetadata metadados;
+
+	/**
+	 * Imagem intermediária reutilizada.
+	 */
+	private BufferedImage buffer;
+
+	/**
+	 * Inicializa o codificador.
+	 * @param formato nome do formato no {@code ImageIO}.
+	 */
+	CodificadorImageIO(String formato) {
+		this.formato = formato;
+	}
+
+	/**
+	 * Configura os parâmetros de escrita.
+	 * @param param parâmetros padrão do escritor.
+	 */
+	abstract void configurar(ImageWriteParam param);
+
+	/**
+	 * Cria os metadados de escrita.
+	 * @param escritor escritor de imagens.
+	 * @param param parâmetros de escrita configurados.
+	 * @return metadados, ou {@code null} para usar os padrões do escritor.
+	 * @throws IOException caso os metadados não possam ser criados.
+	 */
+	IIOMetadata criarMetadados(ImageWriter escritor, ImageWriteParam param) throws IOException {
+		return null;
+	}
+
+	/**
+	 * Procura e configura o escritor caso ainda não exista.
+	 */
+	private void preparar() throws IOException {
+		if (escritor != null) return;
+
+		Iterator<ImageWriter> it = ImageIO.getImageWritersByFormatName(formato);
+		if (!it.hasNext()) {
+			throw new IllegalStateException(
+				"\nNenhum escritor disponível para o formato \"" + formato + "\"."
+			);
+		}
+
+		escritor = it.next();
+		param = escritor.getDefaultWriteParam();
+		configurar(param);
+		metadados = criarMetadados(escritor, param);
+	}
+
+	/**
+	 * Copia a imagem para a {@code BufferedImage} intermediária, criando-a
+	 * apenas quando o tamanho mudar.
+	 * @param img {@code Imagem} base.
+	 * @return imagem intermediária preenchida.
+	 */
+	private BufferedImage converter(Imagem img) {
+		int largura = img.largura();
+		int altura = img.altura();
+
+		if (buffer == null || buffer.getWidth() != largura || buffer.getHeight() != altura) {
+			buffer = new BufferedImage(largura, altura, BufferedImage.TYPE_INT_RGB);
+			alocados += (long) largura * altura * 4;
+		}
+
+		int[] dados = ((DataBufferInt) buffer.getRaster().getDataBuffer()).getData();
+		for (int y = 0; y < altura; y++) {
+			img.getLinha(y, dados, y * largura);
+		}
+
+		return buffer;
+	}
+
+	@Override
+	protected void escrever(Imagem img, OutputStream saida) throws IOException {
+		preparar();
+		BufferedImage bi = converter(img);
+
+		ImageOutputStream ios = new MemoryCacheImageOutputStream(saida);
+		try {
+			escritor.setOutput(ios);
+			escritor.write(null, new IIOImage(bi, null, metadados), param);
+			ios.flush();
+		} finally {
+			escritor.setOutput(null);
+			ios.close();
+		}
+	}
+
+	@Override
+	public void close() {
+		super.close();
+		if (escritor != null) {
+			escritor.dispose();
+			escritor = null;
+		}
+		buffer = null;
+		param = null;
+		metadados = null;
+	}
+
+}
@@ -0,0 +1,155 @@
+package geim.codificadores;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.plugins.jpeg.JPEGImageWriteParam;
+
+import org.w3c.dom.NodeList;
+
+/**
+ * Codificador de imagens no formato {@code jpeg}, com perdas.
+ */
+public class CodificadorJPEG extends CodificadorImageIO {
+
+	/**
+	 * Nome do formato de metadados nativo do escritor JPEG.
+	 */
+	private static final String FORMATO_METADADOS = "javax_imageio_jpeg_image_1.0";
+
+	/**
+	 * Qualidade de compressão.
+	 */
+	private final float qualidade;
+
+	/**
+	 * Subamostragem de crominância.
+	 */
+	private final Subamostragem subamostragem;
+
+	/**
+	 * Otimizar as tabelas de Huffman.
+	 */
+	private final boolean otimizarHuffman;
+
+	/**
+	 * Inicializa um codificador {@code jpeg}.
+	 * @param qualidade qualidade de compressão, no intervalo [0, 1].
+	 * @param subamostragem subamostragem de crominância.
+	 * @param otimizarHuffman calcula tabelas de Huffman para cada imagem, gerando
+	 * arquivos menores com codificação mais lenta.
+	 */
+	public CodificadorJPEG(float qualidade, Subamostragem subamostragem, boolean otimizarHuffman) {
+		super("jpeg");
+
+		if (qualidade < 0 || qualidade > 1) {
+			throw new IllegalArgumentException(
+				"\nQualidade deve estar entre 0 e 1, recebido: " + qualidade
+			);
+		}
+		if (subamostragem == null) {
+			throw new IllegalArgumentException("\nA subamostragem fornecida é nula.");
+		}
+
+		this.qualidade = qualidade;
+		this.subamostragem = subamostragem;
+		this.otimizarHuffman = otimizarHuffman;
+	}
+
+	/**
+	 * Inicializa um codificador {@code jpeg}.
+	 * @param qualidade qualidade de compressão, no intervalo [0, 1].
+	 * @param subamostragem subamostragem de crominância.
+	 */
+	public CodificadorJPEG(float qualidade, Subamostragem subamostragem) {
+		this(qualidade, subamostragem, false);
+	}
+
+	/**
+	 * Inicializa um codificador {@code jpeg} a partir de uma predefinição.
+	 * <ul>
+	 *    <li>{@code RAPIDO}: qualidade 0.8, subamostragem 4:2:0.</li>
+	 *    <li>{@code EQUILIBRADO}: qualidade 0.85, subamostragem 4:2:0.</li>
+	 *    <li>{@code COMPACTO}: qualidade 0.75, subamostragem 4:2:0 e tabelas de Huffman otimizadas.</li>
+	 * </ul>
+	 * <p>
+	 *    No {@code jpeg} o tempo de codificação praticamente não depende da 
+	 *    qualidade, e {@code RAPIDO} e {@code EQUILIBRADO} já usam a configuração 
+	 *    mais barata (4:2:0 e tabelas de Huffman padrão). {@code RAPIDO} apenas 
+	 *    reduz qualidade e tamanho do arquivo, não o tempo; só {@code COMPACTO} 
+	 *    é mais lento, pela passada extra de otimização das tabelas.
+	 * </p>
+	 * @param predefinicao predefinição desejada.
+	 */
+	public CodificadorJPEG(Predefinicao predefinicao) {
+		this(
+			qualidadePara(predefinicao),
+			Subamostragem.S420,
+			predefinicao == Predefinicao.COMPACTO
+		);
+	}
+
+	/**
+	 * Inicializa um codificador {@code jpeg} com a predefinição {@code EQUILIBRADO}.
+	 */
+	public CodificadorJPEG() {
+		this(Predefinicao.EQUILIBRADO);
+	}
+
+	/**
+	 * Retorna a qualidade usada em cada predefinição.
+	 */
+	private static float qualidadePara(Predefinicao predefinicao) {
+		if (predefinicao == null) {
+			throw new IllegalArgumentException("\nA predefinição fornecida é nula.");
+		}
+
+		return switch (predefinicao) {
+			case RAPIDO      -> 0.8f;
+			case EQUILIBRADO -> 0.85f;
+			case COMPACTO    -> 0.75f;
+		};
+	}
+
+	@Override
+	public String extensao() {
+		return "jpg";
+	}
+
+	@Override
+	void configurar(ImageWriteParam param) {
+		param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+		param.setCompressionQuality(qualidade);
+
+		if (otimizarHuffman && param instanceof JPEGImageWriteParam jp) {
+			jp.setOptimizeHuffmanTables(true);
+		}
+	}
+
+	@Override
+	IIOMetadata criarMetadados(ImageWriter escritor, ImageWriteParam param) throws IOException {
+		ImageTypeSpecifier tipo = ImageTypeSpecifier.createFromBufferedImageType(BufferedImage.TYPE_INT_RGB);
+		IIOMetadata meta = escritor.getDefaultImageMetadata(tipo, param);
+
+		IIOMetadataNode raiz = (IIOMetadataNode) meta.getAsTree(FORMATO_METADADOS);
+		NodeList componentes = raiz.getElementsByTagName("componentSpec");
+
+		// o primeiro componente é a luminância, os demais a crominância
+		for (int i = 0; i < componentes.getLength(); i++) {
+			IIOMetadataNode c = (IIOMetadataNode) componentes.item(i);
+			int h = i == 0 ? subamostragem.horizontal : 1;
+			int v = i == 0 ? subamostragem.vertical : 1;
+			c.setAttribute("HsamplingFactor", String.valueOf(h));
+			c.setAttribute("VsamplingFactor", String.valueOf(v));
+		}
+
+		meta.setFromTree(FORMATO_METADADOS, raiz);
+		return meta;
+	}
+
+}
@@ -0,0 +1,55 @@
+package geim.codificadores;
+
+import javax.imageio.ImageWriteParam;
+
+/**
+ * Codificador de imagens no formato {@code png}, sem perdas.
+ * <p>
+ *    A predefinição controla o nível de compressão {@code deflate}: 
+ *    {@code RAPIDO} usa o nível 1, {@code EQUILIBRADO} o nível padrão (4) e 
+ *    {@code COMPACTO} o nível 9.
+ * </p>
+ */
+public class CodificadorPNG extends CodificadorImageIO {
+
+	/**
+	 * Predefinição de compressão.
+	 */
+	private final Predefinicao predefinicao;
+
+	/**
+	 * Inicializa um codificador {@code png} com a predefinição informada.
+	 * @param predefinicao predefinição de compressão.
+	 */
+	public CodificadorPNG(Predefinicao predefinicao) {
+		super("png");
+
+		if (predefinicao == null) {
+			throw new IllegalArgumentException("\nA predefinição fornecida é nula.");
+		}
+
+		this.predefinicao = predefinicao;
+	}
+
+	/**
+	 * Inicializa um codificador {@code png} com a predefinição {@code EQUILIBRADO}.
+	 */
+	public CodificadorPNG() {
+		this(Predefinicao.EQUILIBRADO);
+	}
+
+	@Override
+	public String extensao() {
+		return "png";
+	}
+
+	@Override
+	void configurar(ImageWriteParam param) {
+		if (predefinicao == Predefinicao.EQUILIBRADO || !param.canWriteCompressed()) return;
+
+		// o escritor usa nível deflate = 9 * (1 - qualidade)
+		param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+		param.setCompressionQuality(predefinicao == Predefinicao.RAPIDO ? 0.88f : 0f);
+	}
+
+}
@@ -0,0 +1,99 @@
+package geim.codificadores;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import geim.imagem.Imagem;
+import geim.memoria.PoolBuffers;
+
+/**
+ * Codificador de imagens nos formatos binários {@code ppm} (RGB) e
+ * {@code pgm} (escala de cinza).
+ * <p>
+ *    Os pixels são escritos sem compressão, o que torna o formato adequado 
+ *    para etapas intermediárias de processamento onde a velocidade importa 
+ *    mais que o tamanho.
+ * </p>
+ */
+public class CodificadorPNM extends Codificador {
+
+	/**
+	 * Escreve em escala de cinza ({@code pgm}).
+	 */
+	private final boolean cinza;
+
+	/**
+	 * Bytes de uma linha reutilizados.
+	 */
+	private byte[] bytes = new byte[0];
+
+	/**
+	 * Inicializa um codificador {@code pnm}.
+	 * @param cinza {@code true} para escrever em escala de cinza ({@code pgm}), 
+	 * {@code false} para RGB ({@code ppm}).
+	 */
+	public CodificadorPNM(boolean cinza) {
+		this.cinza = cinza;
+	}
+
+	/**
+	 * Inicializa um codificador {@code ppm} (RGB).
+	 */
+	public CodificadorPNM() {
+		this(false);
+	}
+
+	@Override
+	public String extensao() {
+		return cinza ? "pgm" : "ppm";
+	}
+
+	@Override
+	protected void escrever(Imagem img, OutputStream saida) throws IOException {
+		int largura = img.largura();
+		int altura = img.altura();
+		int canais = cinza ? 1 : 3;
+
+		if (bytes.length < largura * 3) {
+			bytes = new byte[largura * 3];
+			alocados += largura * 3L;
+		}
+
+		String cabecalho = (cinza ? "P5" : "P6") + "\n" + largura + " " + altura + "\n255\n";
+		saida.write(cabecalho.getBytes(StandardCharsets.US_ASCII));
+
+		PoolBuffers pool = PoolBuffers.global();
+		int[] linha = pool.alugar(largura);
+		try {
+			for (int y = 0; y < altura; y++) {
+				img.getLinha(y, linha, 0);
+
+				if (cinza) {
+					for (int x = 0; x < largura; x++) {
+						int rgb = linha[x];
+						bytes[x] = (byte) ((((rgb >> 16) & 0xFF) + ((rgb >> 8) & 0xFF) + (rgb & 0xFF)) / 3);
+					}
+				} else {
+					for (int x = 0, i = 0; x < largura; x++, i += 3) {
+						int rgb = linha[x];
+						bytes[i]     = (byte) (rgb >> 16);
+						bytes[i + 1] = (byte) (rgb >> 8);
+						bytes[i + 2] = (byte) rgb;
+					}
+				}
+
+				saida.write(bytes, 0, largura * canais);
+			}
+		} finally {
+			pool.devolver(linha);
+		}
+	}
+
+	@Override
+	public void close() {
+		super.close();
+		bytes = new byte[0];
+	}
+
+}
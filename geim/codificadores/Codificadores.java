@@ -0,0 +1,90 @@
+package geim.codificadores;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Acesso a codificadores padrão reutilizáveis.
+ * <p>
+ *    Cada thread recebe suas próprias instâncias, que são mantidas entre 
+ *    chamadas para evitar o custo de procurar e configurar escritores do 
+ *    {@code ImageIO} a cada exportação.
+ * </p>
+ */
+public final class Codificadores {
+
+	/**
+	 * Codificadores padrão de cada thread, indexados pela extensão.
+	 */
+	private static final ThreadLocal<Map<String, Codificador>> cache = ThreadLocal.withInitial(HashMap::new);
+
+	private Codificadores() {}
+
+	/**
+	 * Retorna o codificador padrão para a extensão informada.
+	 * <p>
+	 *    Extensões suportadas: {@code png}, {@code jpg}, {@code jpeg}, 
+	 *    {@code ppm} e {@code pgm}.
+	 * </p>
+	 * @param extensao extensão do formato, sem o ponto.
+	 * @return codificador da thread atual.
+	 */
+	public static Codificador porExtensao(String extensao) {
+		if (extensao == null) {
+			throw new IllegalArgumentException("\nA extensão fornecida é nula.");
+		}
+
+		String ext = extensao.toLowerCase();
+		if (ext.equals("jpeg")) ext = "jpg";
+
+		return cache.get().computeIfAbsent(ext, e -> switch (e) {
+			case "png" -> new CodificadorPNG();
+			case "jpg" -> new CodificadorJPEG();
+			case "ppm" -> new CodificadorPNM(false);
+			case "pgm" -> new CodificadorPNM(true);
+			default -> throw new IllegalArgumentException(
+				"\nFormato \"" + extensao + "\" não suportado."
+			);
+		});
+	}
+
+	/**
+	 * Retorna o codificador padrão de acordo com a extensão do caminho.
+	 * @param caminho caminho do arquivo, deve conter a extensão.
+	 * @return codificador da thread atual.
+	 */
+	public static Codificador porCaminho(String caminho) {
+		if (caminho == null) {
+			throw new IllegalArgumentException("\nO caminho fornecido é nulo.");
+		}
+
+		int ponto = caminho.lastIndexOf('.');
+		if (ponto < 0 || ponto == caminho.length() - 1) {
+			throw new IllegalArgumentException(
+				"\nCaminho \"" + caminho + "\" deve conter a extensão do arquivo."
+			);
+		}
+
+		return porExtensao(caminho.substring(ponto + 1));
+	}
+
+	/**
+	 * Retorna o codificador {@code png} padrão da thread atual.
+	 * @return codificador {@code png}.
+	 */
+	public static Codificador png() {
+		return porExtensao("png");
+	}
+
+	/**
+	 * Libera os codificadores mantidos pela thread atual.
+	 */
+	public static void liberar() {
+		Map<String, Codificador> mapa = cache.get();
+		for (Codificador c : mapa.values()) {
+			c.close();
+		}
+		mapa.clear();
+	}
+
+}
@@ -0,0 +1,29 @@
+package geim.codificadores;
+
+/**
+ * Predefinições de compromisso entre velocidade de codificação e tamanho
+ * do arquivo gerado.
+ * <p>
+ *    O efeito exato depende do formato, ver a documentação de cada codificador. 
+ *    Em {@code jpeg}, por exemplo, {@code RAPIDO} não reduz o tempo de 
+ *    codificação em relação a {@code EQUILIBRADO}.
+ * </p>
+ */
+public enum Predefinicao {
+
+	/**
+	 * Prioriza a velocidade de codificação, gerando arquivos maiores.
+	 */
+	RAPIDO,
+
+	/**
+	 * Equilíbrio entre velocidade e tamanho, equivalente ao padrão do {@code ImageIO}.
+	 */
+	EQUILIBRADO,
+
+	/**
+	 * Prioriza o menor tamanho de arquivo, com codificação mais lenta.
+	 */
+	COMPACTO
+
+}
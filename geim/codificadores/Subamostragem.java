@@ -0,0 +1,38 @@
+package geim.codificadores;
+
+/**
+ * Subamostragem de crominância usada na codificação JPEG.
+ */
+public enum Subamostragem {
+
+	/**
+	 * Sem subamostragem, crominância em resolução completa.
+	 */
+	S444(1, 1),
+
+	/**
+	 * Crominância com metade da resolução horizontal.
+	 */
+	S422(2, 1),
+
+	/**
+	 * Crominância com metade da resolução horizontal e vertical.
+	 */
+	S420(2, 2);
+
+	/**
+	 * Fator de amostragem horizontal da luminância.
+	 */
+	final int horizontal;
+
+	/**
+	 * Fator de amostragem vertical da luminância.
+	 */
+	final int vertical;
+
+	Subamostragem(int horizontal, int vertical) {
+		this.horizontal = horizontal;
+		this.vertical = vertical;
+	}
+
+}
@@ -0,0 +1,274 @@
+package geim.comparacao;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import geim.imagem.Imagem;
+
+/**
+ * Comparação entre imagens do mesmo tamanho.
+ * <p>
+ *    MSE, PSNR, SSIM, contagem e caixa das diferenças são calculados em uma 
+ *    única passada paralela sobre faixas de linhas das duas imagens. O SSIM é 
+ *    calculado sobre a luminância em janelas 8x8 sem sobreposição.
+ * </p>
+ * <p>
+ *    Quando um limite de MSE é informado, a passada é interrompida assim que 
+ *    o erro acumulado garante que o limite foi excedido, permitindo que 
+ *    imagens muito diferentes sejam rejeitadas sem percorrer todos os pixels.
+ * </p>
+ */
+public class Comparador {
+
+	/**
+	 * Lado das janelas do SSIM.
+	 */
+	private static final int JANELA = 8;
+
+	/**
+	 * Quantidade aproximada de pixels por faixa.
+	 */
+	private static final int PIXELS_POR_FAIXA = 1 << 15;
+
+	private static final double C1 = (0.01 * 255) * (0.01 * 255);
+	private static final double C2 = (0.03 * 255) * (0.03 * 255);
+
+	/**
+	 * Resultado parcial de uma faixa.
+	 */
+	private static final class Parcial {
+		long pixels;
+		long diferentes;
+		int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE;
+		int maxX = -1, maxY = -1;
+		double somaSsim;
+		int janelas;
+	}
+
+	/**
+	 * Contém implementações de comparação entre imagens.
+	 */
+	public Comparador() {}
+
+	/**
+	 * Compara duas imagens, considerando diferente qualquer pixel com algum
+	 * canal alterado.
+	 * @param a primeira {@code Imagem}.
+	 * @param b segunda {@code Imagem}.
+	 * @return resultado da comparação.
+	 */
+	public ResultadoComparacao comparar(Imagem a, Imagem b) {
+		return comparar(a, b, 0, Double.POSITIVE_INFINITY);
+	}
+
+	/**
+	 * Compara duas imagens.
+	 * @param a primeira {@code Imagem}.
+	 * @param b segunda {@code Imagem}.
+	 * @param tolerancia diferença máxima por canal para que um pixel ainda seja 
+	 * considerado igual.
+	 * @param limiteMSE MSE a partir do qual a comparação é interrompida, use 
+	 * {@code Double.POSITIVE_INFINITY} para percorrer as imagens completas.
+	 * @return resultado da comparação.
+	 */
+	public ResultadoComparacao comparar(Imagem a, Imagem b, int tolerancia, double limiteMSE) {
+		verificar(a, b);
+		if (tolerancia < 0) {
+			throw new IllegalArgumentException(
+				"\nTolerância deve ser maior ou igual a zero, recebido: " + tolerancia
+			);
+		}
+		if (!(limiteMSE >= 0)) {
+			throw new IllegalArgumentException(
+				"\nLimite de MSE deve ser maior ou igual a zero, recebido: " + limiteMSE
+			);
+		}
+
+		int largura = a.largura();
+		int altura = a.altura();
+		long total = (long) largura * altura;
+
+		// soma de erros quadráticos que garante MSE acima do limite
+		double lim = limiteMSE * 3 * total;
+		long limiteSSE = lim >= Long.MAX_VALUE ? Long.MAX_VALUE : (long) lim;
+
+		int linhasPorFaixa = Math.max(1, PIXELS_POR_FAIXA / (largura * JANELA)) * JANELA;
+		int faixas = (altura + linhasPorFaixa - 1) / linhasPorFaixa;
+
+		AtomicLong sse = new AtomicLong();
+		Parcial[] parciais = new Parcial[faixas];
+
+		IntStream.range(0, faixas).parallel().forEach(f -> {
+			int y0 = f * linhasPorFaixa;
+			int y1 = Math.min(altura, y0 + linhasPorFaixa);
+			parciais[f] = compararFaixa(a, b, y0, y1, tolerancia, sse, limiteSSE);
+		});
+
+		Parcial p = new Parcial();
+		for (Parcial q : parciais) {
+			p.pixels += q.pixels;
+			p.diferentes += q.diferentes;
+			p.minX = Math.min(p.minX, q.minX);
+			p.minY = Math.min(p.minY, q.minY);
+			p.maxX = Math.max(p.maxX, q.maxX);
+			p.maxY = Math.max(p.maxY, q.maxY);
+			p.somaSsim += q.somaSsim;
+			p.janelas += q.janelas;
+		}
+
+		boolean interrompida = p.pixels < total;
+		double mse = p.pixels == 0 ? 0 : sse.get() / (3.0 * p.pixels);
+		double ssim = interrompida || p.janelas == 0 ? Double.NaN : p.somaSsim / p.janelas;
+		int[] caixa = p.maxX < 0 ? null : new int[] {
+			p.minX, p.minY, p.maxX - p.minX + 1, p.maxY - p.minY + 1
+		};
+
+		return new ResultadoComparacao(mse, ssim, p.diferentes, caixa, interrompida);
+	}
+
+	/**
+	 * Verifica se o MSE entre as imagens excede o limite, interrompendo a 
+	 * comparação assim que possível.
+	 * @param a primeira {@code Imagem}.
+	 * @param b segunda {@code Imagem}.
+	 * @param limiteMSE limite de MSE.
+	 * @return {@code true} caso as imagens tenham tamanhos diferentes ou o MSE 
+	 * exceda o limite.
+	 */
+	public boolean excede(Imagem a, Imagem b, double limiteMSE) {
+		if (a == null || b == null) {
+			throw new IllegalArgumentException("\nAs imagens fornecidas não podem ser nulas.");
+		}
+		if (a.largura() != b.largura() || a.altura() != b.altura()) {
+			return true;
+		}
+
+		ResultadoComparacao r = comparar(a, b, 0, limiteMSE);
+		return r.interrompida() || r.mse() > limiteMSE;
+	}
+
+	/**
+	 * Gera uma máscara com as diferenças entre as imagens.
+	 * @param a primeira {@code Imagem}.
+	 * @param b segunda {@code Imagem}.
+	 * @param tolerancia diferença máxima por canal para que um pixel ainda seja 
+	 * considerado igual.
+	 * @return {@code Imagem} com pixels brancos onde as imagens diferem e pretos 
+	 * onde são iguais.
+	 */
+	public Imagem mascaraDiferencas(Imagem a, Imagem b, int tolerancia) {
+		verificar(a, b);
+
+		int largura = a.largura();
+		int altura = a.altura();
+		Imagem mascara = new Imagem(altura, largura);
+
+		IntStream.range(0, altura).parallel().forEach(y -> {
+			int[] la = new int[largura];
+			int[] lb = new int[largura];
+			a.getLinha(y, la, 0);
+			b.getLinha(y, lb, 0);
+			for (int x = 0; x < largura; x++) {
+				la[x] = diferente(la[x], lb[x], tolerancia) ? 0xFFFFFF : 0;
+			}
+			mascara.setLinha(y, la, 0);
+		});
+
+		return mascara;
+	}
+
+	/**
+	 * Compara as linhas {@code [y0, y1)} das imagens.
+	 */
+	private Parcial compararFaixa(Imagem a, Imagem b, int y0, int y1, int tolerancia, AtomicLong sse, long limiteSSE) {
+		Parcial p = new Parcial();
+		if (sse.get() > limiteSSE) return p;
+
+		int largura = a.largura();
+		int colunas = (largura + JANELA - 1) / JANELA;
+
+		int[] la = new int[largura];
+		int[] lb = new int[largura];
+		double[] sa = new double[colunas], sb = new double[colunas];
+		double[] saa = new double[colunas], sbb = new double[colunas], sab = new double[colunas];
+
+		for (int y = y0; y < y1; y++) {
+			if (sse.get() > limiteSSE) return p;
+
+			a.getLinha(y, la, 0);
+			b.getLinha(y, lb, 0);
+
+			long erro = 0;
+			for (int x = 0; x < largura; x++) {
+				int pa = la[x], pb = lb[x];
+				int ra = (pa >> 16) & 0xFF, ga = (pa >> 8) & 0xFF, ba = pa & 0xFF;
+				int rb = (pb >> 16) & 0xFF, gb = (pb >> 8) & 0xFF, bb = pb & 0xFF;
+				int dr = ra - rb, dg = ga - gb, db = ba - bb;
+				erro += dr*dr + dg*dg + db*db;
+
+				if (Math.abs(dr) > tolerancia || Math.abs(dg) > tolerancia || Math.abs(db) > tolerancia) {
+					p.diferentes++;
+					if (x < p.minX) p.minX = x;
+					if (x > p.maxX) p.maxX = x;
+					if (y < p.minY) p.minY = y;
+					p.maxY = y;
+				}
+
+				double ya = 0.299*ra + 0.587*ga + 0.114*ba;
+				double yb = 0.299*rb + 0.587*gb + 0.114*bb;
+				int c = x / JANELA;
+				sa[c] += ya;
+				sb[c] += yb;
+				saa[c] += ya*ya;
+				sbb[c] += yb*yb;
+				sab[c] += ya*yb;
+			}
+
+			p.pixels += largura;
+			sse.addAndGet(erro);
+
+			// fim de uma linha de janelas
+			if ((y + 1 - y0) % JANELA == 0 || y + 1 == y1) {
+				int alt = (y - y0) % JANELA + 1;
+				for (int c = 0; c < colunas; c++) {
+					int larg = Math.min(JANELA, largura - c*JANELA);
+					double n = larg * alt;
+					double ma = sa[c] / n, mb = sb[c] / n;
+					double va = saa[c] / n - ma*ma;
+					double vb = sbb[c] / n - mb*mb;
+					double cov = sab[c] / n - ma*mb;
+					p.somaSsim += ((2*ma*mb + C1) * (2*cov + C2)) / ((ma*ma + mb*mb + C1) * (va + vb + C2));
+					p.janelas++;
+					sa[c] = sb[c] = saa[c] = sbb[c] = sab[c] = 0;
+				}
+			}
+		}
+
+		return p;
+	}
+
+	/**
+	 * Verifica se algum canal difere acima da tolerância.
+	 */
+	private static boolean diferente(int pa, int pb, int tolerancia) {
+		return Math.abs(((pa >> 16) & 0xFF) - ((pb >> 16) & 0xFF)) > tolerancia ||
+		       Math.abs(((pa >> 8) & 0xFF) - ((pb >> 8) & 0xFF)) > tolerancia ||
+		       Math.abs((pa & 0xFF) - (pb & 0xFF)) > tolerancia;
+	}
+
+	/**
+	 * Verifica se as imagens podem ser comparadas.
+	 */
+	private void verificar(Imagem a, Imagem b) {
+		if (a == null || b == null) {
+			throw new IllegalArgumentException("\nAs imagens fornecidas não podem ser nulas.");
+		}
+		if (a.largura() != b.largura() || a.altura() != b.altura()) {
+			throw new IllegalArgumentException(
+				"\nAs imagens devem ter o mesmo tamanho, recebido " + 
+				a.largura() + "x" + a.altura() + " e " + b.largura() + "x" + b.altura() + "."
+			);
+		}
+	}
+
+}
@@ -0,0 +1,88 @@
+package geim.comparacao;
+
+import java.util.Arrays;
+
+/**
+ * Resultado da comparação entre duas imagens.
+ * <p>
+ *    Caso a comparação tenha sido interrompida por exceder um limite 
+ *    ({@link #interrompida()}), os valores refletem apenas a parte percorrida 
+ *    das imagens e o SSIM não é calculado.
+ * </p>
+ */
+public class ResultadoComparacao {
+
+	private final double mse;
+	private final double ssim;
+	private final long pixelsDiferentes;
+	private final int[] caixa;
+	private final boolean interrompida;
+
+	ResultadoComparacao(double mse, double ssim, long pixelsDiferentes, int[] caixa, boolean interrompida) {
+		this.mse = mse;
+		this.ssim = ssim;
+		this.pixelsDiferentes = pixelsDiferentes;
+		this.caixa = caixa;
+		this.interrompida = interrompida;
+	}
+
+	/**
+	 * Retorna o erro quadrático médio entre as imagens, considerando os três canais.
+	 * @return MSE, 0 para imagens idênticas.
+	 */
+	public double mse() {
+		return mse;
+	}
+
+	/**
+	 * Retorna a relação sinal-ruído de pico, em decibéis.
+	 * @return PSNR, ou {@code Double.POSITIVE_INFINITY} para imagens idênticas.
+	 */
+	public double psnr() {
+		return mse == 0 ? Double.POSITIVE_INFINITY : 10 * Math.log10(255.0 * 255.0 / mse);
+	}
+
+	/**
+	 * Retorna o índice de similaridade estrutural médio da luminância.
+	 * @return SSIM no intervalo [-1, 1], 1 para imagens idênticas, ou 
+	 * {@code Double.NaN} caso não tenha sido calculado.
+	 */
+	public double ssim() {
+		return ssim;
+	}
+
+	/**
+	 * Retorna a quantidade de pixels com diferença acima da tolerância.
+	 * @return quantidade de pixels diferentes.
+	 */
+	public long pixelsDiferentes() {
+		return pixelsDiferentes;
+	}
+
+	/**
+	 * Retorna a menor caixa que contém todos os pixels diferentes.
+	 * @return {@code [x, y, largura, altura]}, ou {@code null} caso não existam diferenças.
+	 */
+	public int[] caixaDiferencas() {
+		return caixa == null ? null : caixa.clone();
+	}
+
+	/**
+	 * Verifica se a comparação foi interrompida por exceder o limite.
+	 * @return {@code true} caso tenha sido interrompida.
+	 */
+	public boolean interrompida() {
+		return interrompida;
+	}
+
+	@Override
+	public String toString() {
+		return String.format(
+			"Comparacao = [mse: %.4f, psnr: %.2f dB, ssim: %.4f, diferentes: %d, caixa: %s%s]",
+			mse, psnr(), ssim, pixelsDiferentes, 
+			caixa == null ? "nenhuma" : Arrays.toString(caixa),
+			interrompida ? ", interrompida" : ""
+		);
+	}
+
+}
@@ -0,0 +1,446 @@
+package geim.cores;
+
+import java.awt.image.BufferedImage;
+import java.util.stream.IntStream;
+
+import geim.imagem.Imagem;
+
+/**
+ * Conversor entre RGB e outros espaços de cor.
+ * <p>
+ *    As conversões geram planos separados por canal ({@code planos[c][y * largura + x]}), 
+ *    em ponto flutuante ou em ponto fixo de 8 bits, e são feitas em uma única 
+ *    passada paralela sobre faixas de linhas da imagem. Os intervalos de cada 
+ *    canal estão descritos em {@link EspacoCor}.
+ * </p>
+ * <p>
+ *    A linearização sRGB usada no espaço {@code LAB} é feita por tabelas 
+ *    pré-calculadas.
+ * </p>
+ */
+public class ConversorCores {
+
+	/**
+	 * Tamanho da tabela de conversão de valores lineares para sRGB.
+	 */
+	private static final int TAM_LUT_SRGB = 4096;
+
+	/**
+	 * Valor sRGB de 8 bits para intensidade linear em [0, 1].
+	 */
+	private static final float[] SRGB_PARA_LINEAR = new float[256];
+
+	/**
+	 * Intensidade linear quantizada em {@code TAM_LUT_SRGB} níveis para sRGB de 8 bits.
+	 */
+	private static final int[] LINEAR_PARA_SRGB = new int[TAM_LUT_SRGB];
+
+	// ponto branco D65
+	private static final float XN = 0.95047f;
+	private static final float YN = 1.00000f;
+	private static final float ZN = 1.08883f;
+
+	static {
+		for (int i = 0; i < 256; i++) {
+			double c = i / 255.0;
+			SRGB_PARA_LINEAR[i] = (float) (c <= 0.04045 ? c / 12.92 : Math.pow((c + 0.055) / 1.055, 2.4));
+		}
+		for (int i = 0; i < TAM_LUT_SRGB; i++) {
+			double l = i / (double) (TAM_LUT_SRGB - 1);
+			double c = l <= 0.0031308 ? l * 12.92 : 1.055 * Math.pow(l, 1 / 2.4) - 0.055;
+			LINEAR_PARA_SRGB[i] = (int) Math.round(c * 255);
+		}
+	}
+
+	/**
+	 * Leitura de linhas RGB de uma imagem de origem.
+	 */
+	private interface LeitorLinha {
+		void ler(int y, int[] linha);
+	}
+
+	/**
+	 * Conversão de uma faixa de pixels.
+	 */
+	private interface ConversaoLinha {
+		void converter(int[] linha, int largura, int ini);
+	}
+
+	/**
+	 * Contém implementações de conversão entre espaços de cor.
+	 */
+	public ConversorCores() {}
+
+	/**
+	 * Converte a imagem para planos em ponto flutuante no espaço de cor desejado.
+	 * @param img {@code Imagem} base.
+	 * @param espaco espaço de cor de destino.
+	 * @return planos {@code [3][largura * altura]}.
+	 */
+	public float[][] paraPlanar(Imagem img, EspacoCor espaco) {
+		verificar(img, espaco);
+		return paraPlanar((y, l) -> img.getLinha(y, l, 0), img.largura(), img.altura(), espaco);
+	}
+
+	/**
+	 * Converte a imagem para planos em ponto flutuante no espaço de cor desejado.
+	 * @param img {@code BufferedImage} base.
+	 * @param espaco espaço de cor de destino.
+	 * @return planos {@code [3][largura * altura]}.
+	 */
+	public float[][] paraPlanar(BufferedImage img, EspacoCor espaco) {
+		verificar(img, espaco);
+		int w = img.getWidth();
+		return paraPlanar((y, l) -> img.getRGB(0, y, w, 1, l, 0, w), w, img.getHeight(), espaco);
+	}
+
+	/**
+	 * Converte a imagem para planos em ponto fixo de 8 bits no espaço de cor desejado.
+	 * <p>
+	 *    Os valores devem ser lidos sem sinal ({@code plano[i] & 0xFF}).
+	 * </p>
+	 * @param img {@code Imagem} base.
+	 * @param espaco espaço de cor de destino.
+	 * @return planos {@code [3][largura * altura]}.
+	 */
+	public byte[][] paraPlanarFixo(Imagem img, EspacoCor espaco) {
+		verificar(img, espaco);
+		return paraPlanarFixo((y, l) -> img.getLinha(y, l, 0), img.largura(), img.altura(), espaco);
+	}
+
+	/**
+	 * Converte a imagem para planos em ponto fixo de 8 bits no espaço de cor desejado.
+	 * <p>
+	 *    Os valores devem ser lidos sem sinal ({@code plano[i] & 0xFF}).
+	 * </p>
+	 * @param img {@code BufferedImage} base.
+	 * @param espaco espaço de cor de destino.
+	 * @return planos {@code [3][largura * altura]}.
+	 */
+	public byte[][] paraPlanarFixo(BufferedImage img, EspacoCor espaco) {
+		verificar(img, espaco);
+		int w = img.getWidth();
+		return paraPlanarFixo((y, l) -> img.getRGB(0, y, w, 1, l, 0, w), w, img.getHeight(), espaco);
+	}
+
+	/**
+	 * Reconstrói uma imagem RGB a partir de planos em ponto flutuante.
+	 * @param planos planos {@code [3][largura * altura]}.
+	 * @param largura largura da imagem.
+	 * @param altura altura da imagem.
+	 * @param espaco espaço de cor dos planos.
+	 * @return nova {@code Imagem}.
+	 */
+	public Imagem dePlanar(float[][] planos, int largura, int altura, EspacoCor espaco) {
+		verificarPlanos(planos, planos == null ? 0 : planos.length, largura, altura, espaco);
+		for (float[] p : planos) verificarTamanho(p == null ? -1 : p.length, largura, altura);
+
+		float[] p0 = planos[0], p1 = planos[1], p2 = planos[2];
+		return reconstruir(largura, altura, (linha, w, ini) -> {
+			for (int x = 0; x < w; x++) {
+				int i = ini + x;
+				linha[x] = paraRGB(espaco, p0[i], p1[i], p2[i]);
+			}
+		});
+	}
+
+	/**
+	 * Reconstrói uma imagem RGB a partir de planos em ponto fixo de 8 bits.
+	 * @param planos planos {@code [3][largura * altura]}.
+	 * @param largura largura da imagem.
+	 * @param altura altura da imagem.
+	 * @param espaco espaço de cor dos planos.
+	 * @return nova {@code Imagem}.
+	 */
+	public Imagem dePlanarFixo(byte[][] planos, int largura, int altura, EspacoCor espaco) {
+		verificarPlanos(planos, planos == null ? 0 : planos.length, largura, altura, espaco);
+		for (byte[] p : planos) verificarTamanho(p == null ? -1 : p.length, largura, altura);
+
+		byte[] p0 = planos[0], p1 = planos[1], p2 = planos[2];
+		return reconstruir(largura, altura, (linha, w, ini) -> {
+			for (int x = 0; x < w; x++) {
+				int i = ini + x;
+				int c0 = p0[i] & 0xFF, c1 = p1[i] & 0xFF, c2 = p2[i] & 0xFF;
+				linha[x] = switch (espaco) {
+					case RGB   -> (c0 << 16) | (c1 << 8) | c2;
+					case YCBCR -> ycbcrParaRGBFixo(c0, c1, c2);
+					case HSV, HSL -> paraRGB(espaco, c0 * (360f / 256f), c1 / 255f, c2 / 255f);
+					case LAB   -> paraRGB(espaco, c0 * (100f / 255f), c1 - 128, c2 - 128);
+				};
+			}
+		});
+	}
+
+	/**
+	 * Converte os pixels em planos de ponto flutuante.
+	 */
+	private float[][] paraPlanar(LeitorLinha leitor, int largura, int altura, EspacoCor espaco) {
+		int n = largura * altura;
+		float[] p0 = new float[n], p1 = new float[n], p2 = new float[n];
+
+		percorrer(leitor, largura, altura, (linha, w, ini) -> {
+			float[] c = new float[3];
+			for (int x = 0; x < w; x++) {
+				int rgb = linha[x];
+				int i = ini + x;
+				int r = (rgb >> 16) & 0xFF, g = (rgb >> 8) & 0xFF, b = rgb & 0xFF;
+				switch (espaco) {
+					case RGB -> {
+						p0[i] = r; p1[i] = g; p2[i] = b;
+					}
+					default -> {
+						deRGB(espaco, r, g, b, c);
+						p0[i] = c[0]; p1[i] = c[1]; p2[i] = c[2];
+					}
+				}
+			}
+		});
+
+		return new float[][] {p0, p1, p2};
+	}
+
+	/**
+	 * Converte os pixels em planos de ponto fixo.
+	 */
+	private byte[][] paraPlanarFixo(LeitorLinha leitor, int largura, int altura, EspacoCor espaco) {
+		int n = largura * altura;
+		byte[] p0 = new byte[n], p1 = new byte[n], p2 = new byte[n];
+
+		percorrer(leitor, largura, altura, (linha, w, ini) -> {
+			float[] c = new float[3];
+			for (int x = 0; x < w; x++) {
+				int rgb = linha[x];
+				int i = ini + x;
+				int r = (rgb >> 16) & 0xFF, g = (rgb >> 8) & 0xFF, b = rgb & 0xFF;
+				switch (espaco) {
+					case RGB -> {
+						p0[i] = (byte) r; p1[i] = (byte) g; p2[i] = (byte) b;
+					}
+					case YCBCR -> {
+						int ycc = rgbParaYCbCrFixo(r, g, b);
+						p0[i] = (byte) (ycc >> 16); p1[i] = (byte) (ycc >> 8); p2[i] = (byte) ycc;
+					}
+					case HSV, HSL -> {
+						deRGB(espaco, r, g, b, c);
+						p0[i] = (byte) ((int) (c[0] * (256f / 360f)) & 0xFF);
+						p1[i] = (byte) Math.round(c[1] * 255);
+						p2[i] = (byte) Math.round(c[2] * 255);
+					}
+					case LAB -> {
+						deRGB(espaco, r, g, b, c);
+						p0[i] = (byte) Math.clamp(Math.round(c[0] * 2.55f), 0, 255);
+						p1[i] = (byte) Math.clamp(Math.round(c[1] + 128), 0, 255);
+						p2[i] = (byte) Math.clamp(Math.round(c[2] + 128), 0, 255);
+					}
+				}
+			}
+		});
+
+		return new byte[][] {p0, p1, p2};
+	}
+
+	/**
+	 * Percorre as linhas da imagem em faixas paralelas.
+	 */
+	private void percorrer(LeitorLinha leitor, int largura, int altura, ConversaoLinha conv) {
+		int faixas = Math.min(altura, Runtime.getRuntime().availableProcessors() * 4);
+		IntStream.range(0, faixas).parallel().forEach(f -> {
+			int ini = (int) ((long) altura * f / faixas);
+			int fim = (int) ((long) altura * (f + 1) / faixas);
+			int[] linha = new int[largura];
+			for (int y = ini; y < fim; y++) {
+				leitor.ler(y, linha);
+				conv.converter(linha, largura, y * largura);
+			}
+		});
+	}
+
+	/**
+	 * Reconstrói uma imagem preenchendo suas linhas em faixas paralelas.
+	 */
+	private Imagem reconstruir(int largura, int altura, ConversaoLinha conv) {
+		Imagem img = new Imagem(altura, largura);
+		int faixas = Math.min(altura, Runtime.getRuntime().availableProcessors() * 4);
+		IntStream.range(0, faixas).parallel().forEach(f -> {
+			int ini = (int) ((long) altura * f / faixas);
+			int fim = (int) ((long) altura * (f + 1) / faixas);
+			int[] linha = new int[largura];
+			for (int y = ini; y < fim; y++) {
+				conv.converter(linha, largura, y * largura);
+				img.setLinha(y, linha, 0);
+			}
+		});
+		return img;
+	}
+
+	/**
+	 * Converte um pixel RGB para HSV, HSL ou LAB.
+	 */
+	private static void deRGB(EspacoCor espaco, int r, int g, int b, float[] saida) {
+		if (espaco == EspacoCor.YCBCR) {
+			saida[0] =         0.299f    * r + 0.587f    * g + 0.114f    * b;
+			saida[1] = 128f -  0.168736f * r - 0.331264f * g + 0.5f      * b;
+			saida[2] = 128f +  0.5f      * r - 0.418688f * g - 0.081312f * b;
+			return;
+		}
+		if (espaco == EspacoCor.LAB) {
+			float lr = SRGB_PARA_LINEAR[r], lg = SRGB_PARA_LINEAR[g], lb = SRGB_PARA_LINEAR[b];
+			float x = (0.4124564f*lr + 0.3575761f*lg + 0.1804375f*lb) / XN;
+			float y = (0.2126729f*lr + 0.7151522f*lg + 0.0721750f*lb) / YN;
+			float z = (0.0193339f*lr + 0.1191920f*lg + 0.9503041f*lb) / ZN;
+			float fx = fLab(x), fy = fLab(y), fz = fLab(z);
+			saida[0] = 116*fy - 16;
+			saida[1] = 500*(fx - fy);
+			saida[2] = 200*(fy - fz);
+			return;
+		}
+
+		float rf = r / 255f, gf = g / 255f, bf = b / 255f;
+		float max = Math.max(rf, Math.max(gf, bf));
+		float min = Math.min(rf, Math.min(gf, bf));
+		float d = max - min;
+
+		float h = 0;
+		if (d > 0) {
+			if (max == rf)      h = 60 * (((gf - bf) / d) % 6);
+			else if (max == gf) h = 60 * ((bf - rf) / d + 2);
+			else                h = 60 * ((rf - gf) / d + 4);
+			if (h < 0) h += 360;
+		}
+		saida[0] = h;
+
+		if (espaco == EspacoCor.HSV) {
+			saida[1] = max == 0 ? 0 : d / max;
+			saida[2] = max;
+		} else {
+			float l = (max + min) / 2;
+			saida[1] = d == 0 ? 0 : d / (1 - Math.abs(2*l - 1));
+			saida[2] = l;
+		}
+	}
+
+	/**
+	 * Converte um pixel do espaço de cor informado para RGB compactado.
+	 */
+	private static int paraRGB(EspacoCor espaco, float c0, float c1, float c2) {
+		float r, g, b;
+		switch (espaco) {
+			case RGB -> {
+				r = c0; g = c1; b = c2;
+			}
+			case YCBCR -> {
+				r = c0 + 1.402f    * (c2 - 128);
+				g = c0 - 0.344136f * (c1 - 128) - 0.714136f * (c2 - 128);
+				b = c0 + 1.772f    * (c1 - 128);
+			}
+			case LAB -> {
+				float fy = (c0 + 16) / 116;
+				float fx = fy + c1 / 500;
+				float fz = fy - c2 / 200;
+				float x = fLabInv(fx) * XN, y = fLabInv(fy) * YN, z = fLabInv(fz) * ZN;
+				return (linearParaSRGB( 3.2404542f*x - 1.5371385f*y - 0.4985314f*z) << 16) |
+				       (linearParaSRGB(-0.9692660f*x + 1.8760108f*y + 0.0415560f*z) << 8) |
+				        linearParaSRGB( 0.0556434f*x - 0.2040259f*y + 1.0572252f*z);
+			}
+			default -> {
+				float h = ((c0 % 360) + 360) % 360 / 60;
+				float croma, m;
+				if (espaco == EspacoCor.HSV) {
+					croma = c2 * c1;
+					m = c2 - croma;
+				} else {
+					croma = (1 - Math.abs(2*c2 - 1)) * c1;
+					m = c2 - croma / 2;
+				}
+				float x = croma * (1 - Math.abs(h % 2 - 1));
+				int setor = (int) h;
+				switch (setor) {
+					case 0  -> { r = croma; g = x;     b = 0; }
+					case 1  -> { r = x;     g = croma; b = 0; }
+					case 2  -> { r = 0;     g = croma; b = x; }
+					case 3  -> { r = 0;     g = x;     b = croma; }
+					case 4  -> { r = x;     g = 0;     b = croma; }
+					default -> { r = croma; g = 0;     b = x; }
+				}
+				r = (r + m) * 255; g = (g + m) * 255; b = (b + m) * 255;
+			}
+		}
+
+		int ir = Math.clamp(Math.round(r), 0, 255);
+		int ig = Math.clamp(Math.round(g), 0, 255);
+		int ib = Math.clamp(Math.round(b), 0, 255);
+		return (ir << 16) | (ig << 8) | ib;
+	}
+
+	/**
+	 * Converte RGB de 8 bits para YCbCr compactado usando os coeficientes BT.601 
+	 * em ponto fixo 16.16.
+	 */
+	private static int rgbParaYCbCrFixo(int r, int g, int b) {
+		int y  = ( 19595*r + 38470*g +  7471*b + 32768) >> 16;
+		int cb = (-11059*r - 21709*g + 32768*b + (128 << 16) + 32767) >> 16;
+		int cr = ( 32768*r - 27439*g -  5329*b + (128 << 16) + 32767) >> 16;
+		return (y << 16) | (cb << 8) | cr;
+	}
+
+	/**
+	 * Converte YCbCr de 8 bits para RGB compactado usando ponto fixo 16.16.
+	 */
+	private static int ycbcrParaRGBFixo(int y, int cb, int cr) {
+		cb -= 128;
+		cr -= 128;
+		int r = y + ((91881*cr + 32768) >> 16);
+		int g = y - ((22554*cb + 46802*cr + 32768) >> 16);
+		int b = y + ((116130*cb + 32768) >> 16);
+		return (Math.clamp(r, 0, 255) << 16) | (Math.clamp(g, 0, 255) << 8) | Math.clamp(b, 0, 255);
+	}
+
+	/**
+	 * Converte intensidade linear para sRGB de 8 bits usando a tabela pré-calculada.
+	 */
+	private static int linearParaSRGB(float l) {
+		int i = (int) (l * (TAM_LUT_SRGB - 1) + 0.5f);
+		return LINEAR_PARA_SRGB[Math.clamp(i, 0, TAM_LUT_SRGB - 1)];
+	}
+
+	private static float fLab(float t) {
+		return t > 0.008856f ? (float) Math.cbrt(t) : 7.787f*t + 16f/116f;
+	}
+
+	private static float fLabInv(float f) {
+		float f3 = f*f*f;
+		return f3 > 0.008856f ? f3 : (f - 16f/116f) / 7.787f;
+	}
+
+	private void verificar(Object img, EspacoCor espaco) {
+		if (img == null) {
+			throw new IllegalArgumentException("\nA imagem fornecida é nula.");
+		}
+		if (espaco == null) {
+			throw new IllegalArgumentException("\nO espaço de cor fornecido é nulo.");
+		}
+	}
+
+	private void verificarPlanos(Object planos, int n, int largura, int altura, EspacoCor espaco) {
+		if (planos == null || n != 3) {
+			throw new IllegalArgumentException("\nDevem ser fornecidos 3 planos de cor.");
+		}
+		if (espaco == null) {
+			throw new IllegalArgumentException("\nO espaço de cor fornecido é nulo.");
+		}
+		if (largura < 1 || altura < 1) {
+			throw new IllegalArgumentException(
+				"\nLargura e altura devem ser maiores que zero."
+			);
+		}
+	}
+
+	private void verificarTamanho(int tam, int largura, int altura) {
+		if (tam != largura * altura) {
+			throw new IllegalArgumentException(
+				"\nCada plano deve conter " + (largura * altura) + " elementos."
+			);
+		}
+	}
+
+}
@@ -0,0 +1,51 @@
+package geim.cores;
+
+/**
+ * Espaços de cor suportados pelo {@link ConversorCores}.
+ * <p>
+ *    Intervalos dos planos em ponto flutuante:
+ * </p>
+ * <ul>
+ *    <li>{@code RGB}: R, G e B em [0, 255].</li>
+ *    <li>{@code HSV}: H em [0, 360), S e V em [0, 1].</li>
+ *    <li>{@code HSL}: H em [0, 360), S e L em [0, 1].</li>
+ *    <li>{@code YCBCR}: Y, Cb e Cr em [0, 255] (faixa completa, JPEG/BT.601).</li>
+ *    <li>{@code LAB}: L em [0, 100], a e b aproximadamente em [-128, 127] (CIE L*a*b*, D65).</li>
+ * </ul>
+ * <p>
+ *    Intervalos dos planos em ponto fixo (8 bits sem sinal):
+ * </p>
+ * <ul>
+ *    <li>{@code RGB} e {@code YCBCR}: mesmos valores da versão em ponto flutuante.</li>
+ *    <li>{@code HSV} e {@code HSL}: H mapeado de [0, 360) para [0, 255], demais canais multiplicados por 255.</li>
+ *    <li>{@code LAB}: L multiplicado por 255/100, a e b deslocados em +128.</li>
+ * </ul>
+ */
+public enum EspacoCor {
+
+	/**
+	 * Vermelho, verde e azul.
+	 */
+	RGB,
+
+	/**
+	 * Matiz, saturação e valor.
+	 */
+	HSV,
+
+	/**
+	 * Matiz, saturação e luminosidade.
+	 */
+	HSL,
+
+	/**
+	 * Luminância e crominâncias azul e vermelha.
+	 */
+	YCBCR,
+
+	/**
+	 * Luminosidade e componentes de cor a* e b* da CIE.
+	 */
+	LAB
+
+}
@@ -17,10 +17,9 @@ public class DrawFrame extends JFrame {
      * @param h altura da janela.
      */
     public DrawFrame(int w, int h) {
-        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
         dp = new DrawPanel(w, h);
 		
-        setVisible(true);
 		add(dp);
 		pack();
 		setResizable(false);
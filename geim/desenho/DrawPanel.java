@@ -8,7 +8,6 @@ import java.awt.image.BufferedImage;
 import javax.swing.JPanel;
 
 import geim.imagem.Imagem;
-import geim.imagem.Pixel;
 
 public class DrawPanel extends JPanel {
 
@@ -17,6 +16,11 @@ public class DrawPanel extends JPanel {
      */
     BufferedImage img;
 
+    /**
+     * Conversor de {@code Imagem} para {@code BufferedImage}.
+     */
+    private final transient Renderizador renderizador = new Renderizador();
+
     /**
      * Inicializa um novo painel para desenho.
      * @param w largura.
@@ -28,31 +32,12 @@ public class DrawPanel extends JPanel {
         setEnabled(true);
     }
 
-    /**
-     * Transforma uma {@code Imagem} em {@code BufferedImage} para desenho.
-     * @param img {@code Imagem} base.
-     * @return {@code BufferedImage} convertida.
-     */
-    private BufferedImage imagemParaBufferedImgage(Imagem img) {
-        BufferedImage bi = new BufferedImage(img.largura(), img.altura(), BufferedImage.TYPE_INT_RGB);
-        
-        for (int y = 0; y < img.altura(); y++) {
-            for (int x = 0; x < img.largura(); x++) {
-                Pixel p = img.get(x, y);
-                int rgb = p.getR() << 16 | p.getG() << 8 | p.getB();
-                bi.setRGB(x, y, rgb);
-            }
-        }
-
-        return bi;
-    }
-
     /**
      * Exibe uma imagem em janela gráfica.
      * @param img {@code Imagem} base.
      */
     public void exibir(Imagem img) {
-        this.img = imagemParaBufferedImgage(img);
+        this.img = renderizador.paraBufferedImage(img, this.img);
         repaint();
     }
 
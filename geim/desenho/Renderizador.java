@@ -0,0 +1,169 @@
+package geim.desenho;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+import javax.imageio.ImageIO;
+
+import geim.imagem.Imagem;
+
+/**
+ * Renderizador de imagens sem interface gráfica.
+ * <p>
+ *    Não depende de classes do Swing, podendo ser usado em ambientes
+ *    {@code headless} (servidores, linha de comando) para gerar a imagem
+ *    em memória ou gravá-la diretamente em arquivos e fluxos de bytes.
+ * </p>
+ */
+public class Renderizador {
+
+	/**
+	 * Formato padrão usado quando nenhum outro é informado.
+	 */
+	public static final String FORMATO_PADRAO = "png";
+
+	/**
+	 * Inicializa um renderizador de imagens.
+	 */
+	public Renderizador() {}
+
+	/**
+	 * Converte uma {@code Imagem} em {@code BufferedImage} do tipo {@code TYPE_INT_RGB}.
+	 * @param img {@code Imagem} base.
+	 * @return {@code BufferedImage} convertida.
+	 */
+	public BufferedImage paraBufferedImage(Imagem img) {
+		return paraBufferedImage(img, null);
+	}
+
+	/**
+	 * Converte uma {@code Imagem} em {@code BufferedImage} do tipo {@code TYPE_INT_RGB}, 
+	 * reaproveitando a {@code BufferedImage} fornecida quando ela tiver o mesmo 
+	 * tamanho e tipo.
+	 * @param img {@code Imagem} base.
+	 * @param reutilizar imagem a ser reaproveitada, pode ser nula.
+	 * @return {@code reutilizar} preenchida, ou uma nova {@code BufferedImage}.
+	 */
+	public BufferedImage paraBufferedImage(Imagem img, BufferedImage reutilizar) {
+		if (img == null) {
+			throw new IllegalArgumentException("\nA imagem fornecida é nula.");
+		}
+
+		int largura = img.largura();
+		int altura = img.altura();
+
+		BufferedImage bi = reutilizar;
+		if (bi == null || bi.getType() != BufferedImage.TYPE_INT_RGB || 
+			bi.getWidth() != largura || bi.getHeight() != altura) {
+			bi = new BufferedImage(largura, altura, BufferedImage.TYPE_INT_RGB);
+		}
+
+		int[] dados = ((DataBufferInt) bi.getRaster().getDataBuffer()).getData();
+
+		for (int y = 0; y < altura; y++) {
+			img.getLinha(y, dados, y * largura);
+		}
+
+		return bi;
+	}
+
+	/**
+	 * Converte uma {@code Imagem} em {@code BufferedImage} redimensionada.
+	 * @param img {@code Imagem} base.
+	 * @param escala fator de escala aplicado à largura e altura.
+	 * @return {@code BufferedImage} convertida.
+	 */
+	public BufferedImage paraBufferedImage(Imagem img, double escala) {
+		if (escala <= 0) {
+			throw new IllegalArgumentException(
+				"\nEscala deve ser maior que zero, recebido: " + escala
+			);
+		}
+
+		BufferedImage base = paraBufferedImage(img);
+		if (escala == 1) return base;
+
+		int w = Math.max(1, (int) (img.largura() * escala));
+		int h = Math.max(1, (int) (img.altura() * escala));
+
+		BufferedImage bi = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+		Graphics2D g2 = bi.createGraphics();
+		g2.setRenderingHint(
+			RenderingHints.KEY_INTERPOLATION,
+			RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR
+		);
+		g2.drawImage(base, 0, 0, w, h, null);
+		g2.dispose();
+
+		return bi;
+	}
+
+	/**
+	 * Grava a imagem renderizada em um fluxo de saída.
+	 * <p>
+	 *    O fluxo não é fechado ao final da escrita.
+	 * </p>
+	 * @param img {@code Imagem} base.
+	 * @param escala fator de escala aplicado à largura e altura.
+	 * @param formato nome do formato de imagem (ex: {@code png}).
+	 * @param saida fluxo de destino.
+	 */
+	public void escrever(Imagem img, double escala, String formato, OutputStream saida) {
+		if (saida == null) {
+			throw new IllegalArgumentException("\nO fluxo de saída é nulo.");
+		}
+
+		BufferedImage bi = paraBufferedImage(img, escala);
+
+		try {
+			if (!ImageIO.write(bi, formato, saida)) {
+				throw new IllegalArgumentException(
+					"\nFormato \"" + formato + "\" não suportado."
+				);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("\nErro ao escrever imagem.", e);
+		}
+	}
+
+	/**
+	 * Grava a imagem renderizada em um arquivo.
+	 * <p>
+	 *    O formato é deduzido pela extensão do caminho, caso não exista
+	 *    extensão será usado {@code png}.
+	 * </p>
+	 * @param img {@code Imagem} base.
+	 * @param escala fator de escala aplicado à largura e altura.
+	 * @param caminho caminho do arquivo de destino.
+	 */
+	public void escrever(Imagem img, double escala, String caminho) {
+		if (caminho == null) {
+			throw new IllegalArgumentException("\nO caminho fornecido é nulo.");
+		}
+
+		String formato = FORMATO_PADRAO;
+		int ponto = caminho.lastIndexOf('.');
+		if (ponto > 0 && ponto < caminho.length() - 1) {
+			formato = caminho.substring(ponto + 1).toLowerCase();
+		}
+
+		BufferedImage bi = paraBufferedImage(img, escala);
+
+		try {
+			if (!ImageIO.write(bi, formato, new File(caminho))) {
+				throw new IllegalArgumentException(
+					"\nFormato \"" + formato + "\" não suportado."
+				);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("\nErro ao escrever imagem \"" + caminho + "\".", e);
+		}
+	}
+
+}
@@ -0,0 +1,437 @@
+package geim.fluxo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+
+import geim.codificadores.Codificador;
+import geim.codificadores.Codificadores;
+import geim.imagem.Imagem;
+
+/**
+ * Sequência de operações sobre uma imagem, avaliada de forma preguiçosa.
+ * <p>
+ *    As operações são apenas registradas, nada é calculado até a chamada de 
+ *    uma operação terminal ({@code paraImagem}, {@code paraPNG}, 
+ *    {@code exportar}, {@code getR}, {@code getG}, {@code getB} ou {@code getGray}).
+ * </p>
+ * <p>
+ *    Na execução, a imagem é processada em faixas de linhas em paralelo. 
+ *    Operações pontuais consecutivas (que dependem apenas do próprio pixel) são 
+ *    fundidas e aplicadas em sequência sobre a mesma faixa enquanto ela está 
+ *    no cache. Operações de vizinhança, como {@code desfocar}, recebem a faixa 
+ *    estendida com as linhas vizinhas necessárias, recalculadas em cada faixa, 
+ *    de modo que nenhuma imagem intermediária completa é criada.
+ * </p>
+ * Exemplo:
+ * <pre>
+ *    int[][] cinza = new FluxoImagem(img)
+ *       .preencher(0x202020)
+ *       .lut(tabela)
+ *       .desfocar(2)
+ *       .cinza()
+ *       .getGray();
+ * </pre>
+ * Instâncias não são seguras para uso concorrente enquanto operações estão 
+ * sendo adicionadas.
+ */
+public class FluxoImagem {
+
+	/**
+	 * Quantidade aproximada de pixels processados por faixa.
+	 */
+	private static final int PIXELS_POR_FAIXA = 1 << 16;
+
+	/**
+	 * Operação aplicada a cada pixel de forma independente.
+	 */
+	private interface OperacaoPontual {
+
+		/**
+		 * Aplica a operação sobre os pixels {@code [ini, fim)} do buffer.
+		 */
+		void aplicar(int[] buf, int ini, int fim);
+
+	}
+
+	/**
+	 * Etapa de execução: um grupo de operações pontuais fundidas ou uma
+	 * operação de vizinhança com raio maior que zero.
+	 */
+	private static final class Etapa {
+
+		final List<OperacaoPontual> pontuais = new ArrayList<>();
+		final int raio;
+
+		Etapa(int raio) {
+			this.raio = raio;
+		}
+
+	}
+
+	/**
+	 * Destino das linhas produzidas pela execução.
+	 */
+	private interface Destino {
+
+		void linha(int y, int[] buf, int ini, int largura);
+
+	}
+
+	/**
+	 * Imagem de origem.
+	 */
+	private final Imagem origem;
+
+	/**
+	 * Etapas registradas.
+	 */
+	private final List<Etapa> etapas = new ArrayList<>();
+
+	/**
+	 * Inicializa um fluxo de operações sobre a imagem.
+	 * <p>
+	 *    A imagem de origem não é alterada pelo fluxo.
+	 * </p>
+	 * @param origem {@code Imagem} base.
+	 */
+	public FluxoImagem(Imagem origem) {
+		if (origem == null) {
+			throw new IllegalArgumentException("\nA imagem fornecida é nula.");
+		}
+
+		this.origem = origem;
+	}
+
+	/**
+	 * Adiciona uma operação pontual, fundindo-a com as anteriores quando possível.
+	 */
+	private FluxoImagem pontual(OperacaoPontual op) {
+		Etapa ultima = etapas.isEmpty() ? null : etapas.get(etapas.size() - 1);
+		if (ultima == null || ultima.raio > 0) {
+			ultima = new Etapa(0);
+			etapas.add(ultima);
+		}
+		ultima.pontuais.add(op);
+		return this;
+	}
+
+	/**
+	 * Preenche todos os pixels com a mesma cor.
+	 * @param rgb valor de cor RGB.
+	 * @return este fluxo.
+	 */
+	public FluxoImagem preencher(int rgb) {
+		int cor = rgb & 0xFFFFFF;
+		return pontual((buf, ini, fim) -> {
+			for (int i = ini; i < fim; i++) buf[i] = cor;
+		});
+	}
+
+	/**
+	 * Aplica a mesma tabela de consulta aos três canais de cor.
+	 * @param tabela tabela com 256 valores no intervalo [0, 255].
+	 * @return este fluxo.
+	 */
+	public FluxoImagem lut(int[] tabela) {
+		return lut(tabela, tabela, tabela);
+	}
+
+	/**
+	 * Aplica uma tabela de consulta a cada canal de cor.
+	 * @param r tabela do canal vermelho, com 256 valores no intervalo [0, 255].
+	 * @param g tabela do canal verde, com 256 valores no intervalo [0, 255].
+	 * @param b tabela do canal azul, com 256 valores no intervalo [0, 255].
+	 * @return este fluxo.
+	 */
+	public FluxoImagem lut(int[] r, int[] g, int[] b) {
+		int[] tr = verificarTabela(r);
+		int[] tg = verificarTabela(g);
+		int[] tb = verificarTabela(b);
+
+		return pontual((buf, ini, fim) -> {
+			for (int i = ini; i < fim; i++) {
+				int p = buf[i];
+				buf[i] = (tr[(p >> 16) & 0xFF] << 16) | (tg[(p >> 8) & 0xFF] << 8) | tb[p & 0xFF];
+			}
+		});
+	}
+
+	/**
+	 * Converte os pixels para escala de cinza, usando a média dos canais.
+	 * @return este fluxo.
+	 */
+	public FluxoImagem cinza() {
+		return pontual((buf, ini, fim) -> {
+			for (int i = ini; i < fim; i++) {
+				int p = buf[i];
+				int c = (((p >> 16) & 0xFF) + ((p >> 8) & 0xFF) + (p & 0xFF)) / 3;
+				buf[i] = (c << 16) | (c << 8) | c;
+			}
+		});
+	}
+
+	/**
+	 * Aplica uma função arbitrária a cada pixel.
+	 * @param funcao função que recebe e retorna valores RGB no formato {@code 0xRRGGBB}.
+	 * @return este fluxo.
+	 */
+	public FluxoImagem mapear(IntUnaryOperator funcao) {
+		if (funcao == null) {
+			throw new IllegalArgumentException("\nA função fornecida é nula.");
+		}
+
+		return pontual((buf, ini, fim) -> {
+			for (int i = ini; i < fim; i++) {
+				buf[i] = funcao.applyAsInt(buf[i]) & 0xFFFFFF;
+			}
+		});
+	}
+
+	/**
+	 * Aplica um desfoque de caixa com janela {@code (2*raio + 1) x (2*raio + 1)},
+	 * replicando os pixels das bordas.
+	 * @param raio raio do desfoque, deve ser maior ou igual a zero.
+	 * @return este fluxo.
+	 */
+	public FluxoImagem desfocar(int raio) {
+		if (raio < 0) {
+			throw new IllegalArgumentException(
+				"\nRaio deve ser maior ou igual a zero, recebido: " + raio
+			);
+		}
+
+		if (raio > 0) {
+			etapas.add(new Etapa(raio));
+		}
+		return this;
+	}
+
+	/**
+	 * Executa o fluxo e retorna o resultado em uma nova imagem.
+	 * @return nova {@code Imagem}.
+	 */
+	public Imagem paraImagem() {
+		Imagem destino = new Imagem(origem.altura(), origem.largura());
+		executar((y, buf, ini, w) -> destino.setLinha(y, buf, ini));
+		return destino;
+	}
+
+	/**
+	 * Executa o fluxo e salva o resultado em um arquivo {@code png}.
+	 * @param caminho caminho do arquivo, deve conter a extensão {@code .png}.
+	 */
+	public void paraPNG(String caminho) {
+		if (caminho == null || !caminho.endsWith(".png")) {
+			throw new IllegalArgumentException(
+				"\nCaminho deve conter a extensão .png"
+			);
+		}
+
+		Codificadores.png().codificar(paraImagem(), caminho);
+	}
+
+	/**
+	 * Executa o fluxo e salva o resultado em um arquivo, o formato é escolhido
+	 * pela extensão do caminho.
+	 * @param caminho caminho do arquivo.
+	 * @return quantidade de bytes escritos.
+	 */
+	public long exportar(String caminho) {
+		Codificador cod = Codificadores.porCaminho(caminho);
+		return cod.codificar(paraImagem(), caminho);
+	}
+
+	/**
+	 * Executa o fluxo e retorna o valor de cor vermelha de cada pixel.
+	 * @return matriz {@code [altura][largura]}.
+	 */
+	public int[][] getR() {
+		return extrairCanal(16);
+	}
+
+	/**
+	 * Executa o fluxo e retorna o valor de cor verde de cada pixel.
+	 * @return matriz {@code [altura][largura]}.
+	 */
+	public int[][] getG() {
+		return extrairCanal(8);
+	}
+
+	/**
+	 * Executa o fluxo e retorna o valor de cor azul de cada pixel.
+	 * @return matriz {@code [altura][largura]}.
+	 */
+	public int[][] getB() {
+		return extrairCanal(0);
+	}
+
+	/**
+	 * Executa o fluxo e retorna o valor de escala de cinza de cada pixel.
+	 * @return matriz {@code [altura][largura]}.
+	 */
+	public int[][] getGray() {
+		int[][] m = new int[origem.altura()][origem.largura()];
+		executar((y, buf, ini, w) -> {
+			int[] linha = m[y];
+			for (int x = 0; x < w; x++) {
+				int p = buf[ini + x];
+				linha[x] = (((p >> 16) & 0xFF) + ((p >> 8) & 0xFF) + (p & 0xFF)) / 3;
+			}
+		});
+		return m;
+	}
+
+	/**
+	 * Executa o fluxo extraindo um canal de cor.
+	 */
+	private int[][] extrairCanal(int desloc) {
+		int[][] m = new int[origem.altura()][origem.largura()];
+		executar((y, buf, ini, w) -> {
+			int[] linha = m[y];
+			for (int x = 0; x < w; x++) {
+				linha[x] = (buf[ini + x] >> desloc) & 0xFF;
+			}
+		});
+		return m;
+	}
+
+	/**
+	 * Executa todas as etapas, faixa por faixa, entregando as linhas
+	 * resultantes ao destino.
+	 */
+	private void executar(Destino destino) {
+		int largura = origem.largura();
+		int altura = origem.altura();
+		Etapa[] lista = etapas.toArray(new Etapa[0]);
+
+		int linhasPorFaixa = Math.max(1, PIXELS_POR_FAIXA / largura);
+		int faixas = (altura + linhasPorFaixa - 1) / linhasPorFaixa;
+
+		IntStream.range(0, faixas).parallel().forEach(f -> {
+			int y0 = f * linhasPorFaixa;
+			int y1 = Math.min(altura, y0 + linhasPorFaixa);
+			executarFaixa(lista, y0, y1, largura, altura, destino);
+		});
+	}
+
+	/**
+	 * Executa as etapas para as linhas {@code [y0, y1)} do resultado.
+	 */
+	private void executarFaixa(Etapa[] lista, int y0, int y1, int largura, int altura, Destino destino) {
+		int n = lista.length;
+
+		// intervalo de linhas necessário na entrada de cada etapa
+		int[] ini = new int[n + 1];
+		int[] fim = new int[n + 1];
+		ini[n] = y0;
+		fim[n] = y1;
+		for (int e = n - 1; e >= 0; e--) {
+			int r = lista[e].raio;
+			ini[e] = Math.max(0, ini[e + 1] - r);
+			fim[e] = Math.min(altura, fim[e + 1] + r);
+		}
+
+		int[] buf = new int[(fim[0] - ini[0]) * largura];
+		for (int y = ini[0]; y < fim[0]; y++) {
+			origem.getLinha(y, buf, (y - ini[0]) * largura);
+		}
+
+		for (int e = 0; e < n; e++) {
+			Etapa etapa = lista[e];
+			if (etapa.raio == 0) {
+				int tam = (fim[e] - ini[e]) * largura;
+				for (OperacaoPontual op : etapa.pontuais) {
+					op.aplicar(buf, 0, tam);
+				}
+			} else {
+				buf = desfocar(buf, ini[e], fim[e], ini[e + 1], fim[e + 1], largura, altura, etapa.raio);
+			}
+		}
+
+		for (int y = y0; y < y1; y++) {
+			destino.linha(y, buf, (y - y0) * largura, largura);
+		}
+	}
+
+	/**
+	 * Desfoque de caixa separável.
+	 * @param buf linhas {@code [ie, fe)} da entrada.
+	 * @return linhas {@code [is, fs)} da saída.
+	 */
+	private static int[] desfocar(int[] buf, int ie, int fe, int is, int fs, int largura, int altura, int raio) {
+		int linhas = fe - ie;
+		int[] hr = new int[linhas * largura];
+		int[] hg = new int[linhas * largura];
+		int[] hb = new int[linhas * largura];
+
+		// passada horizontal: somas da janela em cada linha
+		for (int l = 0; l < linhas; l++) {
+			int base = l * largura;
+			int sr = 0, sg = 0, sb = 0;
+			for (int i = -raio; i <= raio; i++) {
+				int p = buf[base + Math.clamp(i, 0, largura - 1)];
+				sr += (p >> 16) & 0xFF; sg += (p >> 8) & 0xFF; sb += p & 0xFF;
+			}
+			for (int x = 0; x < largura; x++) {
+				hr[base + x] = sr; hg[base + x] = sg; hb[base + x] = sb;
+				int entra = buf[base + Math.min(x + raio + 1, largura - 1)];
+				int sai = buf[base + Math.max(x - raio, 0)];
+				sr += ((entra >> 16) & 0xFF) - ((sai >> 16) & 0xFF);
+				sg += ((entra >> 8) & 0xFF) - ((sai >> 8) & 0xFF);
+				sb += (entra & 0xFF) - (sai & 0xFF);
+			}
+		}
+
+		// passada vertical: somas das colunas da janela, em long pois 
+		// (2*raio + 1)^2 * 255 excede int a partir de raio ~1450
+		long k = (2L*raio + 1) * (2L*raio + 1);
+		long meio = k / 2;
+		int[] saida = new int[(fs - is) * largura];
+		long[] cr = new long[largura], cg = new long[largura], cb = new long[largura];
+
+		for (int i = -raio; i <= raio; i++) {
+			int base = (Math.clamp(is + i, 0, altura - 1) - ie) * largura;
+			for (int x = 0; x < largura; x++) {
+				cr[x] += hr[base + x]; cg[x] += hg[base + x]; cb[x] += hb[base + x];
+			}
+		}
+
+		for (int y = is; y < fs; y++) {
+			int o = (y - is) * largura;
+			for (int x = 0; x < largura; x++) {
+				saida[o + x] = (int) ((cr[x] + meio) / k << 16 | (cg[x] + meio) / k << 8 | (cb[x] + meio) / k);
+			}
+
+			if (y + 1 < fs) {
+				int entra = (Math.min(y + raio + 1, altura - 1) - ie) * largura;
+				int sai = (Math.max(y - raio, 0) - ie) * largura;
+				for (int x = 0; x < largura; x++) {
+					cr[x] += hr[entra + x] - hr[sai + x];
+					cg[x] += hg[entra + x] - hg[sai + x];
+					cb[x] += hb[entra + x] - hb[sai + x];
+				}
+			}
+		}
+
+		return saida;
+	}
+
+	/**
+	 * Verifica se a tabela de consulta é válida.
+	 */
+	private static int[] verificarTabela(int[] tabela) {
+		if (tabela == null || tabela.length != 256) {
+			throw new IllegalArgumentException("\nA tabela de consulta deve conter 256 valores.");
+		}
+
+		int[] copia = tabela.clone();
+		for (int i = 0; i < copia.length; i++) {
+			copia[i] = Math.clamp(copia[i], 0, 255);
+		}
+
+		return copia;
+	}
+
+}
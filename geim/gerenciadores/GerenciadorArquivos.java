@@ -1,12 +1,16 @@
 package geim.gerenciadores;
 
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
 import java.io.File;
 import java.io.IOException;
-import java.io.FileInputStream;
+import java.io.UncheckedIOException;
 
 import javax.imageio.ImageIO;
 
+import geim.metricas.Metricas;
+import geim.metricas.Operacao;
+
 /**
  * Gerenciador de arquivos do Geim
  */
@@ -21,22 +25,49 @@ public class GerenciadorArquivos {
 	 * Lê um arquivo de imagem.
 	 * @param caminho caminho do arquivo.
 	 * @return imagem lida.
+	 * @throws IllegalArgumentException se o arquivo não existir ou não for uma imagem suportada.
+	 * @throws UncheckedIOException se ocorrer um erro durante a leitura.
 	 */
 	public BufferedImage lerImagem(String caminho) {
+		long t = Metricas.iniciar();
+
+		if (caminho == null) {
+			IllegalArgumentException e = new IllegalArgumentException("\nO caminho fornecido é nulo.");
+			Metricas.registrarErro(Operacao.LEITURA, e);
+			throw e;
+		}
+
 		File arquivo = new File(caminho);
 		if (!arquivo.exists()) {
-			throw new IllegalArgumentException(
+			IllegalArgumentException e = new IllegalArgumentException(
 				"\nDiretório \"" + caminho + "\" não encontrado."
 			);
+			Metricas.registrarErro(Operacao.LEITURA, e);
+			throw e;
 		}
-  
-		BufferedImage img = null;
+
+		BufferedImage img;
 		
 		try {
-			img = ImageIO.read(new FileInputStream(arquivo));
+			img = ImageIO.read(arquivo);
 		} catch (IOException e) {
-			System.out.println("\nErro ao ler a imagem \"" + caminho + "\"");
-			e.printStackTrace();
+			Metricas.registrarErro(Operacao.LEITURA, e);
+			throw new UncheckedIOException("\nErro ao ler a imagem \"" + caminho + "\"", e);
+		}
+
+		if (img == null) {
+			IllegalArgumentException e = new IllegalArgumentException(
+				"\nFormato da imagem \"" + caminho + "\" não suportado."
+			);
+			Metricas.registrarErro(Operacao.LEITURA, e);
+			throw e;
+		}
+
+		if (Metricas.ativo()) {
+			DataBuffer db = img.getRaster().getDataBuffer();
+			long alocados = (long) db.getSize() * db.getNumBanks() * DataBuffer.getDataTypeSize(db.getDataType()) / 8;
+			long pixels = (long) img.getWidth() * img.getHeight();
+			Metricas.registrar(Operacao.LEITURA, t, arquivo.length(), pixels, alocados);
 		}
   
 		return img;
@@ -2,8 +2,12 @@ package geim.gerenciadores;
 
 import java.awt.Color;
 import java.awt.image.BufferedImage;
+import java.util.function.Consumer;
 
 import geim.imagem.Imagem;
+import geim.memoria.PoolBuffers;
+import geim.metricas.Metricas;
+import geim.metricas.Operacao;
 
 /**
  * Gerenciador de dados de imagem para o Geim
@@ -28,15 +32,7 @@ public class GerenciadorDadosImagem {
 			);
 		}
 
-		Imagem img = new Imagem(altura, largura);
-
-		for (int y = 0; y < altura; y++) {
-			for (int x = 0; x < largura; x++) {
-				img.set(x, y, 0, 0, 0);
-			}
-		}
-
-		return img;
+		return new Imagem(altura, largura);
 	}
 
 	/**
@@ -45,6 +41,18 @@ public class GerenciadorDadosImagem {
 	 * @return {@code Imagem} criada.
 	 */
 	public Imagem gerarImagem(BufferedImage img) {
+		return gerarImagem(img, null);
+	}
+
+	/**
+	 * Copia uma BufferedImage para uma {@code Imagem}, reaproveitando a imagem
+	 * de destino quando ela tiver as mesmas dimensões.
+	 * @param img imagem base.
+	 * @param destino imagem a ser reaproveitada, pode ser nula.
+	 * @return {@code destino} preenchida, ou uma nova {@code Imagem} caso o 
+	 * destino seja nulo ou tenha dimensões diferentes.
+	 */
+	public Imagem gerarImagem(BufferedImage img, Imagem destino) {
 		if (img == null) {
 			throw new IllegalArgumentException("A imagem fornecida é nula.");
 		}
@@ -55,21 +63,35 @@ public class GerenciadorDadosImagem {
 			throw new IllegalArgumentException("A altura da imagem não pode ser menor ou igual a zero.");
 		}
 		
+		long t = Metricas.iniciar();
+
 		int largura = img.getWidth();
 		int altura = img.getHeight();
-		Imagem imagem = new Imagem(altura, largura);
 
-		for (int y = 0; y < altura; y++) {         
-			for (int x = 0; x < largura; x++) {
-				imagem.set(
-					x, 
-					y,
-					getR(img, x, y),
-					getG(img, x, y),
-					getB(img, x, y)
-				);}
+		long alocados = 0;
+		Imagem imagem = destino;
+		if (imagem == null || imagem.largura() != largura || imagem.altura() != altura) {
+			imagem = new Imagem(altura, largura);
+			alocados += (long) largura * altura * 4;
+		}
+
+		PoolBuffers pool = PoolBuffers.global();
+		int[] linha = pool.alugar(largura);
+		try {
+			for (int y = 0; y < altura; y++) {
+				img.getRGB(0, y, largura, 1, linha, 0, largura);
+				for (int x = 0; x < largura; x++) {
+					linha[x] &= 0xFFFFFF;// descartar alpha
+				}
+				imagem.setLinha(y, linha, 0);
+			}
+		} finally {
+			pool.devolver(linha);
 		}
 
+		long pixels = (long) largura * altura;
+		Metricas.registrar(Operacao.CONVERSAO, t, pixels * 4, pixels, alocados);
+
 		return imagem;
 	}
 
@@ -104,11 +126,8 @@ public class GerenciadorDadosImagem {
      * @param b intensidade da cor azul.
 	 */
 	public void preencher(Imagem img, int r, int g, int b) {
-		for (int y = 0; y < img.altura(); y++) {
-			for (int x = 0; x < img.largura(); x++) {
-				img.set(x, y, r, g, b);
-			}
-		}
+		int rgb = (Math.clamp(r, 0, 255) << 16) | (Math.clamp(g, 0, 255) << 8) | Math.clamp(b, 0, 255);
+		img.preencher(rgb);
 	}
 
 	/**
@@ -117,11 +136,29 @@ public class GerenciadorDadosImagem {
      * @param rgb valor de cor rgb.
 	 */
 	public void preencher(Imagem img, int rgb) {
-		for (int y = 0; y < img.altura(); y++) {
-			for (int x = 0; x < img.largura(); x++) {
-				img.set(x, y, getBitR(rgb), getBitG(rgb), getBitB(rgb));
-			}
+		img.preencher(rgb);
+	}
+
+	/**
+	 * Executa a ação em paralelo sobre faixas horizontais disjuntas da imagem.
+	 * <p>
+	 *    Cada faixa é passada para uma única thread, então a ação pode alterar 
+	 *    os pixels da faixa sem sincronização. Todas as alterações estão visíveis 
+	 *    quando o método retorna.
+	 * </p>
+	 * @param img {@code Imagem} base.
+	 * @param faixas quantidade de faixas.
+	 * @param acao ação aplicada a cada faixa.
+	 */
+	public void paraCadaFaixa(Imagem img, int faixas, Consumer<Imagem> acao) {
+		if (img == null) {
+			throw new IllegalArgumentException("\nA imagem fornecida é nula.");
 		}
+		if (acao == null) {
+			throw new IllegalArgumentException("\nA ação fornecida é nula.");
+		}
+
+		img.faixas(faixas).parallelStream().forEach(acao);
 	}
 
 	/**
@@ -130,12 +167,7 @@ public class GerenciadorDadosImagem {
      * @param c cor base.
 	 */
 	public void preencher(Imagem img, Color c) {
-		for (int y = 0; y < img.altura(); y++) {
-			for (int x = 0; x < img.largura(); x++) {
-				int rgb = c.getRGB();
-				img.set(x, y, getBitR(rgb), getBitG(rgb), getBitB(rgb));
-			}
-		}
+		img.preencher(c.getRGB());
 	}
 
 	/**
@@ -218,6 +250,145 @@ public class GerenciadorDadosImagem {
 		return cinza;
 	}
 
+	/**
+	 * Retorna os dados de cor vermelha para todos os pixels da imagem.
+	 * @param img {@code Imagem} base.
+	 * @return valores de cor vermelha.
+	 */
+	public int[][] getR(Imagem img) {
+		return getR(img, null);
+	}
+
+	/**
+	 * Retorna os dados de cor vermelha para todos os pixels da imagem, 
+	 * reaproveitando a matriz de destino quando ela tiver as dimensões da imagem.
+	 * @param img {@code Imagem} base.
+	 * @param destino matriz {@code [altura][largura]} a ser reaproveitada, pode ser nula.
+	 * @return valores de cor vermelha.
+	 */
+	public int[][] getR(Imagem img, int[][] destino) {
+		return extrairCanal(img, 16, destino);
+	}
+
+	/**
+	 * Retorna os dados de cor verde para todos os pixels da imagem.
+	 * @param img {@code Imagem} base.
+	 * @return valores de cor verde.
+	 */
+	public int[][] getG(Imagem img) {
+		return getG(img, null);
+	}
+
+	/**
+	 * Retorna os dados de cor verde para todos os pixels da imagem, 
+	 * reaproveitando a matriz de destino quando ela tiver as dimensões da imagem.
+	 * @param img {@code Imagem} base.
+	 * @param destino matriz {@code [altura][largura]} a ser reaproveitada, pode ser nula.
+	 * @return valores de cor verde.
+	 */
+	public int[][] getG(Imagem img, int[][] destino) {
+		return extrairCanal(img, 8, destino);
+	}
+
+	/**
+	 * Retorna os dados de cor azul para todos os pixels da imagem.
+	 * @param img {@code Imagem} base.
+	 * @return valores de cor azul.
+	 */
+	public int[][] getB(Imagem img) {
+		return getB(img, null);
+	}
+
+	/**
+	 * Retorna os dados de cor azul para todos os pixels da imagem, 
+	 * reaproveitando a matriz de destino quando ela tiver as dimensões da imagem.
+	 * @param img {@code Imagem} base.
+	 * @param destino matriz {@code [altura][largura]} a ser reaproveitada, pode ser nula.
+	 * @return valores de cor azul.
+	 */
+	public int[][] getB(Imagem img, int[][] destino) {
+		return extrairCanal(img, 0, destino);
+	}
+
+	/**
+	 * Retorna os dados de cor em escala de cinza para todos os pixels da imagem.
+	 * @param img {@code Imagem} base.
+	 * @return valores de cor cinza.
+	 */
+	public int[][] getGray(Imagem img) {
+		return getGray(img, null);
+	}
+
+	/**
+	 * Retorna os dados de cor em escala de cinza para todos os pixels da imagem, 
+	 * reaproveitando a matriz de destino quando ela tiver as dimensões da imagem.
+	 * @param img {@code Imagem} base.
+	 * @param destino matriz {@code [altura][largura]} a ser reaproveitada, pode ser nula.
+	 * @return valores de cor cinza.
+	 */
+	public int[][] getGray(Imagem img, int[][] destino) {
+		int largura = img.largura();
+		int altura = img.altura();
+
+		int[][] cinza = matriz(destino, altura, largura);
+		for (int y = 0; y < altura; y++) {
+			int[] linha = cinza[y];
+			img.getLinha(y, linha, 0);
+			for (int x = 0; x < largura; x++) {
+				int rgb = linha[x];
+				linha[x] = (getBitR(rgb) + getBitG(rgb) + getBitB(rgb)) / 3;
+			}
+		}
+
+		return cinza;
+	}
+
+	/**
+	 * Extrai um canal de cor de todos os pixels da imagem.
+	 * @param img {@code Imagem} base.
+	 * @param desloc deslocamento em bits do canal no valor RGB.
+	 * @param destino matriz a ser reaproveitada, pode ser nula.
+	 * @return valores do canal.
+	 */
+	private int[][] extrairCanal(Imagem img, int desloc, int[][] destino) {
+		int largura = img.largura();
+		int altura = img.altura();
+
+		int[][] canal = matriz(destino, altura, largura);
+		for (int y = 0; y < altura; y++) {
+			int[] linha = canal[y];
+			img.getLinha(y, linha, 0);
+			for (int x = 0; x < largura; x++) {
+				linha[x] = (linha[x] >> desloc) & 0xFF;
+			}
+		}
+
+		return canal;
+	}
+
+	/**
+	 * Retorna a matriz de destino caso ela tenha as dimensões desejadas, 
+	 * ou uma nova matriz caso contrário.
+	 * @param destino matriz a ser reaproveitada, pode ser nula.
+	 * @param altura quantidade de linhas.
+	 * @param largura quantidade de colunas.
+	 * @return matriz {@code [altura][largura]}.
+	 */
+	private int[][] matriz(int[][] destino, int altura, int largura) {
+		if (destino != null && destino.length == altura) {
+			boolean valida = true;
+			for (int[] linha : destino) {
+				if (linha == null || linha.length != largura) {
+					valida = false;
+					break;
+				}
+			}
+			if (valida) return destino;
+		}
+
+		return new int[altura][largura];
+	}
+
 	/**
 	 * Retorna o valor de cor vermelha para um pixel específico da imagem.
 	 * @param img imagem base.
@@ -290,28 +461,60 @@ public class GerenciadorDadosImagem {
 	 * @return conjunto de dados.
 	 */
 	public int[][] getDadosImagem(BufferedImage imagem) {
+		return getDadosImagem(imagem, null);
+	}
+
+	/**
+	 * Retorna um conjunto contendo os valores rgb para cada pixel da imagem, 
+	 * reaproveitando o conjunto fornecido quando ele tiver o mesmo formato.
+	 * @param imagem imagem base.
+	 * @param reutilizar conjunto a ser reaproveitado, pode ser nulo.
+	 * @return {@code reutilizar} preenchido, ou um novo conjunto de dados.
+	 */
+	public int[][] getDadosImagem(BufferedImage imagem, int[][] reutilizar) {
+		if (imagem == null) {
+			throw new IllegalArgumentException("\nA imagem fornecida é nula.");
+		}
+
 		int largura = imagem.getWidth();
 		int altura = imagem.getHeight();
 		int info = 1 + 1 + 3;// x + y + r + g + b
 		
-		int[][] dados = new int[largura*altura][info];
-		
-		for (int y = 0; y < largura; y++) {
-			for (int x = 0; x < altura; x++) {
-				int r = getR(imagem, x, y);
-				int g = getG(imagem, x, y);
-				int b = getB(imagem, x, y);
-			
-				int linha = y * largura + x;
-				dados[linha][0] = x;
-				dados[linha][1] = y;
-				dados[linha][2] = r;
-				dados[linha][3] = g;
-				dados[linha][4] = b;
+		int[][] dados = reutilizar;
+		if (!formatoDados(dados, largura * altura, info)) {
+			dados = new int[largura*altura][info];
+		}
+
+		PoolBuffers pool = PoolBuffers.global();
+		int[] rgb = pool.alugar(largura);
+		try {
+			for (int y = 0; y < altura; y++) {
+				imagem.getRGB(0, y, largura, 1, rgb, 0, largura);
+				for (int x = 0; x < largura; x++) {
+					int[] linha = dados[y * largura + x];
+					linha[0] = x;
+					linha[1] = y;
+					linha[2] = (rgb[x] >> 16) & 0xFF;
+					linha[3] = (rgb[x] >> 8) & 0xFF;
+					linha[4] = rgb[x] & 0xFF;
+				}
 			}
+		} finally {
+			pool.devolver(rgb);
 		}
 		
 		return dados;
 	}
 
+	/**
+	 * Verifica se o conjunto tem a quantidade de linhas e colunas esperada.
+	 */
+	private static boolean formatoDados(int[][] dados, int linhas, int colunas) {
+		if (dados == null || dados.length != linhas) return false;
+		for (int[] l : dados) {
+			if (l == null || l.length != colunas) return false;
+		}
+		return true;
+	}
+
 }
@@ -0,0 +1,387 @@
+package geim.gerenciadores;
+
+import java.util.stream.IntStream;
+
+import geim.imagem.Imagem;
+
+/**
+ * Gerenciador de transformações geométricas para o Geim.
+ */
+public class GerenciadorTransformacoes {
+
+	/**
+	 * Tamanho do lado dos blocos usados nas cópias com reordenação de pixels.
+	 * <p>
+	 *    Rotações e transposições leem a imagem em linhas e escrevem em colunas,
+	 *    processar em blocos mantém origem e destino no cache.
+	 * </p>
+	 */
+	private static final int TAM_BLOCO = 32;
+
+	/**
+	 * Contém implementações de transformações geométricas de imagens.
+	 */
+	public GerenciadorTransformacoes() {}
+
+	/**
+	 * Rotaciona a imagem em 90 graus no sentido horário.
+	 * @param img {@code Imagem} base.
+	 * @return nova {@code Imagem} rotacionada.
+	 */
+	public Imagem rotacionar90(Imagem img) {
+		verificarImagem(img);
+		int h = img.altura();
+		// (x, y) -> (h-1-y, x)
+		return copiarBlocos(img, img.largura(), h, h - 1, 0, -1, 0, 1, 0);
+	}
+
+	/**
+	 * Rotaciona a imagem em 180 graus.
+	 * @param img {@code Imagem} base.
+	 * @return nova {@code Imagem} rotacionada.
+	 */
+	public Imagem rotacionar180(Imagem img) {
+		verificarImagem(img);
+		int w = img.largura();
+		int h = img.altura();
+		// (x, y) -> (w-1-x, h-1-y)
+		return copiarBlocos(img, h, w, w - 1, -1, 0, h - 1, 0, -1);
+	}
+
+	/**
+	 * Rotaciona a imagem em 270 graus no sentido horário (90 graus no sentido anti-horário).
+	 * @param img {@code Imagem} base.
+	 * @return nova {@code Imagem} rotacionada.
+	 */
+	public Imagem rotacionar270(Imagem img) {
+		verificarImagem(img);
+		int w = img.largura();
+		// (x, y) -> (y, w-1-x)
+		return copiarBlocos(img, w, img.altura(), 0, 0, 1, w - 1, -1, 0);
+	}
+
+	/**
+	 * Espelha a imagem horizontalmente (esquerda e direita trocam de lugar).
+	 * @param img {@code Imagem} base.
+	 * @return nova {@code Imagem} espelhada.
+	 */
+	public Imagem espelharHorizontal(Imagem img) {
+		verificarImagem(img);
+		int w = img.largura();
+		// (x, y) -> (w-1-x, y)
+		return copiarBlocos(img, img.altura(), w, w - 1, -1, 0, 0, 0, 1);
+	}
+
+	/**
+	 * Espelha a imagem verticalmente (topo e base trocam de lugar).
+	 * @param img {@code Imagem} base.
+	 * @return nova {@code Imagem} espelhada.
+	 */
+	public Imagem espelharVertical(Imagem img) {
+		verificarImagem(img);
+		int h = img.altura();
+		// (x, y) -> (x, h-1-y)
+		return copiarBlocos(img, h, img.largura(), 0, 1, 0, h - 1, 0, -1);
+	}
+
+	/**
+	 * Transpõe a imagem, trocando linhas por colunas.
+	 * @param img {@code Imagem} base.
+	 * @return nova {@code Imagem} transposta.
+	 */
+	public Imagem transpor(Imagem img) {
+		verificarImagem(img);
+		// (x, y) -> (y, x)
+		return copiarBlocos(img, img.largura(), img.altura(), 0, 0, 1, 0, 1, 0);
+	}
+
+	/**
+	 * Recorta uma região retangular da imagem.
+	 * <p>
+	 *    Os pixels da região são copiados para a nova imagem, para acessar a
+	 *    região sem cópia use {@code Imagem.regiao}.
+	 * </p>
+	 * @param img {@code Imagem} base.
+	 * @param x coordenada x do canto superior esquerdo da região.
+	 * @param y coordenada y do canto superior esquerdo da região.
+	 * @param largura largura da região.
+	 * @param altura altura da região.
+	 * @return nova {@code Imagem} com o conteúdo da região.
+	 */
+	public Imagem recortar(Imagem img, int x, int y, int largura, int altura) {
+		verificarImagem(img);
+		if (largura < 1 || altura < 1) {
+			throw new IllegalArgumentException(
+				"\nLargura e altura do recorte devem ser maiores que zero."
+			);
+		}
+		if (x < 0 || y < 0 || x + largura > img.largura() || y + altura > img.altura()) {
+			throw new IllegalArgumentException(
+				"\nRegião (" + x + ", " + y + ", " + largura + ", " + altura + ") " +
+				"fora dos limites da imagem."
+			);
+		}
+
+		return img.regiao(x, y, largura, altura).copiar();
+	}
+
+	/**
+	 * Aplica uma transformação afim à imagem.
+	 * <p>
+	 *    A matriz é informada no formato {@code [a, b, c, d, e, f]}, que mapeia
+	 *    as coordenadas da imagem base para a imagem de destino como:
+	 * </p>
+	 * <pre>
+	 *    x' = a*x + b*y + c
+	 *    y' = d*x + e*y + f
+	 * </pre>
+	 * <p>
+	 *    Cada pixel de destino é amostrado da imagem base usando a transformação
+	 *    inversa, as linhas de destino são processadas em paralelo. Pixels que caem
+	 *    fora da imagem base recebem a cor de fundo.
+	 * </p>
+	 * @param img {@code Imagem} base.
+	 * @param matriz matriz de transformação afim.
+	 * @param largura largura da imagem de destino.
+	 * @param altura altura da imagem de destino.
+	 * @param interp método de interpolação.
+	 * @param fundo cor RGB usada fora dos limites da imagem base.
+	 * @return nova {@code Imagem} transformada.
+	 */
+	public Imagem transformar(Imagem img, double[] matriz, int largura, int altura, Interpolacao interp, int fundo) {
+		verificarImagem(img);
+		if (matriz == null || matriz.length != 6) {
+			throw new IllegalArgumentException(
+				"\nA matriz de transformação deve conter 6 elementos."
+			);
+		}
+		if (interp == null) {
+			throw new IllegalArgumentException("\nO método de interpolação é nulo.");
+		}
+
+		double a = matriz[0], b = matriz[1], c = matriz[2];
+		double d = matriz[3], e = matriz[4], f = matriz[5];
+		double det = a*e - b*d;
+		if (det == 0 || Double.isNaN(det)) {
+			throw new IllegalArgumentException("\nA matriz de transformação não é inversível.");
+		}
+
+		// inversa da transformação
+		double ia =  e / det;
+		double ib = -b / det;
+		double id = -d / det;
+		double ie =  a / det;
+		double ic = -(ia*c + ib*f);
+		double iff = -(id*c + ie*f);
+
+		int ws = img.largura();
+		int hs = img.altura();
+		int[] base = paraArray(img);
+		Imagem destino = new Imagem(altura, largura);
+
+		IntStream.range(0, altura).parallel().forEach(y -> {
+			// amostragem no centro do pixel
+			double cy = y + 0.5;
+			for (int x = 0; x < largura; x++) {
+				double cx = x + 0.5;
+				double sx = ia*cx + ib*cy + ic - 0.5;
+				double sy = id*cx + ie*cy + iff - 0.5;
+
+				int rgb;
+				if (sx < -0.5 || sy < -0.5 || sx > ws - 0.5 || sy > hs - 0.5) {
+					rgb = fundo;
+				} else {
+					switch (interp) {
+						case VIZINHO  -> rgb = amostrarVizinho(base, ws, hs, sx, sy);
+						case BILINEAR -> rgb = amostrarBilinear(base, ws, hs, sx, sy);
+						default       -> rgb = amostrarBicubica(base, ws, hs, sx, sy);
+					}
+				}
+
+				destino.setRGB(x, y, rgb);
+			}
+		});
+
+		return destino;
+	}
+
+	/**
+	 * Rotaciona a imagem em torno do seu centro por um ângulo arbitrário.
+	 * <p>
+	 *    A imagem resultante mantém as dimensões da imagem base, regiões que
+	 *    ficarem descobertas recebem a cor de fundo.
+	 * </p>
+	 * @param img {@code Imagem} base.
+	 * @param graus ângulo de rotação em graus, no sentido horário.
+	 * @param interp método de interpolação.
+	 * @param fundo cor RGB usada nas regiões descobertas.
+	 * @return nova {@code Imagem} rotacionada.
+	 */
+	public Imagem rotacionar(Imagem img, double graus, Interpolacao interp, int fundo) {
+		verificarImagem(img);
+
+		double rad = Math.toRadians(graus);
+		double cos = Math.cos(rad);
+		double sin = Math.sin(rad);
+		double cx = img.largura() / 2.0;
+		double cy = img.altura() / 2.0;
+
+		double[] matriz = {
+			cos, -sin, cx - cos*cx + sin*cy,
+			sin,  cos, cy - sin*cx - cos*cy
+		};
+
+		return transformar(img, matriz, img.largura(), img.altura(), interp, fundo);
+	}
+
+	/**
+	 * Copia os pixels da imagem base para uma nova imagem usando um mapeamento
+	 * inteiro do tipo:
+	 * <pre>
+	 *    x' = x0 + xx*x + xy*y
+	 *    y' = y0 + yx*x + yy*y
+	 * </pre>
+	 * A cópia é feita em blocos de {@code TAM_BLOCO x TAM_BLOCO} pixels.
+	 * @param img {@code Imagem} base.
+	 * @param altura altura da imagem de destino.
+	 * @param largura largura da imagem de destino.
+	 * @return nova {@code Imagem} com os pixels reposicionados.
+	 */
+	private Imagem copiarBlocos(Imagem img, int altura, int largura, int x0, int xx, int xy, int y0, int yx, int yy) {
+		int w = img.largura();
+		int h = img.altura();
+		Imagem destino = new Imagem(altura, largura);
+
+		for (int by = 0; by < h; by += TAM_BLOCO) {
+			int fimY = Math.min(by + TAM_BLOCO, h);
+			for (int bx = 0; bx < w; bx += TAM_BLOCO) {
+				int fimX = Math.min(bx + TAM_BLOCO, w);
+				for (int y = by; y < fimY; y++) {
+					for (int x = bx; x < fimX; x++) {
+						destino.setRGB(
+							x0 + xx*x + xy*y,
+							y0 + yx*x + yy*y,
+							img.getRGB(x, y)
+						);
+					}
+				}
+			}
+		}
+
+		return destino;
+	}
+
+	/**
+	 * Copia os valores RGB da imagem para um array contínuo.
+	 * @param img {@code Imagem} base.
+	 * @return array com os valores RGB, linha por linha.
+	 */
+	private int[] paraArray(Imagem img) {
+		int w = img.largura();
+		int h = img.altura();
+		int[] arr = new int[w * h];
+		for (int y = 0; y < h; y++) {
+			img.getLinha(y, arr, y*w);
+		}
+		return arr;
+	}
+
+	/**
+	 * Amostra o pixel mais próximo da posição fornecida.
+	 */
+	private int amostrarVizinho(int[] base, int w, int h, double sx, double sy) {
+		int x = Math.clamp(Math.round(sx), 0, w - 1);
+		int y = Math.clamp(Math.round(sy), 0, h - 1);
+		return base[y*w + x];
+	}
+
+	/**
+	 * Amostra a posição fornecida combinando os 4 pixels vizinhos.
+	 */
+	private int amostrarBilinear(int[] base, int w, int h, double sx, double sy) {
+		int x0 = (int) Math.floor(sx);
+		int y0 = (int) Math.floor(sy);
+		double fx = sx - x0;
+		double fy = sy - y0;
+
+		int xa = Math.clamp(x0, 0, w - 1);
+		int xb = Math.clamp(x0 + 1, 0, w - 1);
+		int ya = Math.clamp(y0, 0, h - 1) * w;
+		int yb = Math.clamp(y0 + 1, 0, h - 1) * w;
+
+		int p00 = base[ya + xa], p10 = base[ya + xb];
+		int p01 = base[yb + xa], p11 = base[yb + xb];
+
+		int rgb = 0;
+		for (int desloc = 16; desloc >= 0; desloc -= 8) {
+			double c00 = (p00 >> desloc) & 0xFF;
+			double c10 = (p10 >> desloc) & 0xFF;
+			double c01 = (p01 >> desloc) & 0xFF;
+			double c11 = (p11 >> desloc) & 0xFF;
+
+			double topo = c00 + (c10 - c00) * fx;
+			double baixo = c01 + (c11 - c01) * fx;
+			int c = (int) Math.round(topo + (baixo - topo) * fy);
+			rgb |= Math.clamp(c, 0, 255) << desloc;
+		}
+
+		return rgb;
+	}
+
+	/**
+	 * Amostra a posição fornecida combinando os 16 pixels vizinhos.
+	 */
+	private int amostrarBicubica(int[] base, int w, int h, double sx, double sy) {
+		int x0 = (int) Math.floor(sx);
+		int y0 = (int) Math.floor(sy);
+		double fx = sx - x0;
+		double fy = sy - y0;
+
+		double[] kx = new double[4];
+		double[] ky = new double[4];
+		for (int i = 0; i < 4; i++) {
+			kx[i] = catmullRom(fx - (i - 1));
+			ky[i] = catmullRom(fy - (i - 1));
+		}
+
+		double r = 0, g = 0, b = 0;
+		for (int j = 0; j < 4; j++) {
+			int linha = Math.clamp(y0 + j - 1, 0, h - 1) * w;
+			for (int i = 0; i < 4; i++) {
+				int p = base[linha + Math.clamp(x0 + i - 1, 0, w - 1)];
+				double k = kx[i] * ky[j];
+				r += ((p >> 16) & 0xFF) * k;
+				g += ((p >> 8) & 0xFF) * k;
+				b += (p & 0xFF) * k;
+			}
+		}
+
+		int ir = Math.clamp(Math.round(r), 0, 255);
+		int ig = Math.clamp(Math.round(g), 0, 255);
+		int ib = Math.clamp(Math.round(b), 0, 255);
+		return (ir << 16) | (ig << 8) | ib;
+	}
+
+	/**
+	 * Kernel cúbico de Catmull-Rom.
+	 * @param t distância até o ponto amostrado.
+	 * @return peso correspondente.
+	 */
+	private double catmullRom(double t) {
+		t = Math.abs(t);
+		if (t < 1) return 1.5*t*t*t - 2.5*t*t + 1;
+		if (t < 2) return -0.5*t*t*t + 2.5*t*t - 4*t + 2;
+		return 0;
+	}
+
+	/**
+	 * Verifica se a imagem fornecida é válida.
+	 * @param img {@code Imagem} base.
+	 */
+	private void verificarImagem(Imagem img) {
+		if (img == null) {
+			throw new IllegalArgumentException("\nA imagem fornecida é nula.");
+		}
+	}
+
+}
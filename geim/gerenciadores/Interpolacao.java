@@ -0,0 +1,23 @@
+package geim.gerenciadores;
+
+/**
+ * Métodos de interpolação usados para amostrar pixels em posições fracionárias.
+ */
+public enum Interpolacao {
+
+	/**
+	 * Usa o pixel mais próximo, sem suavização.
+	 */
+	VIZINHO,
+
+	/**
+	 * Combina linearmente os 4 pixels vizinhos.
+	 */
+	BILINEAR,
+
+	/**
+	 * Combina os 16 pixels vizinhos usando o kernel de Catmull-Rom.
+	 */
+	BICUBICA
+
+}
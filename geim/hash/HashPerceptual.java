@@ -0,0 +1,211 @@
+package geim.hash;
+
+import java.util.Arrays;
+
+import geim.imagem.Imagem;
+
+/**
+ * Cálculo de hashes perceptuais de 64 bits.
+ * <p>
+ *    Imagens visualmente parecidas geram hashes com poucos bits diferentes, a 
+ *    semelhança é medida pela distância de Hamming ({@link #distancia(long, long)}).
+ * </p>
+ * <ul>
+ *    <li>{@code aHash}: compara cada célula de uma grade 8x8 com a média.</li>
+ *    <li>{@code dHash}: compara células vizinhas de uma grade 9x8 (gradiente horizontal).</li>
+ *    <li>{@code pHash}: compara as frequências baixas da DCT de uma grade 32x32 com a mediana.</li>
+ * </ul>
+ * <p>
+ *    A redução para a grade é feita por média de área, lendo a imagem uma 
+ *    linha por vez, sem criar cópias em resolução completa.
+ * </p>
+ */
+public class HashPerceptual {
+
+	/**
+	 * Lado da grade usada no {@code pHash}.
+	 */
+	private static final int TAM_DCT = 32;
+
+	/**
+	 * Quantidade de frequências mantidas por dimensão no {@code pHash}.
+	 */
+	private static final int TAM_FREQ = 8;
+
+	/**
+	 * Cossenos da DCT-II para as frequências mantidas: {@code COS[u][x]}.
+	 */
+	private static final double[][] COS = new double[TAM_FREQ][TAM_DCT];
+
+	static {
+		for (int u = 0; u < TAM_FREQ; u++) {
+			for (int x = 0; x < TAM_DCT; x++) {
+				COS[u][x] = Math.cos((2*x + 1) * u * Math.PI / (2 * TAM_DCT));
+			}
+		}
+	}
+
+	/**
+	 * Contém implementações de hashes perceptuais.
+	 */
+	public HashPerceptual() {}
+
+	/**
+	 * Calcula o hash médio ({@code aHash}) da imagem.
+	 * @param img {@code Imagem} base.
+	 * @return hash de 64 bits.
+	 */
+	public long aHash(Imagem img) {
+		double[] g = reduzir(img, 8, 8);
+
+		double media = 0;
+		for (double v : g) media += v;
+		media /= g.length;
+
+		long hash = 0;
+		for (int i = 0; i < 64; i++) {
+			if (g[i] > media) hash |= 1L << i;
+		}
+
+		return hash;
+	}
+
+	/**
+	 * Calcula o hash de diferença ({@code dHash}) da imagem.
+	 * @param img {@code Imagem} base.
+	 * @return hash de 64 bits.
+	 */
+	public long dHash(Imagem img) {
+		double[] g = reduzir(img, 9, 8);
+
+		long hash = 0;
+		int bit = 0;
+		for (int y = 0; y < 8; y++) {
+			for (int x = 0; x < 8; x++, bit++) {
+				if (g[y*9 + x] > g[y*9 + x + 1]) hash |= 1L << bit;
+			}
+		}
+
+		return hash;
+	}
+
+	/**
+	 * Calcula o hash perceptual baseado em DCT ({@code pHash}) da imagem.
+	 * @param img {@code Imagem} base.
+	 * @return hash de 64 bits.
+	 */
+	public long pHash(Imagem img) {
+		double[] g = reduzir(img, TAM_DCT, TAM_DCT);
+
+		// DCT separável, calculando apenas as 8x8 frequências mais baixas
+		double[] linhas = new double[TAM_DCT * TAM_FREQ];
+		for (int y = 0; y < TAM_DCT; y++) {
+			for (int u = 0; u < TAM_FREQ; u++) {
+				double s = 0;
+				double[] c = COS[u];
+				for (int x = 0; x < TAM_DCT; x++) {
+					s += g[y*TAM_DCT + x] * c[x];
+				}
+				linhas[y*TAM_FREQ + u] = s;
+			}
+		}
+
+		double[] freq = new double[TAM_FREQ * TAM_FREQ];
+		for (int v = 0; v < TAM_FREQ; v++) {
+			double[] c = COS[v];
+			for (int u = 0; u < TAM_FREQ; u++) {
+				double s = 0;
+				for (int y = 0; y < TAM_DCT; y++) {
+					s += linhas[y*TAM_FREQ + u] * c[y];
+				}
+				freq[v*TAM_FREQ + u] = s;
+			}
+		}
+
+		// mediana sem o componente DC
+		double[] ordenado = new double[freq.length - 1];
+		System.arraycopy(freq, 1, ordenado, 0, ordenado.length);
+		Arrays.sort(ordenado);
+		double mediana = (ordenado[31] + ordenado[32]) / 2;
+
+		long hash = 0;
+		for (int i = 0; i < 64; i++) {
+			if (freq[i] > mediana) hash |= 1L << i;
+		}
+
+		return hash;
+	}
+
+	/**
+	 * Calcula a distância de Hamming entre dois hashes.
+	 * @param a primeiro hash.
+	 * @param b segundo hash.
+	 * @return quantidade de bits diferentes, entre 0 e 64.
+	 */
+	public static int distancia(long a, long b) {
+		return Long.bitCount(a ^ b);
+	}
+
+	/**
+	 * Reduz a imagem para uma grade em escala de cinza pela média de área.
+	 * <p>
+	 *    Células que não recebem nenhum pixel (quando a imagem é menor que a
+	 *    grade) usam o pixel mais próximo do seu centro.
+	 * </p>
+	 * @param img {@code Imagem} base.
+	 * @param gw largura da grade.
+	 * @param gh altura da grade.
+	 * @return valores de cinza da grade, linha por linha.
+	 */
+	private double[] reduzir(Imagem img, int gw, int gh) {
+		if (img == null) {
+			throw new IllegalArgumentException("\nA imagem fornecida é nula.");
+		}
+
+		int w = img.largura();
+		int h = img.altura();
+
+		int[] celulaX = new int[w];
+		for (int x = 0; x < w; x++) {
+			celulaX[x] = (int) ((long) x * gw / w);
+		}
+
+		double[] soma = new double[gw * gh];
+		int[] cont = new int[gw * gh];
+		int[] linha = new int[w];
+
+		for (int y = 0; y < h; y++) {
+			img.getLinha(y, linha, 0);
+			int base = (int) ((long) y * gh / h) * gw;
+			for (int x = 0; x < w; x++) {
+				int p = linha[x];
+				int i = base + celulaX[x];
+				soma[i] += cinza(p);
+				cont[i]++;
+			}
+		}
+
+		for (int cy = 0; cy < gh; cy++) {
+			for (int cx = 0; cx < gw; cx++) {
+				int i = cy*gw + cx;
+				if (cont[i] > 0) {
+					soma[i] /= cont[i];
+				} else {
+					int x = Math.min(w - 1, (int) ((cx + 0.5) * w / gw));
+					int y = Math.min(h - 1, (int) ((cy + 0.5) * h / gh));
+					soma[i] = cinza(img.getRGB(x, y));
+				}
+			}
+		}
+
+		return soma;
+	}
+
+	/**
+	 * Luminância do pixel (BT.601).
+	 */
+	private static double cinza(int rgb) {
+		return 0.299 * ((rgb >> 16) & 0xFF) + 0.587 * ((rgb >> 8) & 0xFF) + 0.114 * (rgb & 0xFF);
+	}
+
+}
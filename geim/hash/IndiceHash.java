@@ -0,0 +1,320 @@
+package geim.hash;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Índice de hashes de 64 bits para busca por distância de Hamming, 
+ * implementado como uma BK-tree.
+ * <p>
+ *    Cada hash é associado a um identificador numérico definido pelo usuário 
+ *    (por exemplo, o id do arquivo de origem). Os nós são guardados em arrays 
+ *    primitivos, ocupando cerca de 25 bytes por hash, o que permite manter 
+ *    milhões de hashes em memória.
+ * </p>
+ * <p>
+ *    O índice pode ser salvo e recarregado de um arquivo local sem 
+ *    reconstrução da árvore. Instâncias não são seguras para uso concorrente 
+ *    enquanto hashes são adicionados.
+ * </p>
+ */
+public class IndiceHash {
+
+	/**
+	 * Identificação do formato de arquivo do índice.
+	 */
+	private static final int ASSINATURA = 0x47484958;// "GHIX"
+
+	/**
+	 * Versão do formato de arquivo do índice.
+	 */
+	private static final int VERSAO = 1;
+
+	/**
+	 * Bytes do cabeçalho do arquivo (assinatura, versão e quantidade de nós).
+	 */
+	private static final int TAM_CABECALHO = 12;
+
+	/**
+	 * Bytes de cada nó no arquivo.
+	 */
+	private static final int TAM_NO = 25;
+
+	/**
+	 * Resultado de uma busca no índice.
+	 * @param id identificador associado ao hash.
+	 * @param hash hash encontrado.
+	 * @param distancia distância de Hamming até o hash buscado.
+	 */
+	public record Resultado(long id, long hash, int distancia) {}
+
+	private long[] hashes;
+	private long[] ids;
+
+	/**
+	 * Primeiro filho de cada nó, -1 caso não exista.
+	 */
+	private int[] primeiroFilho;
+
+	/**
+	 * Próximo irmão de cada nó, -1 caso não exista.
+	 */
+	private int[] proximoIrmao;
+
+	/**
+	 * Distância de cada nó até o seu pai.
+	 */
+	private byte[] distanciaPai;
+
+	/**
+	 * Quantidade de nós.
+	 */
+	private int tamanho;
+
+	/**
+	 * Inicializa um índice vazio.
+	 */
+	public IndiceHash() {
+		this(1024);
+	}
+
+	/**
+	 * Inicializa um índice vazio com capacidade inicial.
+	 * @param capacidade quantidade de hashes esperada.
+	 */
+	public IndiceHash(int capacidade) {
+		if (capacidade < 1) {
+			throw new IllegalArgumentException(
+				"\nCapacidade deve ser maior que zero, recebido: " + capacidade
+			);
+		}
+
+		hashes = new long[capacidade];
+		ids = new long[capacidade];
+		primeiroFilho = new int[capacidade];
+		proximoIrmao = new int[capacidade];
+		distanciaPai = new byte[capacidade];
+	}
+
+	/**
+	 * Adiciona um hash ao índice.
+	 * @param hash hash de 64 bits.
+	 * @param id identificador associado ao hash.
+	 */
+	public void adicionar(long hash, long id) {
+		if (tamanho == hashes.length) {
+			crescer();
+		}
+
+		int novo = tamanho;
+		hashes[novo] = hash;
+		ids[novo] = id;
+		primeiroFilho[novo] = -1;
+		proximoIrmao[novo] = -1;
+		tamanho++;
+
+		if (novo == 0) return;
+
+		int no = 0;
+		while (true) {
+			int d = Long.bitCount(hashes[no] ^ hash);
+			int filho = filho(no, d);
+			if (filho < 0) {
+				distanciaPai[novo] = (byte) d;
+				proximoIrmao[novo] = primeiroFilho[no];
+				primeiroFilho[no] = novo;
+				return;
+			}
+			no = filho;
+		}
+	}
+
+	/**
+	 * Busca todos os hashes a uma distância de Hamming menor ou igual ao raio.
+	 * @param hash hash buscado.
+	 * @param raio distância máxima, entre 0 e 64.
+	 * @return hashes encontrados, em ordem indefinida.
+	 */
+	public List<Resultado> buscar(long hash, int raio) {
+		if (raio < 0 || raio > 64) {
+			throw new IllegalArgumentException(
+				"\nRaio deve estar entre 0 e 64, recebido: " + raio
+			);
+		}
+
+		List<Resultado> res = new ArrayList<>();
+		if (tamanho == 0) return res;
+
+		int[] pilha = new int[64];
+		int topo = 0;
+		pilha[topo++] = 0;
+
+		while (topo > 0) {
+			int no = pilha[--topo];
+			int d = Long.bitCount(hashes[no] ^ hash);
+			if (d <= raio) {
+				res.add(new Resultado(ids[no], hashes[no], d));
+			}
+
+			// desigualdade triangular: apenas filhos em [d - raio, d + raio]
+			for (int f = primeiroFilho[no]; f >= 0; f = proximoIrmao[f]) {
+				int df = distanciaPai[f];
+				if (df >= d - raio && df <= d + raio) {
+					if (topo == pilha.length) pilha = Arrays.copyOf(pilha, topo * 2);
+					pilha[topo++] = f;
+				}
+			}
+		}
+
+		return res;
+	}
+
+	/**
+	 * Verifica se existe algum hash a uma distância menor ou igual ao raio.
+	 * @param hash hash buscado.
+	 * @param raio distância máxima, entre 0 e 64.
+	 * @return {@code true} caso exista um hash próximo.
+	 */
+	public boolean contemProximo(long hash, int raio) {
+		return !buscar(hash, raio).isEmpty();
+	}
+
+	/**
+	 * Retorna a quantidade de hashes no índice.
+	 * @return quantidade de hashes.
+	 */
+	public int tamanho() {
+		return tamanho;
+	}
+
+	/**
+	 * Salva o índice em um arquivo.
+	 * @param caminho caminho do arquivo de destino.
+	 */
+	public void salvar(String caminho) {
+		try (DataOutputStream out = new DataOutputStream(
+				new BufferedOutputStream(new FileOutputStream(caminho), 1 << 16))) {
+			out.writeInt(ASSINATURA);
+			out.writeInt(VERSAO);
+			out.writeInt(tamanho);
+			for (int i = 0; i < tamanho; i++) {
+				out.writeLong(hashes[i]);
+				out.writeLong(ids[i]);
+				out.writeInt(primeiroFilho[i]);
+				out.writeInt(proximoIrmao[i]);
+				out.writeByte(distanciaPai[i]);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("\nErro ao salvar índice \"" + caminho + "\".", e);
+		}
+	}
+
+	/**
+	 * Carrega um índice salvo com {@link #salvar(String)}.
+	 * <p>
+	 *    A estrutura da árvore é validada durante a leitura: os filhos de um nó 
+	 *    sempre foram inseridos depois dele e seus irmãos antes, então qualquer 
+	 *    referência fora dessa ordem indica um arquivo corrompido.
+	 * </p>
+	 * @param caminho caminho do arquivo.
+	 * @return índice carregado.
+	 * @throws IllegalArgumentException se o arquivo não for um índice válido.
+	 * @throws UncheckedIOException se ocorrer um erro de leitura ou o arquivo estiver truncado.
+	 */
+	public static IndiceHash carregar(String caminho) {
+		if (caminho == null) {
+			throw new IllegalArgumentException("\nO caminho fornecido é nulo.");
+		}
+
+		long bytesArquivo = new File(caminho).length();
+
+		try (DataInputStream in = new DataInputStream(
+				new BufferedInputStream(new FileInputStream(caminho), 1 << 16))) {
+			if (in.readInt() != ASSINATURA) {
+				throw new IllegalArgumentException(
+					"\nArquivo \"" + caminho + "\" não é um índice de hashes."
+				);
+			}
+			int versao = in.readInt();
+			if (versao != VERSAO) {
+				throw new IllegalArgumentException(
+					"\nVersão " + versao + " do índice não suportada."
+				);
+			}
+
+			int n = in.readInt();
+			if (n < 0) {
+				throw new IllegalArgumentException(
+					"\nÍndice \"" + caminho + "\" corrompido, quantidade de nós inválida: " + n
+				);
+			}
+			if (n > (bytesArquivo - TAM_CABECALHO) / TAM_NO) {
+				throw new UncheckedIOException(
+					"\nÍndice \"" + caminho + "\" truncado, esperados " + n + " nós.",
+					new EOFException()
+				);
+			}
+
+			IndiceHash indice = new IndiceHash(Math.max(1, n));
+			for (int i = 0; i < n; i++) {
+				indice.hashes[i] = in.readLong();
+				indice.ids[i] = in.readLong();
+				int filho = in.readInt();
+				int irmao = in.readInt();
+				int d = in.readByte();
+
+				if ((filho != -1 && (filho <= i || filho >= n)) ||
+					(irmao != -1 && (irmao < 1 || irmao >= i)) ||
+					d < 0 || d > 64) {
+					throw new IllegalArgumentException(
+						"\nÍndice \"" + caminho + "\" corrompido no nó " + i + "."
+					);
+				}
+
+				indice.primeiroFilho[i] = filho;
+				indice.proximoIrmao[i] = irmao;
+				indice.distanciaPai[i] = (byte) d;
+			}
+			indice.tamanho = n;
+
+			return indice;
+		} catch (IOException e) {
+			throw new UncheckedIOException("\nErro ao carregar índice \"" + caminho + "\".", e);
+		}
+	}
+
+	/**
+	 * Procura o filho do nó com a distância informada.
+	 * @return índice do filho, ou -1 caso não exista.
+	 */
+	private int filho(int no, int d) {
+		for (int f = primeiroFilho[no]; f >= 0; f = proximoIrmao[f]) {
+			if (distanciaPai[f] == d) return f;
+		}
+		return -1;
+	}
+
+	/**
+	 * Aumenta a capacidade dos arrays do índice.
+	 */
+	private void crescer() {
+		int cap = hashes.length + (hashes.length >> 1) + 1;
+		hashes = Arrays.copyOf(hashes, cap);
+		ids = Arrays.copyOf(ids, cap);
+		primeiroFilho = Arrays.copyOf(primeiroFilho, cap);
+		proximoIrmao = Arrays.copyOf(proximoIrmao, cap);
+		distanciaPai = Arrays.copyOf(distanciaPai, cap);
+	}
+
+}
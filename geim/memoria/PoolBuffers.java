@@ -0,0 +1,295 @@
+package geim.memoria;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool de buffers {@code int[]} reutilizáveis, agrupados por tamanho.
+ * <p>
+ *    Os buffers são organizados em grupos de tamanho potência de 2: um pedido 
+ *    de {@code n} elementos recebe um array com pelo menos {@code n} elementos 
+ *    do menor grupo que o comporte. Buffers devolvidos ficam retidos para o 
+ *    próximo pedido do mesmo grupo enquanto o total retido não ultrapassar o 
+ *    limite configurado, acima disso são descartados para o coletor de lixo.
+ * </p>
+ * <p>
+ *    Em modo de depuração o pool registra o local de cada aluguel, permitindo 
+ *    listar buffers que não foram devolvidos ({@link #vazamentos()}) e detectar 
+ *    devoluções duplicadas de buffers que ainda estão retidos pelo pool.
+ * </p>
+ * <p>
+ *    Todos os métodos são seguros para uso concorrente.
+ * </p>
+ */
+public class PoolBuffers {
+
+	/**
+	 * Menor grupo de tamanho (2^6 = 64 elementos).
+	 */
+	private static final int GRUPO_MIN = 6;
+
+	/**
+	 * Quantidade de grupos, o maior comporta 2^30 elementos.
+	 */
+	private static final int GRUPOS = 31;
+
+	/**
+	 * Pool compartilhado usado pelo Geim.
+	 */
+	private static final PoolBuffers GLOBAL = new PoolBuffers(256L << 20);
+
+	/**
+	 * Buffers livres de cada grupo.
+	 */
+	private final ArrayDeque<int[]>[] livres;
+
+	/**
+	 * Limite de bytes retidos pelo pool.
+	 */
+	private volatile long limiteBytes;
+
+	/**
+	 * Total de bytes retidos.
+	 */
+	private final AtomicLong retidos = new AtomicLong();
+
+	private final AtomicLong acertos = new AtomicLong();
+	private final AtomicLong falhas = new AtomicLong();
+
+	/**
+	 * Buffers alugados e o local do aluguel, usado apenas em modo de depuração.
+	 */
+	private volatile Map<int[], Throwable> alugados;
+
+	/**
+	 * Inicializa um pool de buffers.
+	 * @param limiteBytes quantidade máxima de bytes retidos pelo pool.
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	public PoolBuffers(long limiteBytes) {
+		setLimiteBytes(limiteBytes);
+
+		livres = new ArrayDeque[GRUPOS];
+		for (int i = 0; i < GRUPOS; i++) {
+			livres[i] = new ArrayDeque<>();
+		}
+	}
+
+	/**
+	 * Retorna o pool compartilhado, com limite inicial de 256 MB.
+	 * @return pool global.
+	 */
+	public static PoolBuffers global() {
+		return GLOBAL;
+	}
+
+	/**
+	 * Aluga um buffer com pelo menos {@code tamanho} elementos.
+	 * <p>
+	 *    O conteúdo do buffer é indefinido.
+	 * </p>
+	 * @param tamanho quantidade mínima de elementos.
+	 * @return buffer alugado, deve ser devolvido com {@link #devolver(int[])}.
+	 */
+	public int[] alugar(int tamanho) {
+		if (tamanho < 0) {
+			throw new IllegalArgumentException(
+				"\nTamanho deve ser maior ou igual a zero, recebido: " + tamanho
+			);
+		}
+
+		int g = grupo(tamanho);
+		int[] buf;
+		ArrayDeque<int[]> fila = livres[g];
+		synchronized (fila) {
+			buf = fila.pollLast();
+		}
+
+		if (buf != null) {
+			retidos.addAndGet(-4L * buf.length);
+			acertos.incrementAndGet();
+		} else {
+			buf = new int[1 << g];
+			falhas.incrementAndGet();
+		}
+
+		Map<int[], Throwable> reg = alugados;
+		if (reg != null) {
+			synchronized (reg) {
+				reg.put(buf, new Throwable("Buffer de " + buf.length + " elementos alugado aqui"));
+			}
+		}
+
+		return buf;
+	}
+
+	/**
+	 * Devolve um buffer ao pool.
+	 * <p>
+	 *    O buffer não deve mais ser usado após a devolução.
+	 * </p>
+	 * @param buf buffer alugado anteriormente.
+	 */
+	public void devolver(int[] buf) {
+		if (buf == null) {
+			throw new IllegalArgumentException("\nO buffer fornecido é nulo.");
+		}
+
+		// buffers alugados antes da ativação da depuração não estão registrados, 
+		// então só a presença do buffer entre os livres caracteriza devolução duplicada
+		boolean verificar = false;
+		Map<int[], Throwable> reg = alugados;
+		if (reg != null) {
+			synchronized (reg) {
+				verificar = reg.remove(buf) == null;
+			}
+		}
+
+		int tam = buf.length;
+		if (Integer.bitCount(tam) != 1 || tam < (1 << GRUPO_MIN)) return;
+
+		ArrayDeque<int[]> fila = livres[Integer.numberOfTrailingZeros(tam)];
+		synchronized (fila) {
+			if (verificar && fila.contains(buf)) {
+				throw new IllegalStateException(
+					"\nBuffer devolvido já está livre no pool (devolução duplicada)."
+				);
+			}
+
+			long bytes = 4L * tam;
+			if (retidos.addAndGet(bytes) > limiteBytes) {
+				retidos.addAndGet(-bytes);
+				return;
+			}
+
+			fila.addLast(buf);
+		}
+	}
+
+	/**
+	 * Calcula o grupo de tamanho que comporta a quantidade de elementos.
+	 */
+	private static int grupo(int tamanho) {
+		if (tamanho <= (1 << GRUPO_MIN)) return GRUPO_MIN;
+		int g = 32 - Integer.numberOfLeadingZeros(tamanho - 1);
+		if (g >= GRUPOS) {
+			throw new IllegalArgumentException(
+				"\nTamanho " + tamanho + " excede o maior grupo do pool."
+			);
+		}
+		return g;
+	}
+
+	/**
+	 * Define a quantidade máxima de bytes retidos pelo pool.
+	 * <p>
+	 *    Buffers já retidos não são descartados imediatamente, o limite é
+	 *    aplicado nas próximas devoluções.
+	 * </p>
+	 * @param limiteBytes limite em bytes, 0 desativa a retenção.
+	 */
+	public final void setLimiteBytes(long limiteBytes) {
+		if (limiteBytes < 0) {
+			throw new IllegalArgumentException(
+				"\nLimite deve ser maior ou igual a zero, recebido: " + limiteBytes
+			);
+		}
+
+		this.limiteBytes = limiteBytes;
+	}
+
+	/**
+	 * Retorna a quantidade máxima de bytes retidos pelo pool.
+	 * @return limite em bytes.
+	 */
+	public long limiteBytes() {
+		return limiteBytes;
+	}
+
+	/**
+	 * Retorna a quantidade de bytes atualmente retidos pelo pool.
+	 * @return bytes retidos.
+	 */
+	public long bytesRetidos() {
+		return retidos.get();
+	}
+
+	/**
+	 * Retorna a quantidade de aluguéis atendidos por buffers reutilizados.
+	 * @return quantidade de acertos.
+	 */
+	public long acertos() {
+		return acertos.get();
+	}
+
+	/**
+	 * Retorna a quantidade de aluguéis que precisaram alocar um novo buffer.
+	 * @return quantidade de falhas.
+	 */
+	public long falhas() {
+		return falhas.get();
+	}
+
+	/**
+	 * Ativa ou desativa o modo de depuração.
+	 * <p>
+	 *    Ao ativar, apenas os aluguéis feitos a partir desse momento são 
+	 *    rastreados, buffers alugados antes continuam podendo ser devolvidos. 
+	 *    Ao desativar, os registros são descartados.
+	 * </p>
+	 * @param ativo {@code true} para ativar.
+	 */
+	public synchronized void setDepuracao(boolean ativo) {
+		if (ativo && alugados == null) {
+			alugados = new IdentityHashMap<>();
+		} else if (!ativo) {
+			alugados = null;
+		}
+	}
+
+	/**
+	 * Verifica se o modo de depuração está ativo.
+	 * @return {@code true} caso esteja ativo.
+	 */
+	public boolean depuracao() {
+		return alugados != null;
+	}
+
+	/**
+	 * Retorna os locais de aluguel dos buffers que ainda não foram devolvidos.
+	 * <p>
+	 *    Disponível apenas em modo de depuração.
+	 * </p>
+	 * @return lista com um {@code Throwable} por buffer pendente, cujo rastro 
+	 * de pilha aponta o local do aluguel.
+	 */
+	public List<Throwable> vazamentos() {
+		Map<int[], Throwable> reg = alugados;
+		if (reg == null) {
+			throw new IllegalStateException("\nO modo de depuração não está ativo.");
+		}
+
+		synchronized (reg) {
+			return new ArrayList<>(reg.values());
+		}
+	}
+
+	/**
+	 * Descarta todos os buffers retidos.
+	 */
+	public void limpar() {
+		for (ArrayDeque<int[]> fila : livres) {
+			synchronized (fila) {
+				for (int[] buf : fila) {
+					retidos.addAndGet(-4L * buf.length);
+				}
+				fila.clear();
+			}
+		}
+	}
+
+}
@@ -0,0 +1,205 @@
+package geim.metricas;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Estatísticas acumuladas de uma operação do Geim.
+ * <p>
+ *    As latências são agrupadas em um histograma de base 2: o intervalo 
+ *    {@code i} conta as operações com duração em {@code [2^i, 2^(i+1))} 
+ *    nanossegundos.
+ * </p>
+ */
+public class EstatisticasOperacao {
+
+	/**
+	 * Quantidade de intervalos do histograma de latências.
+	 */
+	private static final int INTERVALOS = 64;
+
+	private final Operacao operacao;
+	private final LongAdder contagem = new LongAdder();
+	private final LongAdder erros = new LongAdder();
+	private final LongAdder nanos = new LongAdder();
+	private final LongAdder bytes = new LongAdder();
+	private final LongAdder pixels = new LongAdder();
+	private final LongAdder alocados = new LongAdder();
+	private final AtomicLongArray histograma = new AtomicLongArray(INTERVALOS);
+
+	/**
+	 * Inicializa as estatísticas de uma operação.
+	 * @param operacao operação monitorada.
+	 */
+	EstatisticasOperacao(Operacao operacao) {
+		this.operacao = operacao;
+	}
+
+	/**
+	 * Acumula uma execução da operação.
+	 */
+	void registrar(long nanos, long bytes, long pixels, long alocados) {
+		contagem.increment();
+		this.nanos.add(nanos);
+		this.bytes.add(bytes);
+		this.pixels.add(pixels);
+		this.alocados.add(alocados);
+
+		int i = nanos <= 0 ? 0 : 63 - Long.numberOfLeadingZeros(nanos);
+		histograma.incrementAndGet(i);
+	}
+
+	/**
+	 * Acumula uma falha da operação.
+	 */
+	void registrarErro() {
+		erros.increment();
+	}
+
+	/**
+	 * Zera todas as estatísticas.
+	 */
+	void reiniciar() {
+		contagem.reset();
+		erros.reset();
+		nanos.reset();
+		bytes.reset();
+		pixels.reset();
+		alocados.reset();
+		for (int i = 0; i < INTERVALOS; i++) {
+			histograma.set(i, 0);
+		}
+	}
+
+	/**
+	 * Retorna a operação monitorada.
+	 * @return operação.
+	 */
+	public Operacao operacao() {
+		return operacao;
+	}
+
+	/**
+	 * Retorna a quantidade de execuções concluídas com sucesso.
+	 * @return quantidade de execuções.
+	 */
+	public long contagem() {
+		return contagem.sum();
+	}
+
+	/**
+	 * Retorna a quantidade de execuções que falharam.
+	 * @return quantidade de erros.
+	 */
+	public long erros() {
+		return erros.sum();
+	}
+
+	/**
+	 * Retorna o tempo total gasto nas execuções, em nanossegundos.
+	 * @return tempo total.
+	 */
+	public long nanosTotal() {
+		return nanos.sum();
+	}
+
+	/**
+	 * Retorna a quantidade total de bytes lidos ou escritos.
+	 * @return bytes processados.
+	 */
+	public long bytes() {
+		return bytes.sum();
+	}
+
+	/**
+	 * Retorna a quantidade total de pixels processados.
+	 * @return pixels processados.
+	 */
+	public long pixels() {
+		return pixels.sum();
+	}
+
+	/**
+	 * Retorna a estimativa total de bytes alocados.
+	 * @return bytes alocados.
+	 */
+	public long alocados() {
+		return alocados.sum();
+	}
+
+	/**
+	 * Retorna a vazão média em pixels por segundo.
+	 * @return pixels por segundo, ou 0 caso não existam execuções.
+	 */
+	public double pixelsPorSegundo() {
+		long t = nanosTotal();
+		return t == 0 ? 0 : pixels() * 1e9 / t;
+	}
+
+	/**
+	 * Retorna a vazão média em bytes por segundo.
+	 * @return bytes por segundo, ou 0 caso não existam execuções.
+	 */
+	public double bytesPorSegundo() {
+		long t = nanosTotal();
+		return t == 0 ? 0 : bytes() * 1e9 / t;
+	}
+
+	/**
+	 * Retorna a contagem de execuções em cada intervalo do histograma de latências.
+	 * @return cópia do histograma.
+	 */
+	public long[] histograma() {
+		long[] h = new long[INTERVALOS];
+		for (int i = 0; i < INTERVALOS; i++) {
+			h[i] = histograma.get(i);
+		}
+		return h;
+	}
+
+	/**
+	 * Estima um percentil de latência a partir do histograma.
+	 * <p>
+	 *    O valor retornado é o limite superior do intervalo que contém o 
+	 *    percentil, ou seja, tem erro de até 2x.
+	 * </p>
+	 * @param p percentil desejado, no intervalo [0, 100].
+	 * @return latência estimada em nanossegundos, ou 0 caso não existam execuções.
+	 */
+	public long percentil(double p) {
+		if (p < 0 || p > 100) {
+			throw new IllegalArgumentException(
+				"\nPercentil deve estar entre 0 e 100, recebido: " + p
+			);
+		}
+
+		long[] h = histograma();
+		long total = 0;
+		for (long c : h) total += c;
+		if (total == 0) return 0;
+
+		long alvo = Math.max(1, (long) Math.ceil(total * p / 100));
+		long acumulado = 0;
+		for (int i = 0; i < INTERVALOS; i++) {
+			acumulado += h[i];
+			if (acumulado >= alvo) {
+				return i >= 62 ? Long.MAX_VALUE : (1L << (i + 1)) - 1;
+			}
+		}
+
+		return Long.MAX_VALUE;
+	}
+
+	@Override
+	public String toString() {
+		long n = contagem();
+		double mediaMs = n == 0 ? 0 : nanosTotal() / 1e6 / n;
+		return String.format(
+			"%-10s n=%d erros=%d media=%.3fms p50<=%.3fms p99<=%.3fms " +
+			"bytes=%d pixels=%d alocados=%d %.1f Mpx/s",
+			operacao, n, erros(), mediaMs, percentil(50) / 1e6, percentil(99) / 1e6,
+			bytes(), pixels(), alocados(), pixelsPorSegundo() / 1e6
+		);
+	}
+
+}
@@ -0,0 +1,42 @@
+package geim.metricas;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Evento do Java Flight Recorder emitido para cada operação registrada
+ * nas métricas.
+ */
+@Name("geim.Operacao")
+@Label("Operação Geim")
+@Category("Geim")
+@Description("Operação de leitura, conversão ou exportação de imagem.")
+class EventoOperacao extends Event {
+
+	@Label("Operação")
+	String operacao;
+
+	@Label("Duração")
+	@Timespan(Timespan.NANOSECONDS)
+	long duracao;
+
+	@Label("Bytes")
+	@DataAmount
+	long bytes;
+
+	@Label("Pixels")
+	long pixels;
+
+	@Label("Alocação estimada")
+	@DataAmount
+	long alocados;
+
+	@Label("Sucesso")
+	boolean sucesso;
+
+}
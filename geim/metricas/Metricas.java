@@ -0,0 +1,207 @@
+package geim.metricas;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Métricas de desempenho das operações do Geim.
+ * <p>
+ *    As métricas são opcionais e começam desativadas. Enquanto desativadas,
+ *    o custo em cada operação é apenas a leitura de um campo {@code volatile}.
+ * </p>
+ * Quando ativas, cada operação registra:
+ * <ul>
+ *    <li>latência, em um histograma de base 2;</li>
+ *    <li>bytes lidos ou escritos e pixels processados;</li>
+ *    <li>estimativa de bytes alocados;</li>
+ *    <li>quantidade de erros.</li>
+ * </ul>
+ * Cada registro também emite um evento {@code geim.Operacao} para o
+ * Java Flight Recorder (quando habilitado na gravação) e é repassado aos
+ * {@link OuvinteMetricas} adicionados.
+ * <p>
+ *    Exemplo de uso:
+ * </p>
+ * <pre>
+ *    long t = Metricas.iniciar();
+ *    // operação
+ *    Metricas.registrar(Operacao.LEITURA, t, bytes, pixels, alocados);
+ * </pre>
+ */
+public final class Metricas {
+
+	/**
+	 * Indica se as métricas estão sendo coletadas.
+	 */
+	private static volatile boolean ativo = false;
+
+	/**
+	 * Valor retornado por {@link #iniciar()} com as métricas desativadas, fora 
+	 * do intervalo usado na prática por {@code System.nanoTime()}.
+	 */
+	private static final long DESATIVADO = Long.MIN_VALUE;
+
+	/**
+	 * Estatísticas de cada operação, indexadas pelo ordinal.
+	 */
+	private static final EstatisticasOperacao[] estatisticas;
+
+	/**
+	 * Ouvintes que recebem cada registro.
+	 */
+	private static final CopyOnWriteArrayList<OuvinteMetricas> ouvintes = new CopyOnWriteArrayList<>();
+
+	static {
+		Operacao[] ops = Operacao.values();
+		estatisticas = new EstatisticasOperacao[ops.length];
+		for (Operacao op : ops) {
+			estatisticas[op.ordinal()] = new EstatisticasOperacao(op);
+		}
+	}
+
+	private Metricas() {}
+
+	/**
+	 * Ativa a coleta de métricas.
+	 */
+	public static void ativar() {
+		ativo = true;
+	}
+
+	/**
+	 * Desativa a coleta de métricas, os valores acumulados são mantidos.
+	 */
+	public static void desativar() {
+		ativo = false;
+	}
+
+	/**
+	 * Verifica se a coleta de métricas está ativa.
+	 * @return {@code true} caso as métricas estejam ativas.
+	 */
+	public static boolean ativo() {
+		return ativo;
+	}
+
+	/**
+	 * Marca o início de uma operação.
+	 * @return instante atual em nanossegundos, ou {@code Long.MIN_VALUE} caso as 
+	 * métricas estejam desativadas.
+	 */
+	public static long iniciar() {
+		return ativo ? System.nanoTime() : DESATIVADO;
+	}
+
+	/**
+	 * Registra a conclusão de uma operação iniciada em {@link #iniciar()}.
+	 * @param op operação executada.
+	 * @param inicio valor retornado por {@code iniciar()}.
+	 * @param bytes quantidade de bytes lidos ou escritos.
+	 * @param pixels quantidade de pixels processados.
+	 * @param alocados estimativa de bytes alocados pela operação.
+	 */
+	public static void registrar(Operacao op, long inicio, long bytes, long pixels, long alocados) {
+		if (!ativo || inicio == DESATIVADO) return;
+
+		long nanos = System.nanoTime() - inicio;
+		estatisticas[op.ordinal()].registrar(nanos, bytes, pixels, alocados);
+
+		EventoOperacao ev = new EventoOperacao();
+		if (ev.shouldCommit()) {
+			ev.operacao = op.name();
+			ev.duracao = nanos;
+			ev.bytes = bytes;
+			ev.pixels = pixels;
+			ev.alocados = alocados;
+			ev.sucesso = true;
+			ev.commit();
+		}
+
+		for (OuvinteMetricas o : ouvintes) {
+			o.aoRegistrar(op, nanos, bytes, pixels, alocados);
+		}
+	}
+
+	/**
+	 * Registra a falha de uma operação.
+	 * @param op operação executada.
+	 * @param erro erro ocorrido.
+	 */
+	public static void registrarErro(Operacao op, Throwable erro) {
+		if (!ativo) return;
+
+		estatisticas[op.ordinal()].registrarErro();
+
+		EventoOperacao ev = new EventoOperacao();
+		if (ev.shouldCommit()) {
+			ev.operacao = op.name();
+			ev.sucesso = false;
+			ev.commit();
+		}
+
+		for (OuvinteMetricas o : ouvintes) {
+			o.aoErro(op, erro);
+		}
+	}
+
+	/**
+	 * Retorna as estatísticas acumuladas de uma operação.
+	 * @param op operação desejada.
+	 * @return estatísticas da operação.
+	 */
+	public static EstatisticasOperacao estatisticas(Operacao op) {
+		if (op == null) {
+			throw new IllegalArgumentException("\nA operação fornecida é nula.");
+		}
+
+		return estatisticas[op.ordinal()];
+	}
+
+	/**
+	 * Adiciona um ouvinte que receberá cada registro de métricas.
+	 * @param ouvinte ouvinte desejado.
+	 */
+	public static void adicionarOuvinte(OuvinteMetricas ouvinte) {
+		if (ouvinte == null) {
+			throw new IllegalArgumentException("\nO ouvinte fornecido é nulo.");
+		}
+
+		ouvintes.add(ouvinte);
+	}
+
+	/**
+	 * Remove um ouvinte adicionado anteriormente.
+	 * @param ouvinte ouvinte desejado.
+	 */
+	public static void removerOuvinte(OuvinteMetricas ouvinte) {
+		ouvintes.remove(ouvinte);
+	}
+
+	/**
+	 * Zera as estatísticas de todas as operações.
+	 */
+	public static void reiniciar() {
+		for (EstatisticasOperacao e : estatisticas) {
+			e.reiniciar();
+		}
+	}
+
+	/**
+	 * Monta um resumo das estatísticas de todas as operações.
+	 * @return resumo, uma linha por operação.
+	 */
+	public static String resumo() {
+		StringBuilder sb = new StringBuilder();
+		for (EstatisticasOperacao e : estatisticas) {
+			sb.append(e).append("\n");
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Exibe via terminal o resumo das métricas.
+	 */
+	public static void print() {
+		System.out.println(resumo());
+	}
+
+}
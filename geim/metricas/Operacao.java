@@ -0,0 +1,23 @@
+package geim.metricas;
+
+/**
+ * Operações do Geim monitoradas pelas métricas.
+ */
+public enum Operacao {
+
+	/**
+	 * Leitura e decodificação de arquivos de imagem.
+	 */
+	LEITURA,
+
+	/**
+	 * Conversão de {@code BufferedImage} para {@code Imagem}.
+	 */
+	CONVERSAO,
+
+	/**
+	 * Codificação e escrita de imagens em arquivos.
+	 */
+	EXPORTACAO
+
+}
@@ -0,0 +1,34 @@
+package geim.metricas;
+
+/**
+ * Recebe os registros de métricas do Geim à medida que são produzidos.
+ * <p>
+ *    Serve como ponto de integração com registros de métricas externos
+ *    (por exemplo, criando um {@code Timer} e {@code Counter} por operação
+ *    em um registro no estilo Micrometer).
+ * </p>
+ * <p>
+ *    Os métodos são chamados na thread que executou a operação e devem 
+ *    retornar rapidamente.
+ * </p>
+ */
+public interface OuvinteMetricas {
+
+	/**
+	 * Chamado ao final de uma operação concluída com sucesso.
+	 * @param op operação executada.
+	 * @param nanos duração da operação, em nanossegundos.
+	 * @param bytes quantidade de bytes lidos ou escritos.
+	 * @param pixels quantidade de pixels processados.
+	 * @param alocados estimativa de bytes alocados pela operação.
+	 */
+	void aoRegistrar(Operacao op, long nanos, long bytes, long pixels, long alocados);
+
+	/**
+	 * Chamado quando uma operação falha.
+	 * @param op operação executada.
+	 * @param erro erro ocorrido.
+	 */
+	void aoErro(Operacao op, Throwable erro);
+
+}
@@ -0,0 +1,203 @@
+package geim.morfologia;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Resultado da rotulação de componentes conectados de uma {@code ImagemBinaria}.
+ * <p>
+ *    Os componentes são guardados como sequências horizontais de pixels 
+ *    ligados, cada uma com seu rótulo. Os rótulos vão de {@code 1} até 
+ *    {@code quantidade()}, na ordem em que cada componente aparece ao 
+ *    percorrer a imagem linha por linha, e {@code 0} representa o fundo.
+ * </p>
+ * <p>
+ *    O mapa de rótulos por pixel só é gerado quando solicitado por 
+ *    {@link #rotulos()}, evitando alocar {@code altura * largura} inteiros 
+ *    quando apenas as estatísticas das regiões são necessárias.
+ * </p>
+ */
+public class Componentes {
+
+	/**
+	 * Estatísticas de um componente conectado.
+	 * @param rotulo rótulo do componente.
+	 * @param area quantidade de pixels.
+	 * @param x coordenada x do canto superior esquerdo da caixa envolvente.
+	 * @param y coordenada y do canto superior esquerdo da caixa envolvente.
+	 * @param largura largura da caixa envolvente.
+	 * @param altura altura da caixa envolvente.
+	 * @param centroX coordenada x do centroide.
+	 * @param centroY coordenada y do centroide.
+	 */
+	public record Regiao(int rotulo, long area, int x, int y, int largura, int altura, double centroX, double centroY) {}
+
+	private final int altura;
+	private final int largura;
+
+	/**
+	 * Índice da primeira sequência de cada linha, com {@code altura + 1} valores.
+	 */
+	private final int[] inicioLinha;
+
+	/**
+	 * Coluna inicial (inclusiva) de cada sequência.
+	 */
+	private final int[] inicio;
+
+	/**
+	 * Coluna final (inclusiva) de cada sequência.
+	 */
+	private final int[] fim;
+
+	/**
+	 * Rótulo de cada sequência.
+	 */
+	private final int[] rotulo;
+
+	private final List<Regiao> regioes;
+
+	/**
+	 * Mapa de rótulos, gerado sob demanda.
+	 */
+	private int[] mapa;
+
+	/**
+	 * Inicializa o resultado da rotulação.
+	 */
+	Componentes(int altura, int largura, int[] inicioLinha, int[] inicio, int[] fim, int[] rotulo, List<Regiao> regioes) {
+		this.altura = altura;
+		this.largura = largura;
+		this.inicioLinha = inicioLinha;
+		this.inicio = inicio;
+		this.fim = fim;
+		this.rotulo = rotulo;
+		this.regioes = Collections.unmodifiableList(regioes);
+	}
+
+	/**
+	 * Retorna a quantidade de componentes encontrados.
+	 * @return quantidade de componentes.
+	 */
+	public int quantidade() {
+		return regioes.size();
+	}
+
+	/**
+	 * Retorna as estatísticas de todos os componentes, ordenadas por rótulo.
+	 * @return lista imutável de regiões.
+	 */
+	public List<Regiao> regioes() {
+		return regioes;
+	}
+
+	/**
+	 * Retorna as estatísticas de um componente.
+	 * @param rotulo rótulo desejado, entre {@code 1} e {@code quantidade()}.
+	 * @return {@code Regiao} do componente.
+	 */
+	public Regiao regiao(int rotulo) {
+		verificarRotulo(rotulo);
+		return regioes.get(rotulo - 1);
+	}
+
+	/**
+	 * Retorna o rótulo de um pixel.
+	 * @param x valor horizontal.
+	 * @param y valor vertical.
+	 * @return rótulo do pixel, ou {@code 0} caso ele pertença ao fundo.
+	 */
+	public int rotulo(int x, int y) {
+		if (x < 0 || x >= largura) {
+			throw new IllegalArgumentException("\nValor de x (" + x + ") fora de alcance.");
+		}
+		if (y < 0 || y >= altura) {
+			throw new IllegalArgumentException("\nValor de y (" + y + ") fora de alcance.");
+		}
+
+		// última sequência da linha que começa antes ou em x
+		int lo = inicioLinha[y], hi = inicioLinha[y + 1] - 1;
+		while (lo <= hi) {
+			int m = (lo + hi) >>> 1;
+			if (inicio[m] <= x) lo = m + 1;
+			else hi = m - 1;
+		}
+
+		return hi >= inicioLinha[y] && fim[hi] >= x ? rotulo[hi] : 0;
+	}
+
+	/**
+	 * Retorna o mapa de rótulos de todos os pixels, linha por linha.
+	 * <p>
+	 *    O mapa é gerado na primeira chamada e compartilhado pelas chamadas 
+	 *    seguintes, não deve ser alterado.
+	 * </p>
+	 * @return array com {@code altura * largura} rótulos.
+	 */
+	public synchronized int[] rotulos() {
+		if (mapa == null) {
+			int[] m = new int[Math.multiplyExact(altura, largura)];
+			IntStream.range(0, altura).parallel().forEach(y -> {
+				int base = y * largura;
+				for (int i = inicioLinha[y]; i < inicioLinha[y + 1]; i++) {
+					Arrays.fill(m, base + inicio[i], base + fim[i] + 1, rotulo[i]);
+				}
+			});
+			mapa = m;
+		}
+
+		return mapa;
+	}
+
+	/**
+	 * Gera uma imagem binária contendo apenas os pixels de um componente.
+	 * @param rotulo rótulo desejado, entre {@code 1} e {@code quantidade()}.
+	 * @return nova {@code ImagemBinaria}.
+	 */
+	public ImagemBinaria mascara(int rotulo) {
+		Regiao r = regiao(rotulo);
+		ImagemBinaria bin = new ImagemBinaria(altura, largura);
+
+		for (int y = r.y(); y < r.y() + r.altura(); y++) {
+			int base = y * bin.palavras;
+			for (int i = inicioLinha[y]; i < inicioLinha[y + 1]; i++) {
+				if (this.rotulo[i] != rotulo) continue;
+				for (int x = inicio[i]; x <= fim[i]; x++) {
+					bin.dados[base + (x >>> 6)] |= 1L << x;
+				}
+			}
+		}
+
+		return bin;
+	}
+
+	/**
+	 * Verifica se o rótulo é válido.
+	 */
+	private void verificarRotulo(int rotulo) {
+		if (rotulo < 1 || rotulo > regioes.size()) {
+			throw new IllegalArgumentException(
+				"\nRótulo (" + rotulo + ") fora de alcance, deve estar entre 1 e " + regioes.size() + "."
+			);
+		}
+	}
+
+	/**
+	 * Retorna a altura da imagem rotulada.
+	 * @return valor de altura.
+	 */
+	public int altura() {
+		return altura;
+	}
+
+	/**
+	 * Retorna a largura da imagem rotulada.
+	 * @return valor de largura.
+	 */
+	public int largura() {
+		return largura;
+	}
+
+}
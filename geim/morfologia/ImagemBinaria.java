@@ -0,0 +1,267 @@
+package geim.morfologia;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import geim.imagem.Imagem;
+
+/**
+ * Imagem binária compactada, usando um bit por pixel.
+ * <p>
+ *    Cada linha ocupa {@code palavras()} valores {@code long}, onde o pixel 
+ *    {@code x} corresponde ao bit {@code x % 64} da palavra {@code x / 64}. Os 
+ *    bits excedentes da última palavra de cada linha são sempre zero.
+ * </p>
+ * <p>
+ *    Uma máscara de 8192x8192 ocupa 8 MB, contra 256 MB de uma matriz 
+ *    {@code int[][]} equivalente, e as operações morfológicas processam 64 
+ *    pixels por instrução.
+ * </p>
+ */
+public class ImagemBinaria {
+
+	/**
+	 * Bits da imagem, linha por linha.
+	 */
+	final long[] dados;
+
+	/**
+	 * Quantidade de palavras por linha.
+	 */
+	final int palavras;
+
+	/**
+	 * Altura da imagem.
+	 */
+	private final int altura;
+
+	/**
+	 * Largura da imagem.
+	 */
+	private final int largura;
+
+	/**
+	 * Inicializa uma imagem binária com todos os pixels desligados.
+	 * @param altura altura desejada.
+	 * @param largura largura desejada.
+	 */
+	public ImagemBinaria(int altura, int largura) {
+		if (altura < 1 || largura < 1) {
+			throw new IllegalArgumentException(
+				"\nAltura e Largura devem ser maiores que zero."
+			);
+		}
+
+		this.altura = altura;
+		this.largura = largura;
+		this.palavras = (largura + 63) >>> 6;
+		this.dados = new long[Math.multiplyExact(altura, palavras)];
+	}
+
+	/**
+	 * Cria uma imagem binária ligando os pixels da imagem em escala de cinza 
+	 * com intensidade maior ou igual ao limiar.
+	 * @param cinza matriz em escala de cinza no formato {@code [altura][largura]}, 
+	 * como retornada por {@code getGray}.
+	 * @param limiar intensidade mínima para que o pixel seja ligado.
+	 * @return nova {@code ImagemBinaria}.
+	 */
+	public static ImagemBinaria limiarizar(int[][] cinza, int limiar) {
+		if (cinza == null || cinza.length == 0 || cinza[0].length == 0) {
+			throw new IllegalArgumentException("\nA matriz fornecida é nula ou vazia.");
+		}
+
+		int altura = cinza.length;
+		int largura = cinza[0].length;
+		ImagemBinaria bin = new ImagemBinaria(altura, largura);
+
+		IntStream.range(0, altura).parallel().forEach(y -> {
+			int[] linha = cinza[y];
+			if (linha.length != largura) {
+				throw new IllegalArgumentException(
+					"\nTodas as linhas da matriz devem ter o mesmo tamanho."
+				);
+			}
+			int ini = y * bin.palavras;
+			for (int x = 0; x < largura; x++) {
+				if (linha[x] >= limiar) bin.dados[ini + (x >>> 6)] |= 1L << x;
+			}
+		});
+
+		return bin;
+	}
+
+	/**
+	 * Cria uma imagem binária ligando os pixels com intensidade de cinza 
+	 * ({@code (r + g + b) / 3}, como em {@code getGray}) maior ou igual ao limiar.
+	 * @param img {@code Imagem} base.
+	 * @param limiar intensidade mínima, no intervalo [0, 255], para que o pixel 
+	 * seja ligado.
+	 * @return nova {@code ImagemBinaria}.
+	 */
+	public static ImagemBinaria limiarizar(Imagem img, int limiar) {
+		if (img == null) {
+			throw new IllegalArgumentException("\nA imagem fornecida é nula.");
+		}
+
+		int altura = img.altura();
+		int largura = img.largura();
+		ImagemBinaria bin = new ImagemBinaria(altura, largura);
+
+		IntStream.range(0, altura).parallel().forEach(y -> {
+			int[] linha = new int[largura];
+			img.getLinha(y, linha, 0);
+			int ini = y * bin.palavras;
+			for (int x = 0; x < largura; x++) {
+				int rgb = linha[x];
+				int c = (((rgb >> 16) & 0xFF) + ((rgb >> 8) & 0xFF) + (rgb & 0xFF)) / 3;
+				if (c >= limiar) bin.dados[ini + (x >>> 6)] |= 1L << x;
+			}
+		});
+
+		return bin;
+	}
+
+	/**
+	 * Verifica se um pixel está ligado.
+	 * @param x valor horizontal.
+	 * @param y valor vertical.
+	 * @return {@code true} caso o pixel esteja ligado.
+	 */
+	public boolean get(int x, int y) {
+		verificar(x, y);
+		return (dados[y * palavras + (x >>> 6)] & (1L << x)) != 0;
+	}
+
+	/**
+	 * Liga ou desliga um pixel.
+	 * @param x valor horizontal.
+	 * @param y valor vertical.
+	 * @param valor {@code true} para ligar o pixel.
+	 */
+	public void set(int x, int y, boolean valor) {
+		verificar(x, y);
+		int i = y * palavras + (x >>> 6);
+		if (valor) dados[i] |= 1L << x;
+		else dados[i] &= ~(1L << x);
+	}
+
+	/**
+	 * Liga ou desliga todos os pixels da imagem.
+	 * @param valor {@code true} para ligar os pixels.
+	 */
+	public void preencher(boolean valor) {
+		if (!valor) {
+			Arrays.fill(dados, 0L);
+			return;
+		}
+
+		Arrays.fill(dados, -1L);
+		limparExcedentes();
+	}
+
+	/**
+	 * Inverte todos os pixels da imagem.
+	 */
+	public void inverter() {
+		for (int i = 0; i < dados.length; i++) {
+			dados[i] = ~dados[i];
+		}
+		limparExcedentes();
+	}
+
+	/**
+	 * Conta os pixels ligados.
+	 * @return quantidade de pixels ligados.
+	 */
+	public long contar() {
+		long n = 0;
+		for (long p : dados) {
+			n += Long.bitCount(p);
+		}
+		return n;
+	}
+
+	/**
+	 * Cria uma cópia independente da imagem.
+	 * @return nova {@code ImagemBinaria}.
+	 */
+	public ImagemBinaria copiar() {
+		ImagemBinaria copia = new ImagemBinaria(altura, largura);
+		System.arraycopy(dados, 0, copia.dados, 0, dados.length);
+		return copia;
+	}
+
+	/**
+	 * Converte a imagem binária em uma {@code Imagem}.
+	 * @param ligado valor RGB dos pixels ligados.
+	 * @param desligado valor RGB dos pixels desligados.
+	 * @return nova {@code Imagem}.
+	 */
+	public Imagem paraImagem(int ligado, int desligado) {
+		Imagem img = new Imagem(altura, largura);
+		int on = ligado & 0xFFFFFF;
+		int off = desligado & 0xFFFFFF;
+
+		IntStream.range(0, altura).parallel().forEach(y -> {
+			int[] linha = new int[largura];
+			int ini = y * palavras;
+			for (int x = 0; x < largura; x++) {
+				linha[x] = (dados[ini + (x >>> 6)] & (1L << x)) != 0 ? on : off;
+			}
+			img.setLinha(y, linha, 0);
+		});
+
+		return img;
+	}
+
+	/**
+	 * Zera os bits além da largura em cada linha.
+	 */
+	void limparExcedentes() {
+		int resto = largura & 63;
+		if (resto == 0) return;
+
+		long mascara = (1L << resto) - 1;
+		for (int i = palavras - 1; i < dados.length; i += palavras) {
+			dados[i] &= mascara;
+		}
+	}
+
+	/**
+	 * Verifica se a posição está dentro da imagem.
+	 */
+	private void verificar(int x, int y) {
+		if (x < 0 || x >= largura) {
+			throw new IllegalArgumentException("\nValor de x (" + x + ") fora de alcance.");
+		}
+		if (y < 0 || y >= altura) {
+			throw new IllegalArgumentException("\nValor de y (" + y + ") fora de alcance.");
+		}
+	}
+
+	/**
+	 * Retorna a quantidade de palavras {@code long} usadas por linha.
+	 * @return palavras por linha.
+	 */
+	public int palavras() {
+		return palavras;
+	}
+
+	/**
+	 * Retorna a altura da imagem.
+	 * @return valor de altura.
+	 */
+	public int altura() {
+		return altura;
+	}
+
+	/**
+	 * Retorna a largura da imagem.
+	 * @return valor de largura.
+	 */
+	public int largura() {
+		return largura;
+	}
+
+}
@@ -0,0 +1,435 @@
+package geim.morfologia;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Operações morfológicas com elemento estruturante retangular.
+ * <p>
+ *    O elemento tem tamanho {@code (2 * raioX + 1) x (2 * raioY + 1)} e é 
+ *    centrado no pixel. Pixels fora da imagem não influenciam o resultado: 
+ *    são tratados como ligados na erosão e desligados na dilatação.
+ * </p>
+ * <p>
+ *    As operações são separáveis, aplicadas primeiro nas linhas e depois nas 
+ *    colunas. Em imagens em escala de cinza e na passada vertical de imagens 
+ *    binárias é usado o algoritmo de van Herk/Gil-Werman, com custo constante 
+ *    por pixel independente do raio. Na passada horizontal de imagens binárias 
+ *    a janela é composta por deslocamentos de palavras inteiras, com 
+ *    {@code log2(2 * raio + 1)} passadas sobre cada linha.
+ * </p>
+ */
+public class Morfologia {
+
+	/**
+	 * Quantidade de palavras processadas por tarefa na passada vertical.
+	 */
+	private static final int PALAVRAS_POR_TAREFA = 8;
+
+	/**
+	 * Quantidade de colunas processadas por tarefa na passada vertical em 
+	 * escala de cinza.
+	 */
+	private static final int COLUNAS_POR_TAREFA = 64;
+
+	/**
+	 * Contém implementações de operações morfológicas.
+	 */
+	public Morfologia() {}
+
+	/**
+	 * Aplica a erosão na imagem binária usando um elemento quadrado.
+	 * @param img imagem base, não é alterada.
+	 * @param raio raio do elemento estruturante.
+	 * @return nova {@code ImagemBinaria} erodida.
+	 */
+	public ImagemBinaria erodir(ImagemBinaria img, int raio) {
+		return erodir(img, raio, raio);
+	}
+
+	/**
+	 * Aplica a erosão na imagem binária.
+	 * @param img imagem base, não é alterada.
+	 * @param raioX raio horizontal do elemento estruturante.
+	 * @param raioY raio vertical do elemento estruturante.
+	 * @return nova {@code ImagemBinaria} erodida.
+	 */
+	public ImagemBinaria erodir(ImagemBinaria img, int raioX, int raioY) {
+		return aplicar(img, raioX, raioY, true);
+	}
+
+	/**
+	 * Aplica a dilatação na imagem binária usando um elemento quadrado.
+	 * @param img imagem base, não é alterada.
+	 * @param raio raio do elemento estruturante.
+	 * @return nova {@code ImagemBinaria} dilatada.
+	 */
+	public ImagemBinaria dilatar(ImagemBinaria img, int raio) {
+		return dilatar(img, raio, raio);
+	}
+
+	/**
+	 * Aplica a dilatação na imagem binária.
+	 * @param img imagem base, não é alterada.
+	 * @param raioX raio horizontal do elemento estruturante.
+	 * @param raioY raio vertical do elemento estruturante.
+	 * @return nova {@code ImagemBinaria} dilatada.
+	 */
+	public ImagemBinaria dilatar(ImagemBinaria img, int raioX, int raioY) {
+		return aplicar(img, raioX, raioY, false);
+	}
+
+	/**
+	 * Aplica a abertura (erosão seguida de dilatação) na imagem binária, 
+	 * removendo regiões menores que o elemento estruturante.
+	 * @param img imagem base, não é alterada.
+	 * @param raioX raio horizontal do elemento estruturante.
+	 * @param raioY raio vertical do elemento estruturante.
+	 * @return nova {@code ImagemBinaria}.
+	 */
+	public ImagemBinaria abrir(ImagemBinaria img, int raioX, int raioY) {
+		return dilatar(erodir(img, raioX, raioY), raioX, raioY);
+	}
+
+	/**
+	 * Aplica o fechamento (dilatação seguida de erosão) na imagem binária, 
+	 * preenchendo buracos menores que o elemento estruturante.
+	 * @param img imagem base, não é alterada.
+	 * @param raioX raio horizontal do elemento estruturante.
+	 * @param raioY raio vertical do elemento estruturante.
+	 * @return nova {@code ImagemBinaria}.
+	 */
+	public ImagemBinaria fechar(ImagemBinaria img, int raioX, int raioY) {
+		return erodir(dilatar(img, raioX, raioY), raioX, raioY);
+	}
+
+	/**
+	 * Aplica a erosão (mínimo da vizinhança) na imagem em escala de cinza.
+	 * @param cinza matriz no formato {@code [altura][largura]}, não é alterada.
+	 * @param raioX raio horizontal do elemento estruturante.
+	 * @param raioY raio vertical do elemento estruturante.
+	 * @return nova matriz erodida.
+	 */
+	public int[][] erodir(int[][] cinza, int raioX, int raioY) {
+		return aplicar(cinza, raioX, raioY, true);
+	}
+
+	/**
+	 * Aplica a dilatação (máximo da vizinhança) na imagem em escala de cinza.
+	 * @param cinza matriz no formato {@code [altura][largura]}, não é alterada.
+	 * @param raioX raio horizontal do elemento estruturante.
+	 * @param raioY raio vertical do elemento estruturante.
+	 * @return nova matriz dilatada.
+	 */
+	public int[][] dilatar(int[][] cinza, int raioX, int raioY) {
+		return aplicar(cinza, raioX, raioY, false);
+	}
+
+	/**
+	 * Aplica a abertura (erosão seguida de dilatação) na imagem em escala de cinza.
+	 * @param cinza matriz no formato {@code [altura][largura]}, não é alterada.
+	 * @param raioX raio horizontal do elemento estruturante.
+	 * @param raioY raio vertical do elemento estruturante.
+	 * @return nova matriz.
+	 */
+	public int[][] abrir(int[][] cinza, int raioX, int raioY) {
+		return dilatar(erodir(cinza, raioX, raioY), raioX, raioY);
+	}
+
+	/**
+	 * Aplica o fechamento (dilatação seguida de erosão) na imagem em escala de cinza.
+	 * @param cinza matriz no formato {@code [altura][largura]}, não é alterada.
+	 * @param raioX raio horizontal do elemento estruturante.
+	 * @param raioY raio vertical do elemento estruturante.
+	 * @return nova matriz.
+	 */
+	public int[][] fechar(int[][] cinza, int raioX, int raioY) {
+		return erodir(dilatar(cinza, raioX, raioY), raioX, raioY);
+	}
+
+	/**
+	 * Aplica a erosão ou dilatação binária.
+	 */
+	private ImagemBinaria aplicar(ImagemBinaria img, int raioX, int raioY, boolean erosao) {
+		if (img == null) {
+			throw new IllegalArgumentException("\nA imagem fornecida é nula.");
+		}
+		verificarRaios(raioX, raioY);
+
+		ImagemBinaria tmp = new ImagemBinaria(img.altura(), img.largura());
+		horizontal(img, tmp, raioX, erosao);
+
+		if (raioY == 0) return tmp;
+
+		ImagemBinaria res = new ImagemBinaria(img.altura(), img.largura());
+		vertical(tmp, res, raioY, erosao);
+		return res;
+	}
+
+	/**
+	 * Passada horizontal binária.
+	 * <p>
+	 *    Cada linha é copiada para um buffer deslocado de {@code raio} bits, com 
+	 *    as bordas preenchidas pelo valor neutro. A janela de tamanho {@code L} é 
+	 *    formada dobrando janelas de potências de 2 ({@code J(2m) = J(m) op J(m) 
+	 *    deslocada de m}), completada por uma última combinação sobreposta.
+	 * </p>
+	 */
+	private void horizontal(ImagemBinaria src, ImagemBinaria dst, int raio, boolean erosao) {
+		if (raio == 0) {
+			System.arraycopy(src.dados, 0, dst.dados, 0, src.dados.length);
+			return;
+		}
+
+		int largura = src.largura();
+		int palavras = src.palavras;
+		int tam = 2 * raio + 1;
+		int n = (largura + 2 * raio + 63) >>> 6;
+		long neutro = erosao ? -1L : 0L;
+		long excedente = (largura & 63) == 0 ? 0L : -1L << (largura & 63);
+
+		IntStream.range(0, src.altura()).parallel().forEach(y -> {
+			long[] a = new long[n];
+			long[] b = new long[n];
+			int ini = y * palavras;
+
+			System.arraycopy(src.dados, ini, a, 0, palavras);
+			if (erosao) {
+				a[palavras - 1] |= excedente;
+				for (int i = palavras; i < n; i++) a[i] = -1L;
+			}
+
+			// b(x) = linha(x - raio)
+			deslocar(a, b, n, -raio, neutro);
+
+			int m = 1;
+			while (2 * m <= tam) {
+				deslocar(b, a, n, m, neutro);
+				combinar(b, a, n, erosao);
+				m *= 2;
+			}
+			if (m < tam) {
+				deslocar(b, a, n, tam - m, neutro);
+				combinar(b, a, n, erosao);
+			}
+
+			System.arraycopy(b, 0, dst.dados, ini, palavras);
+			dst.dados[ini + palavras - 1] &= ~excedente;
+		});
+	}
+
+	/**
+	 * Passada vertical binária usando van Herk/Gil-Werman sobre palavras inteiras.
+	 */
+	private void vertical(ImagemBinaria src, ImagemBinaria dst, int raio, boolean erosao) {
+		int altura = src.altura();
+		int palavras = src.palavras;
+		int tam = 2 * raio + 1;
+		int ext = altura + 2 * raio;
+		long neutro = erosao ? -1L : 0L;
+		int tarefas = (palavras + PALAVRAS_POR_TAREFA - 1) / PALAVRAS_POR_TAREFA;
+
+		IntStream.range(0, tarefas).parallel().forEach(t -> {
+			int c0 = t * PALAVRAS_POR_TAREFA;
+			int cw = Math.min(PALAVRAS_POR_TAREFA, palavras - c0);
+
+			// prefixos dentro de cada bloco de tamanho tam
+			long[] g = new long[ext * cw];
+			for (int j = 0; j < ext; j++) {
+				int y = j - raio;
+				boolean dentro = y >= 0 && y < altura;
+				int o = j * cw;
+				for (int c = 0; c < cw; c++) {
+					long e = dentro ? src.dados[y * palavras + c0 + c] : neutro;
+					if (j % tam != 0) e = erosao ? (e & g[o - cw + c]) : (e | g[o - cw + c]);
+					g[o + c] = e;
+				}
+			}
+
+			// sufixos calculados de trás para frente e combinados com os prefixos
+			long[] h = new long[cw];
+			for (int j = ext - 1; j >= 0; j--) {
+				int y = j - raio;
+				boolean dentro = y >= 0 && y < altura;
+				boolean fimBloco = j % tam == tam - 1 || j == ext - 1;
+				for (int c = 0; c < cw; c++) {
+					long e = dentro ? src.dados[y * palavras + c0 + c] : neutro;
+					h[c] = fimBloco ? e : (erosao ? (e & h[c]) : (e | h[c]));
+				}
+
+				if (j < altura) {
+					int o = (j + tam - 1) * cw;
+					int d = j * palavras + c0;
+					for (int c = 0; c < cw; c++) {
+						dst.dados[d + c] = erosao ? (h[c] & g[o + c]) : (h[c] | g[o + c]);
+					}
+				}
+			}
+		});
+
+		dst.limparExcedentes();
+	}
+
+	/**
+	 * Desloca os bits de {@code src} para {@code dst}, de forma que 
+	 * {@code dst(x) = src(x + s)}. Bits vindos de fora do array recebem o 
+	 * valor de {@code neutro}.
+	 */
+	private static void deslocar(long[] src, long[] dst, int n, int s, long neutro) {
+		if (s >= 0) {
+			int q = s >>> 6, b = s & 63;
+			for (int i = 0; i < n; i++) {
+				long lo = i + q < n ? src[i + q] : neutro;
+				if (b == 0) {
+					dst[i] = lo;
+				} else {
+					long hi = i + q + 1 < n ? src[i + q + 1] : neutro;
+					dst[i] = (lo >>> b) | (hi << (64 - b));
+				}
+			}
+		} else {
+			int q = (-s) >>> 6, b = (-s) & 63;
+			for (int i = 0; i < n; i++) {
+				long hi = i - q >= 0 ? src[i - q] : neutro;
+				if (b == 0) {
+					dst[i] = hi;
+				} else {
+					long lo = i - q - 1 >= 0 ? src[i - q - 1] : neutro;
+					dst[i] = (hi << b) | (lo >>> (64 - b));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Combina {@code b} com {@code a}, guardando o resultado em {@code b}.
+	 */
+	private static void combinar(long[] b, long[] a, int n, boolean erosao) {
+		if (erosao) {
+			for (int i = 0; i < n; i++) b[i] &= a[i];
+		} else {
+			for (int i = 0; i < n; i++) b[i] |= a[i];
+		}
+	}
+
+	/**
+	 * Aplica a erosão ou dilatação em escala de cinza.
+	 */
+	private int[][] aplicar(int[][] cinza, int raioX, int raioY, boolean erosao) {
+		if (cinza == null || cinza.length == 0 || cinza[0].length == 0) {
+			throw new IllegalArgumentException("\nA matriz fornecida é nula ou vazia.");
+		}
+		verificarRaios(raioX, raioY);
+
+		int altura = cinza.length;
+		int largura = cinza[0].length;
+		for (int[] linha : cinza) {
+			if (linha.length != largura) {
+				throw new IllegalArgumentException(
+					"\nTodas as linhas da matriz devem ter o mesmo tamanho."
+				);
+			}
+		}
+
+		int[][] tmp = new int[altura][largura];
+		int neutro = erosao ? Integer.MAX_VALUE : Integer.MIN_VALUE;
+		int tamX = 2 * raioX + 1;
+		int extX = largura + 2 * raioX;
+
+		IntStream.range(0, altura).parallel().forEach(y -> {
+			int[] src = cinza[y];
+			int[] dst = tmp[y];
+			if (raioX == 0) {
+				System.arraycopy(src, 0, dst, 0, largura);
+				return;
+			}
+
+			// linha estendida com o valor neutro nas bordas
+			int[] e = new int[extX];
+			Arrays.fill(e, neutro);
+			System.arraycopy(src, 0, e, raioX, largura);
+
+			int[] g = new int[extX];
+			for (int b = 0; b < extX; b += tamX) {
+				int fim = Math.min(extX, b + tamX);
+				int v = e[b];
+				g[b] = v;
+				for (int j = b + 1; j < fim; j++) {
+					v = erosao ? Math.min(v, e[j]) : Math.max(v, e[j]);
+					g[j] = v;
+				}
+			}
+
+			// sufixos de cada bloco combinados com os prefixos
+			for (int b = (extX - 1) / tamX * tamX; b >= 0; b -= tamX) {
+				int j = Math.min(extX, b + tamX) - 1;
+				int h = e[j];
+				for (; j >= b; j--) {
+					h = erosao ? Math.min(h, e[j]) : Math.max(h, e[j]);
+					if (j < largura) {
+						int gv = g[j + tamX - 1];
+						dst[j] = erosao ? Math.min(h, gv) : Math.max(h, gv);
+					}
+				}
+			}
+		});
+
+		if (raioY == 0) return tmp;
+
+		int[][] res = new int[altura][largura];
+		int tamY = 2 * raioY + 1;
+		int extY = altura + 2 * raioY;
+		int tarefas = (largura + COLUNAS_POR_TAREFA - 1) / COLUNAS_POR_TAREFA;
+
+		IntStream.range(0, tarefas).parallel().forEach(t -> {
+			int c0 = t * COLUNAS_POR_TAREFA;
+			int cw = Math.min(COLUNAS_POR_TAREFA, largura - c0);
+
+			int[] g = new int[extY * cw];
+			for (int j = 0; j < extY; j++) {
+				int y = j - raioY;
+				int[] linha = y >= 0 && y < altura ? tmp[y] : null;
+				int o = j * cw;
+				for (int c = 0; c < cw; c++) {
+					int e = linha != null ? linha[c0 + c] : neutro;
+					if (j % tamY != 0) e = erosao ? Math.min(e, g[o - cw + c]) : Math.max(e, g[o - cw + c]);
+					g[o + c] = e;
+				}
+			}
+
+			int[] h = new int[cw];
+			for (int j = extY - 1; j >= 0; j--) {
+				int y = j - raioY;
+				int[] linha = y >= 0 && y < altura ? tmp[y] : null;
+				boolean fimBloco = j % tamY == tamY - 1 || j == extY - 1;
+				for (int c = 0; c < cw; c++) {
+					int e = linha != null ? linha[c0 + c] : neutro;
+					h[c] = fimBloco ? e : (erosao ? Math.min(e, h[c]) : Math.max(e, h[c]));
+				}
+
+				if (j < altura) {
+					int o = (j + tamY - 1) * cw;
+					int[] dst = res[j];
+					for (int c = 0; c < cw; c++) {
+						dst[c0 + c] = erosao ? Math.min(h[c], g[o + c]) : Math.max(h[c], g[o + c]);
+					}
+				}
+			}
+		});
+
+		return res;
+	}
+
+	/**
+	 * Verifica os raios do elemento estruturante.
+	 */
+	private static void verificarRaios(int raioX, int raioY) {
+		if (raioX < 0 || raioY < 0) {
+			throw new IllegalArgumentException(
+				"\nOs raios do elemento estruturante devem ser maiores ou iguais a zero, " + 
+				"recebido: " + raioX + " e " + raioY
+			);
+		}
+	}
+
+}
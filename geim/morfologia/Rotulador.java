@@ -0,0 +1,213 @@
+package geim.morfologia;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Rotulação de componentes conectados em imagens binárias.
+ * <p>
+ *    Usa o algoritmo de duas passadas com união-busca sobre sequências 
+ *    horizontais de pixels ligados: a primeira passada extrai as sequências 
+ *    de cada linha (em paralelo, a partir das palavras da {@code ImagemBinaria}) 
+ *    e une as que se tocam em linhas vizinhas; a segunda resolve as classes de 
+ *    equivalência, atribui os rótulos finais e acumula as estatísticas de cada 
+ *    região.
+ * </p>
+ */
+public class Rotulador {
+
+	/**
+	 * Quantidade de linhas processadas por tarefa na extração de sequências.
+	 */
+	private static final int LINHAS_POR_TAREFA = 64;
+
+	/**
+	 * Contém implementações de rotulação de componentes conectados.
+	 */
+	public Rotulador() {}
+
+	/**
+	 * Rotula os componentes conectados da imagem binária.
+	 * @param img imagem base.
+	 * @param conectividade {@code 4} para considerar apenas vizinhos horizontais 
+	 * e verticais, ou {@code 8} para incluir também os diagonais.
+	 * @return {@code Componentes} encontrados.
+	 */
+	public Componentes rotular(ImagemBinaria img, int conectividade) {
+		if (img == null) {
+			throw new IllegalArgumentException("\nA imagem fornecida é nula.");
+		}
+		if (conectividade != 4 && conectividade != 8) {
+			throw new IllegalArgumentException(
+				"\nConectividade deve ser 4 ou 8, recebido: " + conectividade
+			);
+		}
+
+		int altura = img.altura();
+		int largura = img.largura();
+		int tarefas = (altura + LINHAS_POR_TAREFA - 1) / LINHAS_POR_TAREFA;
+
+		// extração das sequências por faixa de linhas
+		int[][] inicios = new int[tarefas][];
+		int[][] fins = new int[tarefas][];
+		int[] inicioLinha = new int[altura + 1];
+
+		IntStream.range(0, tarefas).parallel().forEach(t -> {
+			int y0 = t * LINHAS_POR_TAREFA;
+			int y1 = Math.min(altura, y0 + LINHAS_POR_TAREFA);
+			int[] ini = new int[64];
+			int[] fim = new int[64];
+			int n = 0;
+
+			for (int y = y0; y < y1; y++) {
+				int base = y * img.palavras;
+				int x = proximo(img.dados, base, img.palavras, largura, 0, true);
+				while (x < largura) {
+					int e = proximo(img.dados, base, img.palavras, largura, x, false);
+					if (n == ini.length) {
+						ini = Arrays.copyOf(ini, n * 2);
+						fim = Arrays.copyOf(fim, n * 2);
+					}
+					ini[n] = x;
+					fim[n] = e - 1;
+					n++;
+					x = e < largura ? proximo(img.dados, base, img.palavras, largura, e, true) : largura;
+				}
+				inicioLinha[y + 1] = n;
+			}
+
+			inicios[t] = Arrays.copyOf(ini, n);
+			fins[t] = Arrays.copyOf(fim, n);
+		});
+
+		// inicioLinha[y + 1] guarda o fim local de cada linha, convertido em índices globais
+		int total = 0;
+		for (int t = 0; t < tarefas; t++) {
+			int y0 = t * LINHAS_POR_TAREFA;
+			int y1 = Math.min(altura, y0 + LINHAS_POR_TAREFA);
+			for (int y = y0; y < y1; y++) {
+				inicioLinha[y + 1] += total;
+			}
+			total += inicios[t].length;
+		}
+
+		int[] inicio = new int[total];
+		int[] fim = new int[total];
+		for (int t = 0, o = 0; t < tarefas; t++) {
+			System.arraycopy(inicios[t], 0, inicio, o, inicios[t].length);
+			System.arraycopy(fins[t], 0, fim, o, fins[t].length);
+			o += inicios[t].length;
+		}
+
+		// primeira passada: une sequências que se tocam em linhas vizinhas
+		int[] pai = new int[total];
+		for (int i = 0; i < total; i++) pai[i] = i;
+		int d = conectividade == 8 ? 1 : 0;
+
+		for (int y = 1; y < altura; y++) {
+			int i = inicioLinha[y - 1], iFim = inicioLinha[y];
+			int j = inicioLinha[y], jFim = inicioLinha[y + 1];
+			while (i < iFim && j < jFim) {
+				if (inicio[i] <= fim[j] + d && fim[i] + d >= inicio[j]) {
+					unir(pai, i, j);
+				}
+				if (fim[i] < fim[j]) i++;
+				else j++;
+			}
+		}
+
+		// segunda passada: rótulos finais e estatísticas
+		int[] rotulo = new int[total];
+		int n = 0;
+		long[] area = new long[16];
+		long[] somaX = new long[16];
+		long[] somaY = new long[16];
+		int[] minX = new int[16], minY = new int[16], maxX = new int[16], maxY = new int[16];
+
+		for (int y = 0; y < altura; y++) {
+			for (int i = inicioLinha[y]; i < inicioLinha[y + 1]; i++) {
+				int raiz = buscar(pai, i);
+				int r;
+				if (raiz == i) {
+					r = n++;
+					if (r == area.length) {
+						int cap = r * 2;
+						area = Arrays.copyOf(area, cap);
+						somaX = Arrays.copyOf(somaX, cap);
+						somaY = Arrays.copyOf(somaY, cap);
+						minX = Arrays.copyOf(minX, cap);
+						minY = Arrays.copyOf(minY, cap);
+						maxX = Arrays.copyOf(maxX, cap);
+						maxY = Arrays.copyOf(maxY, cap);
+					}
+					minX[r] = inicio[i];
+					maxX[r] = fim[i];
+					minY[r] = y;
+				} else {
+					// a raiz sempre tem índice menor, então já foi rotulada
+					r = rotulo[raiz] - 1;
+				}
+
+				rotulo[i] = r + 1;
+				long len = fim[i] - inicio[i] + 1;
+				area[r] += len;
+				somaX[r] += (long) (inicio[i] + fim[i]) * len / 2;
+				somaY[r] += y * len;
+				if (inicio[i] < minX[r]) minX[r] = inicio[i];
+				if (fim[i] > maxX[r]) maxX[r] = fim[i];
+				maxY[r] = y;
+			}
+		}
+
+		List<Componentes.Regiao> regioes = new ArrayList<>(n);
+		for (int r = 0; r < n; r++) {
+			regioes.add(new Componentes.Regiao(
+				r + 1, area[r],
+				minX[r], minY[r], maxX[r] - minX[r] + 1, maxY[r] - minY[r] + 1,
+				(double) somaX[r] / area[r], (double) somaY[r] / area[r]
+			));
+		}
+
+		return new Componentes(altura, largura, inicioLinha, inicio, fim, rotulo, regioes);
+	}
+
+	/**
+	 * Busca a raiz do conjunto, com compressão de caminho por divisão.
+	 */
+	private static int buscar(int[] pai, int i) {
+		while (pai[i] != i) {
+			pai[i] = pai[pai[i]];
+			i = pai[i];
+		}
+		return i;
+	}
+
+	/**
+	 * Une os conjuntos de {@code a} e {@code b}, mantendo como raiz o menor índice.
+	 */
+	private static void unir(int[] pai, int a, int b) {
+		int ra = buscar(pai, a);
+		int rb = buscar(pai, b);
+		if (ra < rb) pai[rb] = ra;
+		else if (rb < ra) pai[ra] = rb;
+	}
+
+	/**
+	 * Encontra a próxima coluna, a partir de {@code x}, com o bit igual a 
+	 * {@code ligado}, ou {@code largura} caso não exista.
+	 */
+	private static int proximo(long[] dados, int base, int palavras, int largura, int x, boolean ligado) {
+		int w = x >>> 6;
+		long p = (ligado ? dados[base + w] : ~dados[base + w]) & (-1L << x);
+
+		while (p == 0) {
+			if (++w == palavras) return largura;
+			p = ligado ? dados[base + w] : ~dados[base + w];
+		}
+
+		return Math.min(largura, (w << 6) + Long.numberOfTrailingZeros(p));
+	}
+
+}
@@ -0,0 +1,119 @@
+package geim.quantizacao;
+
+import java.util.stream.IntStream;
+
+import geim.imagem.Imagem;
+
+/**
+ * Histograma de cores com 5 bits por canal.
+ * <p>
+ *    Além da quantidade de pixels, cada célula guarda a soma dos canais dos 
+ *    pixels, permitindo calcular a cor média exata da célula. Apenas as células 
+ *    ocupadas são mantidas.
+ * </p>
+ */
+final class Histograma {
+
+	/**
+	 * Quantidade de células ocupadas.
+	 */
+	final int n;
+
+	/**
+	 * Índice {@code 0bRRRRRGGGGGBBBBB} de cada célula ocupada.
+	 */
+	final int[] celula;
+
+	/**
+	 * Quantidade de pixels de cada célula.
+	 */
+	final long[] contagem;
+
+	/**
+	 * Cor média de cada célula.
+	 */
+	final int[] r, g, b;
+
+	/**
+	 * Soma dos canais de cada célula.
+	 */
+	final long[] somaR, somaG, somaB;
+
+	private Histograma(int n) {
+		this.n = n;
+		celula = new int[n];
+		contagem = new long[n];
+		r = new int[n];
+		g = new int[n];
+		b = new int[n];
+		somaR = new long[n];
+		somaG = new long[n];
+		somaB = new long[n];
+	}
+
+	/**
+	 * Calcula o histograma da imagem.
+	 * @param img {@code Imagem} base.
+	 * @return histograma calculado.
+	 */
+	static Histograma de(Imagem img) {
+		int altura = img.altura();
+		int largura = img.largura();
+		int faixas = Math.min(altura, Runtime.getRuntime().availableProcessors());
+		int tam = 1 << 15;
+
+		long[][] parciais = new long[faixas][];
+
+		IntStream.range(0, faixas).parallel().forEach(f -> {
+			int y0 = (int) ((long) altura * f / faixas);
+			int y1 = (int) ((long) altura * (f + 1) / faixas);
+
+			// contagem, somaR, somaG e somaB intercaladas
+			long[] h = new long[tam * 4];
+			int[] linha = new int[largura];
+			for (int y = y0; y < y1; y++) {
+				img.getLinha(y, linha, 0);
+				for (int x = 0; x < largura; x++) {
+					int rgb = linha[x];
+					int pr = (rgb >> 16) & 0xFF, pg = (rgb >> 8) & 0xFF, pb = rgb & 0xFF;
+					int c = ((pr >> 3) << 12) | ((pg >> 3) << 7) | ((pb >> 3) << 2);
+					h[c]++;
+					h[c + 1] += pr;
+					h[c + 2] += pg;
+					h[c + 3] += pb;
+				}
+			}
+			parciais[f] = h;
+		});
+
+		long[] h = parciais[0];
+		for (int f = 1; f < faixas; f++) {
+			long[] p = parciais[f];
+			for (int i = 0; i < h.length; i++) h[i] += p[i];
+		}
+
+		int n = 0;
+		for (int c = 0; c < tam; c++) {
+			if (h[c << 2] != 0) n++;
+		}
+
+		Histograma hist = new Histograma(n);
+		for (int c = 0, i = 0; c < tam; c++) {
+			long cont = h[c << 2];
+			if (cont == 0) continue;
+
+			hist.celula[i] = c;
+			hist.contagem[i] = cont;
+			hist.somaR[i] = h[(c << 2) + 1];
+			hist.somaG[i] = h[(c << 2) + 2];
+			hist.somaB[i] = h[(c << 2) + 3];
+			hist.r[i] = (int) ((hist.somaR[i] + cont / 2) / cont);
+			hist.g[i] = (int) ((hist.somaG[i] + cont / 2) / cont);
+			hist.b[i] = (int) ((hist.somaB[i] + cont / 2) / cont);
+			i++;
+		}
+
+		return hist;
+	}
+
+}
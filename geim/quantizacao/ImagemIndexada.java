@@ -0,0 +1,264 @@
+package geim.quantizacao;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.IndexColorModel;
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+import javax.imageio.ImageIO;
+
+import geim.imagem.Imagem;
+import geim.metricas.Metricas;
+import geim.metricas.Operacao;
+
+/**
+ * Imagem representada por índices de uma {@code Paleta}, com um byte por pixel.
+ * <p>
+ *    Ao exportar em {@code png} a profundidade de bits é a menor que comporta 
+ *    a paleta (1, 2, 4 ou 8 bits), gerando arquivos com cor indexada.
+ * </p>
+ */
+public final class ImagemIndexada {
+
+	/**
+	 * Tamanho do buffer usado na escrita de arquivos.
+	 */
+	private static final int TAM_BUFFER_ARQUIVO = 1 << 16;
+
+	/**
+	 * Altura da imagem.
+	 */
+	private final int altura;
+
+	/**
+	 * Largura da imagem.
+	 */
+	private final int largura;
+
+	/**
+	 * Índices dos pixels, linha a linha.
+	 */
+	private final byte[] indices;
+
+	/**
+	 * Paleta de cores.
+	 */
+	private final Paleta paleta;
+
+	/**
+	 * Inicializa uma imagem indexada.
+	 * @param altura altura da imagem.
+	 * @param largura largura da imagem.
+	 * @param indices índices dos pixels (não copiados).
+	 * @param paleta paleta de cores.
+	 */
+	ImagemIndexada(int altura, int largura, byte[] indices, Paleta paleta) {
+		this.altura = altura;
+		this.largura = largura;
+		this.indices = indices;
+		this.paleta = paleta;
+	}
+
+	/**
+	 * Retorna a altura da imagem.
+	 * @return altura da imagem.
+	 */
+	public int altura() {
+		return altura;
+	}
+
+	/**
+	 * Retorna a largura da imagem.
+	 * @return largura da imagem.
+	 */
+	public int largura() {
+		return largura;
+	}
+
+	/**
+	 * Retorna a paleta da imagem.
+	 * @return {@code Paleta} da imagem.
+	 */
+	public Paleta paleta() {
+		return paleta;
+	}
+
+	/**
+	 * Retorna o índice da paleta usado no pixel.
+	 * @param x coordenada x.
+	 * @param y coordenada y.
+	 * @return índice na paleta.
+	 */
+	public int indice(int x, int y) {
+		if (x < 0 || x >= largura || y < 0 || y >= altura) {
+			throw new IllegalArgumentException(
+				"\nCoordenadas (" + x + ", " + y + ") fora da imagem " + largura + "x" + altura + "."
+			);
+		}
+
+		return indices[y * largura + x] & 0xFF;
+	}
+
+	/**
+	 * Converte para uma {@code Imagem} RGB.
+	 * @return nova {@code Imagem}.
+	 */
+	public Imagem paraImagem() {
+		Imagem img = new Imagem(altura, largura);
+		int[] cores = paleta.coresInternas();
+		int[] linha = new int[largura];
+
+		for (int y = 0; y < altura; y++) {
+			int base = y * largura;
+			for (int x = 0; x < largura; x++) {
+				linha[x] = cores[indices[base + x] & 0xFF];
+			}
+			img.setLinha(y, linha, 0);
+		}
+
+		return img;
+	}
+
+	/**
+	 * Retorna quantos bits por pixel a paleta exige.
+	 * @return 1, 2, 4 ou 8.
+	 */
+	public int bitsPorPixel() {
+		int n = paleta.tamanho();
+		if (n <= 2) return 1;
+		if (n <= 4) return 2;
+		if (n <= 16) return 4;
+		return 8;
+	}
+
+	/**
+	 * Converte para uma {@code BufferedImage} com cor indexada.
+	 * <p>
+	 *    Paletas de até 16 cores usam {@code TYPE_BYTE_BINARY} com 1, 2 ou 4 bits 
+	 *    por pixel, as demais {@code TYPE_BYTE_INDEXED}.
+	 * </p>
+	 * @return {@code BufferedImage} convertida.
+	 */
+	public BufferedImage paraBufferedImage() {
+		int bits = bitsPorPixel();
+		int n = paleta.tamanho();
+		int[] cores = paleta.coresInternas();
+
+		byte[] r = new byte[n], g = new byte[n], b = new byte[n];
+		for (int i = 0; i < n; i++) {
+			r[i] = (byte) (cores[i] >> 16);
+			g[i] = (byte) (cores[i] >> 8);
+			b[i] = (byte) cores[i];
+		}
+
+		IndexColorModel modelo = new IndexColorModel(bits, n, r, g, b);
+		int tipo = bits == 8 ? BufferedImage.TYPE_BYTE_INDEXED : BufferedImage.TYPE_BYTE_BINARY;
+		BufferedImage bi = new BufferedImage(largura, altura, tipo, modelo);
+		byte[] dados = ((DataBufferByte) bi.getRaster().getDataBuffer()).getData();
+
+		if (bits == 8) {
+			System.arraycopy(indices, 0, dados, 0, indices.length);
+			return bi;
+		}
+
+		// empacota os índices com o pixel mais à esquerda nos bits mais altos
+		int porByte = 8 / bits;
+		int bytesLinha = (largura + porByte - 1) / porByte;
+		for (int y = 0; y < altura; y++) {
+			int base = y * largura;
+			int dest = y * bytesLinha;
+			for (int x = 0; x < largura; x++) {
+				int desloc = 8 - bits * (1 + x % porByte);
+				dados[dest + x / porByte] |= (byte) (indices[base + x] << desloc);
+			}
+		}
+
+		return bi;
+	}
+
+	/**
+	 * Grava a imagem em {@code png} com cor indexada em um fluxo de saída.
+	 * <p>
+	 *    O fluxo não é fechado ao final.
+	 * </p>
+	 * @param saida fluxo de destino.
+	 * @return quantidade de bytes escritos.
+	 */
+	public long paraPNG(OutputStream saida) {
+		if (saida == null) {
+			throw new IllegalArgumentException("\nO fluxo de saída é nulo.");
+		}
+
+		long t = Metricas.iniciar();
+		BufferedImage bi = paraBufferedImage();
+		Contador contador = new Contador(saida);
+
+		try {
+			if (!ImageIO.write(bi, "png", contador)) {
+				throw new IllegalStateException("\nNenhum escritor png disponível.");
+			}
+			contador.flush();
+		} catch (IOException e) {
+			Metricas.registrarErro(Operacao.EXPORTACAO, e);
+			throw new UncheckedIOException("\nErro ao codificar imagem indexada em png.", e);
+		}
+
+		Metricas.registrar(Operacao.EXPORTACAO, t, contador.total, (long) largura * altura, indices.length);
+
+		return contador.total;
+	}
+
+	/**
+	 * Grava a imagem em {@code png} com cor indexada em um arquivo.
+	 * @param caminho caminho do arquivo de destino, com extensão {@code .png}.
+	 * @return quantidade de bytes escritos.
+	 */
+	public long paraPNG(String caminho) {
+		if (caminho == null) {
+			throw new IllegalArgumentException("\nO caminho fornecido é nulo.");
+		}
+		if (!caminho.toLowerCase().endsWith(".png")) {
+			throw new IllegalArgumentException(
+				"\nO caminho deve ter a extensão .png, recebido: \"" + caminho + "\"."
+			);
+		}
+
+		try (OutputStream saida = new BufferedOutputStream(new FileOutputStream(caminho), TAM_BUFFER_ARQUIVO)) {
+			return paraPNG(saida);
+		} catch (IOException e) {
+			Metricas.registrarErro(Operacao.EXPORTACAO, e);
+			throw new UncheckedIOException("\nErro ao exportar imagem \"" + caminho + "\".", e);
+		}
+	}
+
+	/**
+	 * Fluxo que conta os bytes escritos.
+	 */
+	private static class Contador extends FilterOutputStream {
+
+		long total = 0;
+
+		Contador(OutputStream saida) {
+			super(saida);
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			out.write(b);
+			total++;
+		}
+
+		@Override
+		public void write(byte[] b, int ini, int tam) throws IOException {
+			out.write(b, ini, tam);
+			total += tam;
+		}
+
+	}
+
+}
@@ -0,0 +1,26 @@
+package geim.quantizacao;
+
+/**
+ * Algoritmos usados para gerar a paleta de uma imagem.
+ */
+public enum MetodoQuantizacao {
+
+	/**
+	 * Divide recursivamente o cubo de cores no canal de maior extensão, pela 
+	 * mediana ponderada da quantidade de pixels.
+	 */
+	CORTE_MEDIANO,
+
+	/**
+	 * Agrupa as cores em uma árvore de oito ramos por nível, unindo os nós com 
+	 * menos pixels até restarem as cores desejadas.
+	 */
+	OCTREE,
+
+	/**
+	 * Refina a paleta do corte mediano com iterações de k-médias, gerando a 
+	 * paleta de menor erro ao custo de mais processamento.
+	 */
+	K_MEDIAS
+
+}
@@ -0,0 +1,272 @@
+package geim.quantizacao;
+
+import java.util.Arrays;
+
+/**
+ * Paleta de até 256 cores com busca rápida da cor mais próxima.
+ * <p>
+ *    A busca usa um mapa de cores inverso: o cubo RGB é dividido em 
+ *    {@code 32x32x32} células e, para cada célula, são pré-calculadas apenas as 
+ *    cores da paleta que podem ser a mais próxima de algum ponto da célula. 
+ *    Cores superadas por outra em toda a célula são descartadas, e uma tabela 
+ *    direta de {@code 64x64x64} subcélulas resolve sem comparações os pontos 
+ *    com uma única candidata. A busca é exata.
+ * </p>
+ * <p>
+ *    Instâncias são imutáveis e podem ser compartilhadas entre threads.
+ * </p>
+ */
+public final class Paleta {
+
+	/**
+	 * Bits por canal usados no índice das células.
+	 */
+	private static final int BITS = 5;
+
+	/**
+	 * Quantidade de células do mapa inverso.
+	 */
+	private static final int CELULAS = 1 << (3 * BITS);
+
+	/**
+	 * Bits por canal usados na tabela direta.
+	 */
+	private static final int BITS_DIRETO = 6;
+
+	/**
+	 * Marcador da tabela direta para subcélulas com mais de um candidato.
+	 */
+	private static final byte VARIOS = (byte) 0xFF;
+
+	/**
+	 * Meia diagonal de uma célula, usada para limitar os candidatos.
+	 */
+	private static final double MEIA_DIAGONAL = Math.sqrt(3) * ((1 << (8 - BITS)) - 1) / 2.0;
+
+	/**
+	 * Cores no formato {@code 0xRRGGBB}.
+	 */
+	private final int[] cores;
+
+	/**
+	 * Início dos candidatos de cada célula em {@code candidatos}, com 
+	 * {@code CELULAS + 1} valores.
+	 */
+	private final int[] inicio;
+
+	/**
+	 * Índices das cores candidatas de todas as células.
+	 */
+	private final byte[] candidatos;
+
+	/**
+	 * Cor mais próxima de cada subcélula de {@code 4x4x4} valores, ou 
+	 * {@code VARIOS} quando a busca precisa percorrer os candidatos da célula.
+	 */
+	private final byte[] direto;
+
+	/**
+	 * Cria uma paleta a partir das cores fornecidas.
+	 * @param cores cores no formato {@code 0xRRGGBB}, entre 1 e 256 cores.
+	 */
+	public Paleta(int[] cores) {
+		if (cores == null || cores.length < 1 || cores.length > 256) {
+			throw new IllegalArgumentException(
+				"\nA paleta deve conter entre 1 e 256 cores."
+			);
+		}
+
+		this.cores = new int[cores.length];
+		for (int i = 0; i < cores.length; i++) {
+			this.cores[i] = cores[i] & 0xFFFFFF;
+		}
+
+		// mapa inverso
+		int n = this.cores.length;
+		int[] pr = new int[n], pg = new int[n], pb = new int[n];
+		for (int i = 0; i < n; i++) {
+			pr[i] = (this.cores[i] >> 16) & 0xFF;
+			pg[i] = (this.cores[i] >> 8) & 0xFF;
+			pb[i] = this.cores[i] & 0xFF;
+		}
+
+		inicio = new int[CELULAS + 1];
+		byte[] cand = new byte[CELULAS * 2];
+		int total = 0;
+		double[] dist = new double[n];
+		int lado = 1 << (8 - BITS);
+		double meio = (lado - 1) / 2.0;
+
+		for (int c = 0; c < CELULAS; c++) {
+			int r0 = (c >> (2 * BITS)) << (8 - BITS);
+			int g0 = ((c >> BITS) & ((1 << BITS) - 1)) << (8 - BITS);
+			int b0 = (c & ((1 << BITS) - 1)) << (8 - BITS);
+			double cr = r0 + meio, cg = g0 + meio, cb = b0 + meio;
+
+			double min = Double.MAX_VALUE;
+			int perto = 0;
+			for (int i = 0; i < n; i++) {
+				double dr = pr[i] - cr, dg = pg[i] - cg, db = pb[i] - cb;
+				double d = dr*dr + dg*dg + db*db;
+				dist[i] = d;
+				if (d < min) {
+					min = d;
+					perto = i;
+				}
+			}
+
+			// qualquer cor mais próxima de um ponto da célula está a até 2 meias diagonais
+			double lim = Math.sqrt(min) + 2 * MEIA_DIAGONAL;
+			double lim2 = lim * lim;
+
+			// e que a cor mais próxima do centro não supera em toda a célula
+			inicio[c] = total;
+			for (int i = 0; i < n; i++) {
+				if (dist[i] <= lim2 && (i == perto || !domina(perto, i, r0, g0, b0, lado - 1, pr, pg, pb))) {
+					if (total == cand.length) cand = Arrays.copyOf(cand, cand.length * 2);
+					cand[total++] = (byte) i;
+				}
+			}
+		}
+		inicio[CELULAS] = total;
+		candidatos = Arrays.copyOf(cand, total);
+		direto = tabelaDireta(pr, pg, pb);
+	}
+
+	/**
+	 * Resolve as subcélulas em que uma única cor, dentre os candidatos da célula, 
+	 * é a mais próxima de todos os pontos.
+	 */
+	private byte[] tabelaDireta(int[] pr, int[] pg, int[] pb) {
+		int sub = BITS_DIRETO - BITS;
+		int mascara = (1 << BITS_DIRETO) - 1;
+		int lado = 1 << (8 - BITS_DIRETO);
+		double meio = (lado - 1) / 2.0;
+		byte[] tabela = new byte[1 << (3 * BITS_DIRETO)];
+
+		for (int f = 0; f < tabela.length; f++) {
+			int fr = f >> (2 * BITS_DIRETO), fg = (f >> BITS_DIRETO) & mascara, fb = f & mascara;
+			int c = ((fr >> sub) << (2 * BITS)) | ((fg >> sub) << BITS) | (fb >> sub);
+			int ini = inicio[c], fim = inicio[c + 1];
+			if (fim - ini == 1) {
+				tabela[f] = candidatos[ini];
+				continue;
+			}
+
+			int r0 = fr << (8 - BITS_DIRETO), g0 = fg << (8 - BITS_DIRETO), b0 = fb << (8 - BITS_DIRETO);
+			double cr = r0 + meio, cg = g0 + meio, cb = b0 + meio;
+			int perto = 0;
+			double min = Double.MAX_VALUE;
+			for (int i = ini; i < fim; i++) {
+				int k = candidatos[i] & 0xFF;
+				double dr = pr[k] - cr, dg = pg[k] - cg, db = pb[k] - cb;
+				double d = dr*dr + dg*dg + db*db;
+				if (d < min) {
+					min = d;
+					perto = k;
+				}
+			}
+
+			boolean unico = true;
+			for (int i = ini; i < fim && unico; i++) {
+				int k = candidatos[i] & 0xFF;
+				unico = k == perto || domina(perto, k, r0, g0, b0, lado - 1, pr, pg, pb);
+			}
+			tabela[f] = unico ? (byte) perto : VARIOS;
+		}
+
+		return tabela;
+	}
+
+	/**
+	 * Verifica se a cor {@code j} é estritamente mais próxima que a cor {@code k} 
+	 * em todos os pontos da célula com origem {@code (r0, g0, b0)}.
+	 * <p>
+	 *    A diferença entre as distâncias ao quadrado é linear no ponto, então basta 
+	 *    avaliá-la no canto da célula que a minimiza.
+	 * </p>
+	 */
+	private static boolean domina(int j, int k, int r0, int g0, int b0, int ext, int[] pr, int[] pg, int[] pb) {
+		int dr = pr[j] - pr[k], dg = pg[j] - pg[k], db = pb[j] - pb[k];
+		int f = pr[k]*pr[k] + pg[k]*pg[k] + pb[k]*pb[k] - pr[j]*pr[j] - pg[j]*pg[j] - pb[j]*pb[j];
+		f += 2 * dr * (dr > 0 ? r0 : r0 + ext);
+		f += 2 * dg * (dg > 0 ? g0 : g0 + ext);
+		f += 2 * db * (db > 0 ? b0 : b0 + ext);
+		return f > 0;
+	}
+
+	/**
+	 * Retorna o índice da cor da paleta mais próxima da cor fornecida.
+	 * @param rgb cor no formato {@code 0xRRGGBB}.
+	 * @return índice da cor mais próxima.
+	 */
+	public int indice(int rgb) {
+		return indice((rgb >> 16) & 0xFF, (rgb >> 8) & 0xFF, rgb & 0xFF);
+	}
+
+	/**
+	 * Retorna o índice da cor da paleta mais próxima, com canais no intervalo [0, 255].
+	 */
+	int indice(int r, int g, int b) {
+		int s = 8 - BITS_DIRETO;
+		byte k0 = direto[((r >> s) << (2 * BITS_DIRETO)) | ((g >> s) << BITS_DIRETO) | (b >> s)];
+		if (k0 != VARIOS) return k0 & 0xFF;
+
+		int c = ((r >> (8 - BITS)) << (2 * BITS)) | ((g >> (8 - BITS)) << BITS) | (b >> (8 - BITS));
+		int i = inicio[c];
+		int fim = inicio[c + 1];
+
+		int melhor = 0;
+		int min = Integer.MAX_VALUE;
+		for (; i < fim; i++) {
+			int k = candidatos[i] & 0xFF;
+			int p = cores[k];
+			int dr = ((p >> 16) & 0xFF) - r;
+			int dg = ((p >> 8) & 0xFF) - g;
+			int db = (p & 0xFF) - b;
+			int d = dr*dr + dg*dg + db*db;
+			if (d < min) {
+				min = d;
+				melhor = k;
+			}
+		}
+
+		return melhor;
+	}
+
+	/**
+	 * Retorna uma cor da paleta.
+	 * @param indice índice da cor.
+	 * @return cor no formato {@code 0xRRGGBB}.
+	 */
+	public int cor(int indice) {
+		if (indice < 0 || indice >= cores.length) {
+			throw new IllegalArgumentException("\nÍndice (" + indice + ") fora de alcance.");
+		}
+		return cores[indice];
+	}
+
+	/**
+	 * Retorna uma cópia das cores da paleta.
+	 * @return cores no formato {@code 0xRRGGBB}.
+	 */
+	public int[] cores() {
+		return cores.clone();
+	}
+
+	/**
+	 * Retorna a quantidade de cores da paleta.
+	 * @return quantidade de cores.
+	 */
+	public int tamanho() {
+		return cores.length;
+	}
+
+	/**
+	 * Acesso direto às cores para uso interno, não deve ser alterado.
+	 */
+	int[] coresInternas() {
+		return cores;
+	}
+
+}
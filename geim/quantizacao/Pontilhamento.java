@@ -0,0 +1,30 @@
+package geim.quantizacao;
+
+/**
+ * Métodos de pontilhamento aplicados ao mapear uma imagem para a paleta.
+ */
+public enum Pontilhamento {
+
+	/**
+	 * Cada pixel recebe a cor mais próxima da paleta.
+	 */
+	NENHUM,
+
+	/**
+	 * Difusão de erro de Floyd–Steinberg, percorrendo as linhas em zigue-zague.
+	 * <p>
+	 *    Gera os melhores gradientes, mas é sequencial.
+	 * </p>
+	 */
+	FLOYD_STEINBERG,
+
+	/**
+	 * Pontilhamento ordenado com matriz de Bayer 8x8.
+	 * <p>
+	 *    O resultado de cada pixel não depende dos vizinhos, então as linhas são 
+	 *    processadas em paralelo, e o padrão é estável entre quadros de uma animação.
+	 * </p>
+	 */
+	ORDENADO
+
+}
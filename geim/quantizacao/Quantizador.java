@@ -0,0 +1,626 @@
+package geim.quantizacao;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import geim.imagem.Imagem;
+
+/**
+ * Redução de cores de imagens para uma paleta de até 256 cores.
+ * <p>
+ *    Imagens com até {@code cores} cores distintas (logotipos, capturas de 
+ *    interface) recebem exatamente as suas cores como paleta. Nas demais as 
+ *    paletas são geradas a partir de um histograma de 5 bits por canal, com 
+ *    a cor média exata de cada célula, então o custo dos algoritmos depende da 
+ *    quantidade de cores distintas (no máximo 32768) e não do tamanho da imagem. 
+ *    O mapeamento dos pixels usa o mapa inverso da {@code Paleta}.
+ * </p>
+ */
+public class Quantizador {
+
+	/**
+	 * Limite de iterações do k-médias usado por {@link #gerarPaleta(Imagem, int, MetodoQuantizacao)}.
+	 */
+	public static final int ITERACOES_K_MEDIAS = 10;
+
+	/**
+	 * Matriz de Bayer 8x8.
+	 */
+	private static final int[] BAYER = {
+		 0, 32,  8, 40,  2, 34, 10, 42,
+		48, 16, 56, 24, 50, 18, 58, 26,
+		12, 44,  4, 36, 14, 46,  6, 38,
+		60, 28, 52, 20, 62, 30, 54, 22,
+		 3, 35, 11, 43,  1, 33,  9, 41,
+		51, 19, 59, 27, 49, 17, 57, 25,
+		15, 47,  7, 39, 13, 45,  5, 37,
+		63, 31, 55, 23, 61, 29, 53, 21
+	};
+
+	/**
+	 * Limita ao intervalo [0, 255] um canal com erro difundido, que fica entre 
+	 * -255 e 510, indexado com deslocamento de 255.
+	 */
+	private static final int[] LIMITE = new int[766];
+
+	static {
+		for (int i = 0; i < LIMITE.length; i++) {
+			LIMITE[i] = Math.clamp(i - 255, 0, 255);
+		}
+	}
+
+	/**
+	 * Contém implementações de quantização de cores.
+	 */
+	public Quantizador() {}
+
+	/**
+	 * Reduz as cores da imagem.
+	 * @param img {@code Imagem} base.
+	 * @param cores quantidade máxima de cores, entre 1 e 256.
+	 * @param metodo algoritmo de geração da paleta.
+	 * @param pontilhamento pontilhamento aplicado no mapeamento.
+	 * @return {@code ImagemIndexada} resultante.
+	 */
+	public ImagemIndexada quantizar(Imagem img, int cores, MetodoQuantizacao metodo, Pontilhamento pontilhamento) {
+		return aplicar(img, gerarPaleta(img, cores, metodo), pontilhamento);
+	}
+
+	/**
+	 * Gera uma paleta para a imagem.
+	 * @param img {@code Imagem} base.
+	 * @param cores quantidade máxima de cores, entre 1 e 256.
+	 * @param metodo algoritmo de geração da paleta.
+	 * @return {@code Paleta} gerada, pode ter menos cores caso a imagem tenha 
+	 * menos cores distintas.
+	 */
+	public Paleta gerarPaleta(Imagem img, int cores, MetodoQuantizacao metodo) {
+		if (metodo == null) {
+			throw new IllegalArgumentException("\nO método fornecido é nulo.");
+		}
+
+		return switch (metodo) {
+			case CORTE_MEDIANO -> corteMediano(img, cores);
+			case OCTREE -> octree(img, cores);
+			case K_MEDIAS -> kMedias(img, cores, ITERACOES_K_MEDIAS);
+		};
+	}
+
+	/**
+	 * Gera uma paleta usando o corte mediano.
+	 * @param img {@code Imagem} base.
+	 * @param cores quantidade máxima de cores, entre 1 e 256.
+	 * @return {@code Paleta} gerada.
+	 */
+	public Paleta corteMediano(Imagem img, int cores) {
+		verificar(img, cores);
+		int[] exatas = coresExatas(img, cores);
+		if (exatas != null) return new Paleta(exatas);
+		return new Paleta(corteMediano(Histograma.de(img), cores));
+	}
+
+	/**
+	 * Gera uma paleta usando uma octree.
+	 * @param img {@code Imagem} base.
+	 * @param cores quantidade máxima de cores, entre 1 e 256.
+	 * @return {@code Paleta} gerada.
+	 */
+	public Paleta octree(Imagem img, int cores) {
+		verificar(img, cores);
+		int[] exatas = coresExatas(img, cores);
+		if (exatas != null) return new Paleta(exatas);
+		return new Paleta(octree(Histograma.de(img), cores));
+	}
+
+	/**
+	 * Gera uma paleta usando k-médias, iniciado com a paleta do corte mediano.
+	 * <p>
+	 *    As iterações terminam quando nenhuma cor muda de grupo ou o limite 
+	 *    é alcançado.
+	 * </p>
+	 * @param img {@code Imagem} base.
+	 * @param cores quantidade máxima de cores, entre 1 e 256.
+	 * @param iteracoes limite de iterações, {@code 0} retorna a paleta do corte mediano.
+	 * @return {@code Paleta} gerada.
+	 */
+	public Paleta kMedias(Imagem img, int cores, int iteracoes) {
+		verificar(img, cores);
+		if (iteracoes < 0) {
+			throw new IllegalArgumentException(
+				"\nIterações deve ser maior ou igual a zero, recebido: " + iteracoes
+			);
+		}
+
+		int[] exatas = coresExatas(img, cores);
+		if (exatas != null) return new Paleta(exatas);
+
+		Histograma h = Histograma.de(img);
+		return new Paleta(kMedias(h, corteMediano(h, cores), iteracoes));
+	}
+
+	/**
+	 * Mapeia os pixels da imagem para a paleta.
+	 * @param img {@code Imagem} base.
+	 * @param paleta paleta de destino.
+	 * @param pontilhamento pontilhamento aplicado.
+	 * @return {@code ImagemIndexada} resultante.
+	 */
+	public ImagemIndexada aplicar(Imagem img, Paleta paleta, Pontilhamento pontilhamento) {
+		if (img == null) {
+			throw new IllegalArgumentException("\nA imagem fornecida é nula.");
+		}
+		if (paleta == null) {
+			throw new IllegalArgumentException("\nA paleta fornecida é nula.");
+		}
+		if (pontilhamento == null) {
+			throw new IllegalArgumentException("\nO pontilhamento fornecido é nulo.");
+		}
+
+		int largura = img.largura();
+		int altura = img.altura();
+		byte[] indices = new byte[Math.multiplyExact(largura, altura)];
+
+		switch (pontilhamento) {
+			case NENHUM -> IntStream.range(0, altura).parallel().forEach(y -> {
+				int[] linha = new int[largura];
+				img.getLinha(y, linha, 0);
+				int base = y * largura;
+				int ultimo = -1, idx = 0;
+				for (int x = 0; x < largura; x++) {
+					int rgb = linha[x];
+					if (rgb != ultimo) {
+						idx = paleta.indice(rgb);
+						ultimo = rgb;
+					}
+					indices[base + x] = (byte) idx;
+				}
+			});
+			case ORDENADO -> ordenado(img, paleta, indices);
+			case FLOYD_STEINBERG -> floydSteinberg(img, paleta, indices);
+		}
+
+		return new ImagemIndexada(altura, largura, indices, paleta);
+	}
+
+	/**
+	 * Pontilhamento ordenado com a matriz de Bayer.
+	 */
+	private void ordenado(Imagem img, Paleta paleta, byte[] indices) {
+		int largura = img.largura();
+		int altura = img.altura();
+
+		double amplitude = espacamento(paleta.coresInternas());
+		int[] desloc = new int[64];
+		for (int i = 0; i < 64; i++) {
+			desloc[i] = (int) Math.round(((BAYER[i] + 0.5) / 64.0 - 0.5) * amplitude);
+		}
+
+		IntStream.range(0, altura).parallel().forEach(y -> {
+			int[] linha = new int[largura];
+			img.getLinha(y, linha, 0);
+			int base = y * largura;
+			int lb = (y & 7) << 3;
+			for (int x = 0; x < largura; x++) {
+				int rgb = linha[x];
+				int d = desloc[lb | (x & 7)];
+				int r = Math.clamp(((rgb >> 16) & 0xFF) + d, 0, 255);
+				int g = Math.clamp(((rgb >> 8) & 0xFF) + d, 0, 255);
+				int b = Math.clamp((rgb & 0xFF) + d, 0, 255);
+				indices[base + x] = (byte) paleta.indice(r, g, b);
+			}
+		});
+	}
+
+	/**
+	 * Distância média entre cada cor da paleta e a sua vizinha mais próxima, 
+	 * usada como amplitude do pontilhamento ordenado.
+	 * @return espaçamento médio, ou zero para paletas com uma cor.
+	 */
+	private static double espacamento(int[] cores) {
+		int n = cores.length;
+		if (n < 2) return 0;
+
+		double soma = 0;
+		for (int i = 0; i < n; i++) {
+			int ri = (cores[i] >> 16) & 0xFF, gi = (cores[i] >> 8) & 0xFF, bi = cores[i] & 0xFF;
+			int min = Integer.MAX_VALUE;
+			for (int j = 0; j < n; j++) {
+				if (j == i) continue;
+				int dr = ((cores[j] >> 16) & 0xFF) - ri;
+				int dg = ((cores[j] >> 8) & 0xFF) - gi;
+				int db = (cores[j] & 0xFF) - bi;
+				min = Math.min(min, dr*dr + dg*dg + db*db);
+			}
+			soma += Math.sqrt(min);
+		}
+
+		return soma / n;
+	}
+
+	/**
+	 * Difusão de erro de Floyd–Steinberg em zigue-zague.
+	 */
+	private void floydSteinberg(Imagem img, Paleta paleta, byte[] indices) {
+		int largura = img.largura();
+		int altura = img.altura();
+		int[] cores = paleta.coresInternas();
+
+		// erros acumulados (x16) da linha atual e da próxima, com uma coluna extra em cada borda
+		int[] atual = new int[(largura + 2) * 3];
+		int[] prox = new int[(largura + 2) * 3];
+		int[] linha = new int[largura];
+
+		for (int y = 0; y < altura; y++) {
+			img.getLinha(y, linha, 0);
+			int base = y * largura;
+			boolean direita = (y & 1) == 0;
+			int passo = direita ? 1 : -1;
+			int x = direita ? 0 : largura - 1;
+
+			for (int k = 0; k < largura; k++, x += passo) {
+				int rgb = linha[x];
+				int e = (x + 1) * 3;
+				int r = LIMITE[((rgb >> 16) & 0xFF) + ((atual[e] + 8) >> 4) + 255];
+				int g = LIMITE[((rgb >> 8) & 0xFF) + ((atual[e + 1] + 8) >> 4) + 255];
+				int b = LIMITE[(rgb & 0xFF) + ((atual[e + 2] + 8) >> 4) + 255];
+
+				int idx = paleta.indice(r, g, b);
+				indices[base + x] = (byte) idx;
+
+				int p = cores[idx];
+				int er = r - ((p >> 16) & 0xFF);
+				int eg = g - ((p >> 8) & 0xFF);
+				int eb = b - (p & 0xFF);
+
+				int frente = e + passo * 3;
+				int tras = e - passo * 3;
+				atual[frente] += er * 7;
+				atual[frente + 1] += eg * 7;
+				atual[frente + 2] += eb * 7;
+				prox[tras] += er * 3;
+				prox[tras + 1] += eg * 3;
+				prox[tras + 2] += eb * 3;
+				prox[e] += er * 5;
+				prox[e + 1] += eg * 5;
+				prox[e + 2] += eb * 5;
+				prox[frente] += er;
+				prox[frente + 1] += eg;
+				prox[frente + 2] += eb;
+			}
+
+			int[] t = atual;
+			atual = prox;
+			prox = t;
+			Arrays.fill(prox, 0);
+		}
+	}
+
+	/**
+	 * Corte mediano sobre as células do histograma.
+	 * @return cores da paleta.
+	 */
+	static int[] corteMediano(Histograma h, int cores) {
+		int n = h.n;
+		int[] ordem = new int[n];
+		for (int i = 0; i < n; i++) ordem[i] = i;
+
+		// caixas como intervalos [ini, fim) de ordem
+		List<int[]> caixas = new ArrayList<>();
+		caixas.add(new int[] {0, n});
+		int[] chaves = new int[n];
+
+		while (caixas.size() < cores) {
+			int melhor = -1;
+			double maior = 0;
+			int canalMelhor = 0;
+
+			for (int c = 0; c < caixas.size(); c++) {
+				int[] cx = caixas.get(c);
+				if (cx[1] - cx[0] < 2) continue;
+
+				int minR = 255, minG = 255, minB = 255, maxR = 0, maxG = 0, maxB = 0;
+				long cont = 0;
+				for (int i = cx[0]; i < cx[1]; i++) {
+					int k = ordem[i];
+					minR = Math.min(minR, h.r[k]); maxR = Math.max(maxR, h.r[k]);
+					minG = Math.min(minG, h.g[k]); maxG = Math.max(maxG, h.g[k]);
+					minB = Math.min(minB, h.b[k]); maxB = Math.max(maxB, h.b[k]);
+					cont += h.contagem[k];
+				}
+
+				int er = maxR - minR, eg = maxG - minG, eb = maxB - minB;
+				int ext = Math.max(er, Math.max(eg, eb));
+				if (ext == 0) continue;
+
+				// prioriza caixas grandes e populosas
+				double pont = (double) ext * ext * cont;
+				if (pont > maior) {
+					maior = pont;
+					melhor = c;
+					canalMelhor = ext == er ? 0 : (ext == eg ? 1 : 2);
+				}
+			}
+
+			if (melhor < 0) break;
+
+			int[] cx = caixas.get(melhor);
+			int ini = cx[0], fim = cx[1];
+			int[] canal = canalMelhor == 0 ? h.r : (canalMelhor == 1 ? h.g : h.b);
+
+			// ordena pelo canal usando chaves (valor << 16 | célula)
+			for (int i = ini; i < fim; i++) {
+				chaves[i] = (canal[ordem[i]] << 16) | ordem[i];
+			}
+			Arrays.sort(chaves, ini, fim);
+
+			long total = 0;
+			for (int i = ini; i < fim; i++) {
+				ordem[i] = chaves[i] & 0xFFFF;
+				total += h.contagem[ordem[i]];
+			}
+
+			// mediana ponderada, mantendo as duas metades não vazias
+			long acumulado = 0;
+			int corte = ini + 1;
+			for (int i = ini; i < fim - 1; i++) {
+				acumulado += h.contagem[ordem[i]];
+				corte = i + 1;
+				if (acumulado * 2 >= total) break;
+			}
+
+			cx[1] = corte;
+			caixas.add(new int[] {corte, fim});
+		}
+
+		int[] paleta = new int[caixas.size()];
+		for (int c = 0; c < paleta.length; c++) {
+			int[] cx = caixas.get(c);
+			long cont = 0, sr = 0, sg = 0, sb = 0;
+			for (int i = cx[0]; i < cx[1]; i++) {
+				int k = ordem[i];
+				cont += h.contagem[k];
+				sr += h.somaR[k];
+				sg += h.somaG[k];
+				sb += h.somaB[k];
+			}
+			paleta[c] = media(sr, sg, sb, cont);
+		}
+
+		return paleta;
+	}
+
+	/**
+	 * Octree sobre as células do histograma, com 5 níveis (um por bit das células).
+	 * @return cores da paleta.
+	 */
+	static int[] octree(Histograma h, int cores) {
+		int cap = 1 + h.n * 5;
+		int[] filhos = new int[cap * 8];
+		Arrays.fill(filhos, -1);
+		int[] nivel = new int[cap];
+		long[] cont = new long[cap], sr = new long[cap], sg = new long[cap], sb = new long[cap];
+		boolean[] folha = new boolean[cap];
+		int nos = 1;
+
+		for (int i = 0; i < h.n; i++) {
+			int c = h.celula[i];
+			int r5 = c >> 10, g5 = (c >> 5) & 31, b5 = c & 31;
+			int no = 0;
+			for (int l = 0; ; l++) {
+				cont[no] += h.contagem[i];
+				sr[no] += h.somaR[i];
+				sg[no] += h.somaG[i];
+				sb[no] += h.somaB[i];
+				if (l == 5) {
+					folha[no] = true;
+					break;
+				}
+
+				int s = 4 - l;
+				int f = (((r5 >> s) & 1) << 2) | (((g5 >> s) & 1) << 1) | ((b5 >> s) & 1);
+				int prox = filhos[no * 8 + f];
+				if (prox < 0) {
+					prox = nos++;
+					nivel[prox] = l + 1;
+					filhos[no * 8 + f] = prox;
+				}
+				no = prox;
+			}
+		}
+
+		// une os nós com menos pixels, do nível mais profundo para a raiz
+		int[] folhas = new int[nos];
+		int total = contarFolhas(0, filhos, folha, folhas);
+
+		for (int l = 4; l >= 0 && total > cores; l--) {
+			List<Integer> candidatos = new ArrayList<>();
+			for (int no = 0; no < nos; no++) {
+				if (nivel[no] == l && !folha[no] && folhas[no] > 0) candidatos.add(no);
+			}
+			candidatos.sort((a, b) -> Long.compare(cont[a], cont[b]));
+
+			for (int no : candidatos) {
+				if (total <= cores) break;
+				total -= folhas[no] - 1;
+				folha[no] = true;
+			}
+
+			contarFolhas(0, filhos, folha, folhas);
+		}
+
+		int[] paleta = new int[total];
+		int[] pos = {0};
+		coletar(0, filhos, folha, cont, sr, sg, sb, paleta, pos);
+		return paleta;
+	}
+
+	/**
+	 * Conta as folhas alcançáveis a partir de cada nó.
+	 */
+	private static int contarFolhas(int no, int[] filhos, boolean[] folha, int[] folhas) {
+		if (folha[no]) return folhas[no] = 1;
+
+		int n = 0;
+		for (int f = 0; f < 8; f++) {
+			int c = filhos[no * 8 + f];
+			if (c >= 0) n += contarFolhas(c, filhos, folha, folhas);
+		}
+		return folhas[no] = n;
+	}
+
+	/**
+	 * Coleta a cor média de cada folha.
+	 */
+	private static void coletar(int no, int[] filhos, boolean[] folha, long[] cont, long[] sr, long[] sg, long[] sb, int[] paleta, int[] pos) {
+		if (folha[no]) {
+			paleta[pos[0]++] = media(sr[no], sg[no], sb[no], cont[no]);
+			return;
+		}
+
+		for (int f = 0; f < 8; f++) {
+			int c = filhos[no * 8 + f];
+			if (c >= 0) coletar(c, filhos, folha, cont, sr, sg, sb, paleta, pos);
+		}
+	}
+
+	/**
+	 * K-médias ponderado sobre as células do histograma.
+	 * @return cores da paleta refinada.
+	 */
+	static int[] kMedias(Histograma h, int[] inicial, int iteracoes) {
+		int k = inicial.length;
+		int[] cr = new int[k], cg = new int[k], cb = new int[k];
+		for (int i = 0; i < k; i++) {
+			cr[i] = (inicial[i] >> 16) & 0xFF;
+			cg[i] = (inicial[i] >> 8) & 0xFF;
+			cb[i] = inicial[i] & 0xFF;
+		}
+
+		int[] grupo = new int[h.n];
+		Arrays.fill(grupo, -1);
+		long[] cont = new long[k], sr = new long[k], sg = new long[k], sb = new long[k];
+
+		for (int it = 0; it < iteracoes; it++) {
+			boolean mudou = false;
+			Arrays.fill(cont, 0);
+			Arrays.fill(sr, 0);
+			Arrays.fill(sg, 0);
+			Arrays.fill(sb, 0);
+
+			for (int i = 0; i < h.n; i++) {
+				int r = h.r[i], g = h.g[i], b = h.b[i];
+				int melhor = 0;
+				int min = Integer.MAX_VALUE;
+				for (int j = 0; j < k; j++) {
+					int dr = cr[j] - r;
+					int d = dr * dr;
+					if (d >= min) continue;
+					int dg = cg[j] - g;
+					d += dg * dg;
+					if (d >= min) continue;
+					int db = cb[j] - b;
+					d += db * db;
+					if (d < min) {
+						min = d;
+						melhor = j;
+					}
+				}
+
+				if (grupo[i] != melhor) {
+					grupo[i] = melhor;
+					mudou = true;
+				}
+				cont[melhor] += h.contagem[i];
+				sr[melhor] += h.somaR[i];
+				sg[melhor] += h.somaG[i];
+				sb[melhor] += h.somaB[i];
+			}
+
+			if (!mudou) break;
+
+			for (int j = 0; j < k; j++) {
+				if (cont[j] == 0) continue;
+				int m = media(sr[j], sg[j], sb[j], cont[j]);
+				cr[j] = (m >> 16) & 0xFF;
+				cg[j] = (m >> 8) & 0xFF;
+				cb[j] = m & 0xFF;
+			}
+		}
+
+		int[] paleta = new int[k];
+		for (int i = 0; i < k; i++) {
+			paleta[i] = (cr[i] << 16) | (cg[i] << 8) | cb[i];
+		}
+		return paleta;
+	}
+
+	/**
+	 * Coleta as cores distintas da imagem, interrompendo assim que passarem de 
+	 * {@code limite}.
+	 * @return cores distintas em ordem crescente, ou {@code null} caso existam 
+	 * mais que {@code limite}.
+	 */
+	private static int[] coresExatas(Imagem img, int limite) {
+		// endereçamento aberto com no máximo metade das posições ocupadas
+		int mascara = Integer.highestOneBit(limite) * 4 - 1;
+		int[] tabela = new int[mascara + 1];
+		Arrays.fill(tabela, -1);
+		int n = 0;
+
+		int largura = img.largura();
+		int[] linha = new int[largura];
+		int ultimo = -1;
+		for (int y = 0; y < img.altura(); y++) {
+			img.getLinha(y, linha, 0);
+			for (int x = 0; x < largura; x++) {
+				int rgb = linha[x] & 0xFFFFFF;
+				if (rgb == ultimo) continue;
+				ultimo = rgb;
+
+				int i = (rgb * 0x9E3779B1) >>> 16 & mascara;
+				while (tabela[i] != -1 && tabela[i] != rgb) {
+					i = (i + 1) & mascara;
+				}
+				if (tabela[i] == -1) {
+					if (++n > limite) return null;
+					tabela[i] = rgb;
+				}
+			}
+		}
+
+		int[] cores = new int[n];
+		int k = 0;
+		for (int c : tabela) {
+			if (c != -1) cores[k++] = c;
+		}
+		Arrays.sort(cores);
+		return cores;
+	}
+
+	/**
+	 * Calcula a cor média arredondada.
+	 */
+	private static int media(long sr, long sg, long sb, long cont) {
+		int r = (int) ((sr + cont / 2) / cont);
+		int g = (int) ((sg + cont / 2) / cont);
+		int b = (int) ((sb + cont / 2) / cont);
+		return (r << 16) | (g << 8) | b;
+	}
+
+	/**
+	 * Verifica os parâmetros comuns da geração de paletas.
+	 */
+	private static void verificar(Imagem img, int cores) {
+		if (img == null) {
+			throw new IllegalArgumentException("\nA imagem fornecida é nula.");
+		}
+		if (cores < 1 || cores > 256) {
+			throw new IllegalArgumentException(
+				"\nQuantidade de cores deve estar entre 1 e 256, recebido: " + cores
+			);
+		}
+	}
+
+}
@@ -0,0 +1,244 @@
+package geim.sequencia;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.Locale;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOInvalidTreeException;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.FileImageOutputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+import geim.desenho.Renderizador;
+import geim.imagem.Imagem;
+import geim.metricas.Metricas;
+import geim.metricas.Operacao;
+
+/**
+ * Escrita de sequências de quadros em arquivos {@code gif} animados ou 
+ * {@code tiff} com várias páginas.
+ * <p>
+ *    Cada quadro é codificado e gravado assim que recebido, sem manter os 
+ *    quadros anteriores em memória. A {@code BufferedImage} usada na conversão 
+ *    é reaproveitada entre quadros do mesmo tamanho.
+ * </p>
+ */
+public class EscritorSequencia implements AutoCloseable {
+
+	private static final String FORMATO_GIF_IMAGEM = "javax_imageio_gif_image_1.0";
+
+	private final String caminho;
+	private final ImageOutputStream saida;
+	private final ImageWriter escritor;
+	private final boolean gif;
+	private final int repeticoes;
+	private final Renderizador rdz = new Renderizador();
+
+	private BufferedImage buffer;
+	private int quadros;
+	private boolean fechado;
+
+	/**
+	 * Cria um arquivo de sequência, o formato é escolhido pela extensão 
+	 * ({@code gif}, {@code tif} ou {@code tiff}). Animações {@code gif} são 
+	 * repetidas indefinidamente.
+	 * @param caminho caminho do arquivo, um arquivo existente é sobrescrito.
+	 */
+	public EscritorSequencia(String caminho) {
+		this(caminho, 0);
+	}
+
+	/**
+	 * Cria um arquivo de sequência, o formato é escolhido pela extensão 
+	 * ({@code gif}, {@code tif} ou {@code tiff}).
+	 * @param caminho caminho do arquivo, um arquivo existente é sobrescrito.
+	 * @param repeticoes quantidade de repetições da animação {@code gif}, 
+	 * {@code 0} para repetir indefinidamente. Ignorado em {@code tiff}.
+	 * @throws UncheckedIOException se ocorrer um erro ao criar o arquivo.
+	 */
+	public EscritorSequencia(String caminho, int repeticoes) {
+		if (caminho == null) {
+			throw new IllegalArgumentException("\nO caminho fornecido é nulo.");
+		}
+		if (repeticoes < 0 || repeticoes > 0xFFFF) {
+			throw new IllegalArgumentException(
+				"\nRepetições deve estar entre 0 e 65535, recebido: " + repeticoes
+			);
+		}
+
+		int ponto = caminho.lastIndexOf('.');
+		String ext = ponto < 0 ? "" : caminho.substring(ponto + 1).toLowerCase(Locale.ROOT);
+		if (!ext.equals("gif") && !ext.equals("tif") && !ext.equals("tiff")) {
+			throw new IllegalArgumentException(
+				"\nFormato \"" + ext + "\" não suporta sequências, use gif, tif ou tiff."
+			);
+		}
+
+		Iterator<ImageWriter> escritores = ImageIO.getImageWritersBySuffix(ext);
+		if (!escritores.hasNext()) {
+			throw new IllegalArgumentException("\nFormato \"" + ext + "\" não suportado.");
+		}
+
+		this.caminho = caminho;
+		this.gif = ext.equals("gif");
+		this.repeticoes = repeticoes;
+		this.escritor = escritores.next();
+
+		RandomAccessFile arquivo = null;
+		ImageOutputStream ios = null;
+		try {
+			arquivo = new RandomAccessFile(caminho, "rw");
+			arquivo.setLength(0);
+			ios = new FileImageOutputStream(arquivo);
+			escritor.setOutput(ios);
+			escritor.prepareWriteSequence(null);
+		} catch (IOException | RuntimeException e) {
+			escritor.dispose();
+			fechar(ios, arquivo, e);
+			if (e instanceof RuntimeException re) throw re;
+			throw new UncheckedIOException("\nErro ao criar o arquivo \"" + caminho + "\"", (IOException) e);
+		}
+		saida = ios;
+	}
+
+	/**
+	 * Fecha o fluxo ou, caso ele não tenha sido criado, o arquivo, anexando 
+	 * falhas ao erro original.
+	 */
+	private static void fechar(ImageOutputStream ios, RandomAccessFile arquivo, Exception erro) {
+		try {
+			if (ios != null) ios.close();
+			else if (arquivo != null) arquivo.close();
+		} catch (IOException e) {
+			erro.addSuppressed(e);
+		}
+	}
+
+	/**
+	 * Grava um quadro sem atraso definido.
+	 * @param quadro {@code Imagem} do quadro.
+	 */
+	public void escrever(Imagem quadro) {
+		escrever(quadro, 0);
+	}
+
+	/**
+	 * Grava um quadro.
+	 * @param quadro {@code Imagem} do quadro.
+	 * @param atraso tempo de exibição do quadro em milissegundos, usado apenas 
+	 * em {@code gif} (com resolução de 10 ms).
+	 * @throws UncheckedIOException se ocorrer um erro durante a escrita.
+	 */
+	public void escrever(Imagem quadro, int atraso) {
+		if (fechado) {
+			throw new IllegalStateException("\nO escritor já foi fechado.");
+		}
+		if (quadro == null) {
+			throw new IllegalArgumentException("\nO quadro fornecido é nulo.");
+		}
+		if (atraso < 0) {
+			throw new IllegalArgumentException(
+				"\nAtraso deve ser maior ou igual a zero, recebido: " + atraso
+			);
+		}
+
+		long t = Metricas.iniciar();
+		long pos = posicao();
+
+		buffer = rdz.paraBufferedImage(quadro, buffer);
+		ImageWriteParam param = escritor.getDefaultWriteParam();
+
+		try {
+			IIOMetadata meta = escritor.getDefaultImageMetadata(
+				ImageTypeSpecifier.createFromRenderedImage(buffer), param
+			);
+			if (gif) configurarGif(meta, atraso);
+
+			escritor.writeToSequence(new IIOImage(buffer, null, meta), param);
+		} catch (IOException e) {
+			Metricas.registrarErro(Operacao.EXPORTACAO, e);
+			throw new UncheckedIOException("\nErro ao escrever o quadro em \"" + caminho + "\"", e);
+		}
+
+		quadros++;
+
+		long pixels = (long) quadro.largura() * quadro.altura();
+		Metricas.registrar(Operacao.EXPORTACAO, t, posicao() - pos, pixels, 0);
+	}
+
+	/**
+	 * Define o atraso do quadro e, no primeiro quadro, as repetições da animação.
+	 */
+	private void configurarGif(IIOMetadata meta, int atraso) throws IIOInvalidTreeException {
+		IIOMetadataNode raiz = new IIOMetadataNode(FORMATO_GIF_IMAGEM);
+
+		IIOMetadataNode ctrl = new IIOMetadataNode("GraphicControlExtension");
+		ctrl.setAttribute("disposalMethod", "none");
+		ctrl.setAttribute("userInputFlag", "FALSE");
+		ctrl.setAttribute("transparentColorFlag", "FALSE");
+		ctrl.setAttribute("delayTime", Integer.toString(Math.min(0xFFFF, (atraso + 5) / 10)));
+		ctrl.setAttribute("transparentColorIndex", "0");
+		raiz.appendChild(ctrl);
+
+		if (quadros == 0) {
+			IIOMetadataNode apps = new IIOMetadataNode("ApplicationExtensions");
+			IIOMetadataNode app = new IIOMetadataNode("ApplicationExtension");
+			app.setAttribute("applicationID", "NETSCAPE");
+			app.setAttribute("authenticationCode", "2.0");
+			app.setUserObject(new byte[] {1, (byte) (repeticoes & 0xFF), (byte) (repeticoes >>> 8)});
+			apps.appendChild(app);
+			raiz.appendChild(apps);
+		}
+
+		meta.mergeTree(FORMATO_GIF_IMAGEM, raiz);
+	}
+
+	/**
+	 * Retorna a quantidade de quadros gravados.
+	 * @return quantidade de quadros.
+	 */
+	public int quadros() {
+		return quadros;
+	}
+
+	private long posicao() {
+		try {
+			return saida.getStreamPosition();
+		} catch (IOException e) {
+			return 0;
+		}
+	}
+
+	/**
+	 * Finaliza a sequência e fecha o arquivo.
+	 * @throws UncheckedIOException se ocorrer um erro ao finalizar o arquivo.
+	 */
+	@Override
+	public void close() {
+		if (fechado) return;
+		fechado = true;
+
+		try {
+			escritor.endWriteSequence();
+		} catch (IOException e) {
+			throw new UncheckedIOException("\nErro ao finalizar o arquivo \"" + caminho + "\"", e);
+		} finally {
+			escritor.dispose();
+			try {
+				saida.close();
+			} catch (IOException e) {
+				// o erro de finalização, se houver, já foi lançado
+			}
+		}
+	}
+
+}
@@ -0,0 +1,415 @@
+package geim.sequencia;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageInputStream;
+
+import org.w3c.dom.Node;
+
+import geim.imagem.Imagem;
+import geim.metricas.Metricas;
+import geim.metricas.Operacao;
+
+/**
+ * Leitura sequencial dos quadros de uma imagem animada ({@code gif}) ou com 
+ * várias páginas ({@code tiff}).
+ * <p>
+ *    Os quadros são decodificados sob demanda, um por vez, usando 
+ *    {@code ImageReader.read(indice)} sobre um fluxo que descarta os dados já 
+ *    lidos, então o consumo de memória não depende da quantidade de quadros. 
+ *    Todos os quadros são entregues na mesma {@code Imagem}, que é reaproveitada 
+ *    enquanto o tamanho não mudar.
+ * </p>
+ * <p>
+ *    Em arquivos {@code gif} cada quadro pode atualizar apenas parte da tela; 
+ *    o leitor compõe os quadros respeitando posição, transparência e método de 
+ *    descarte, de modo que {@link #atual()} sempre contém a tela completa. 
+ *    Pixels transparentes que não foram cobertos por nenhum quadro ficam pretos.
+ * </p>
+ * <pre>
+ *try (LeitorSequencia leitor = new LeitorSequencia("animacao.gif")) {
+ *    while (leitor.proximo()) {
+ *        Imagem quadro = leitor.atual();
+ *    }
+ *}
+ * </pre>
+ */
+public class LeitorSequencia implements AutoCloseable, Iterable<Imagem> {
+
+	private static final String FORMATO_GIF_IMAGEM = "javax_imageio_gif_image_1.0";
+	private static final String FORMATO_GIF_FLUXO = "javax_imageio_gif_stream_1.0";
+
+	private final String caminho;
+	private final ImageInputStream entrada;
+	private final ImageReader leitor;
+	private final boolean gif;
+
+	/**
+	 * Índice do próximo quadro a ser lido.
+	 */
+	private int proximo;
+
+	/**
+	 * Indica se o fim da sequência foi alcançado.
+	 */
+	private boolean fim;
+
+	/**
+	 * Quadro entregue ao usuário.
+	 */
+	private Imagem quadro;
+
+	/**
+	 * Atraso do quadro atual, em milissegundos.
+	 */
+	private int atraso;
+
+	/**
+	 * Tela usada na composição de quadros {@code gif}.
+	 */
+	private Imagem tela;
+
+	/**
+	 * Conteúdo da tela salvo antes de um quadro com descarte {@code restoreToPrevious}.
+	 */
+	private Imagem reserva;
+
+	/**
+	 * Método de descarte e área do quadro anterior, aplicados antes do próximo quadro.
+	 */
+	private String descarte;
+	private int dx, dy, dLargura, dAltura;
+
+	/**
+	 * Abre um arquivo para leitura dos quadros.
+	 * @param caminho caminho do arquivo.
+	 * @throws IllegalArgumentException se o arquivo não existir ou não for uma imagem suportada.
+	 * @throws UncheckedIOException se ocorrer um erro ao abrir o arquivo.
+	 */
+	public LeitorSequencia(String caminho) {
+		if (caminho == null) {
+			throw new IllegalArgumentException("\nO caminho fornecido é nulo.");
+		}
+
+		File arquivo = new File(caminho);
+		if (!arquivo.exists()) {
+			throw new IllegalArgumentException(
+				"\nDiretório \"" + caminho + "\" não encontrado."
+			);
+		}
+
+		this.caminho = caminho;
+
+		try {
+			entrada = ImageIO.createImageInputStream(arquivo);
+		} catch (IOException e) {
+			throw new UncheckedIOException("\nErro ao abrir a imagem \"" + caminho + "\"", e);
+		}
+
+		if (entrada == null) {
+			throw new IllegalArgumentException(
+				"\nFormato da imagem \"" + caminho + "\" não suportado."
+			);
+		}
+
+		Iterator<ImageReader> leitores = ImageIO.getImageReaders(entrada);
+		if (!leitores.hasNext()) {
+			fecharEntrada();
+			throw new IllegalArgumentException(
+				"\nFormato da imagem \"" + caminho + "\" não suportado."
+			);
+		}
+
+		leitor = leitores.next();
+		leitor.setInput(entrada, true, false);
+
+		String formato;
+		try {
+			formato = leitor.getFormatName();
+		} catch (IOException e) {
+			leitor.dispose();
+			fecharEntrada();
+			throw new UncheckedIOException("\nErro ao ler a imagem \"" + caminho + "\"", e);
+		}
+		gif = formato.equalsIgnoreCase("gif");
+	}
+
+	/**
+	 * Decodifica o próximo quadro da sequência.
+	 * @return {@code true} caso exista um novo quadro, disponível em {@link #atual()}.
+	 * @throws UncheckedIOException se ocorrer um erro durante a leitura.
+	 */
+	public boolean proximo() {
+		if (fim) return false;
+
+		long t = Metricas.iniciar();
+		long pos = posicao();
+		BufferedImage bi;
+
+		try {
+			bi = leitor.read(proximo);
+		} catch (IndexOutOfBoundsException e) {
+			fim = true;
+			return false;
+		} catch (IOException e) {
+			Metricas.registrarErro(Operacao.LEITURA, e);
+			throw new UncheckedIOException(
+				"\nErro ao ler o quadro " + proximo + " da imagem \"" + caminho + "\"", e
+			);
+		}
+
+		if (gif) {
+			compor(bi, proximo);
+		} else {
+			quadro = copiar(bi, quadro);
+			atraso = 0;
+		}
+
+		proximo++;
+
+		long pixels = (long) bi.getWidth() * bi.getHeight();
+		Metricas.registrar(Operacao.LEITURA, t, posicao() - pos, pixels, pixels * 4);
+
+		return true;
+	}
+
+	/**
+	 * Retorna o último quadro decodificado.
+	 * <p>
+	 *    A mesma {@code Imagem} é reaproveitada pelos quadros seguintes, use 
+	 *    {@code copiar()} para manter um quadro após chamar {@link #proximo()}. 
+	 *    Alterações nela não afetam a composição dos próximos quadros.
+	 * </p>
+	 * @return quadro atual.
+	 * @throws IllegalStateException se nenhum quadro foi lido.
+	 */
+	public Imagem atual() {
+		if (quadro == null) {
+			throw new IllegalStateException("\nNenhum quadro foi lido, chame proximo() antes.");
+		}
+		return quadro;
+	}
+
+	/**
+	 * Retorna o índice do último quadro decodificado.
+	 * @return índice do quadro atual, ou {@code -1} caso nenhum quadro tenha sido lido.
+	 */
+	public int indice() {
+		return proximo - 1;
+	}
+
+	/**
+	 * Retorna o tempo de exibição do quadro atual.
+	 * @return atraso em milissegundos, {@code 0} para formatos sem animação.
+	 */
+	public int atraso() {
+		return atraso;
+	}
+
+	/**
+	 * Retorna um iterador sobre os quadros restantes.
+	 * <p>
+	 *    Todos os elementos são a mesma {@code Imagem} reaproveitada (ver {@link #atual()}).
+	 * </p>
+	 * @return iterador de quadros.
+	 */
+	@Override
+	public Iterator<Imagem> iterator() {
+		return new Iterator<>() {
+			private boolean pronto;
+			private boolean existe;
+
+			@Override
+			public boolean hasNext() {
+				if (!pronto) {
+					existe = proximo();
+					pronto = true;
+				}
+				return existe;
+			}
+
+			@Override
+			public Imagem next() {
+				if (!hasNext()) throw new NoSuchElementException();
+				pronto = false;
+				return quadro;
+			}
+		};
+	}
+
+	/**
+	 * Compõe um quadro {@code gif} na tela e atualiza o quadro entregue.
+	 */
+	private void compor(BufferedImage bi, int indice) {
+		IIOMetadataNode meta;
+		try {
+			IIOMetadata m = leitor.getImageMetadata(indice);
+			meta = (IIOMetadataNode) m.getAsTree(FORMATO_GIF_IMAGEM);
+		} catch (IOException e) {
+			throw new UncheckedIOException("\nErro ao ler os metadados da imagem \"" + caminho + "\"", e);
+		}
+
+		IIOMetadataNode desc = filho(meta, "ImageDescriptor");
+		IIOMetadataNode ctrl = filho(meta, "GraphicControlExtension");
+		int x = atributo(desc, "imageLeftPosition", 0);
+		int y = atributo(desc, "imageTopPosition", 0);
+		int largura = bi.getWidth();
+		int altura = bi.getHeight();
+
+		if (tela == null) {
+			int[] tam = tamanhoTela();
+			tela = new Imagem(Math.max(tam[1], y + altura), Math.max(tam[0], x + largura));
+		}
+
+		// descarte do quadro anterior
+		if ("restoreToBackgroundColor".equals(descarte)) {
+			tela.regiao(dx, dy, dLargura, dAltura).preencher(0);
+		} else if ("restoreToPrevious".equals(descarte) && reserva != null) {
+			Imagem r = tela.regiao(dx, dy, dLargura, dAltura);
+			int[] linha = new int[dLargura];
+			for (int i = 0; i < dAltura; i++) {
+				reserva.getLinha(i, linha, 0);
+				r.setLinha(i, linha, 0);
+			}
+		}
+
+		// área do quadro limitada à tela
+		int x1 = Math.min(tela.largura(), x + largura);
+		int y1 = Math.min(tela.altura(), y + altura);
+		int w = x1 - x;
+		int h = y1 - y;
+
+		descarte = ctrl == null ? "none" : ctrl.getAttribute("disposalMethod");
+		atraso = ctrl == null ? 0 : atributo(ctrl, "delayTime", 0) * 10;
+
+		if (w > 0 && h > 0) {
+			dx = x; dy = y; dLargura = w; dAltura = h;
+			Imagem area = tela.regiao(x, y, w, h);
+			if ("restoreToPrevious".equals(descarte)) {
+				reserva = area.copiar();
+			}
+
+			int[] origem = new int[w];
+			int[] destino = new int[w];
+			for (int i = 0; i < h; i++) {
+				bi.getRGB(0, i, w, 1, origem, 0, w);
+				area.getLinha(i, destino, 0);
+				for (int j = 0; j < w; j++) {
+					int argb = origem[j];
+					if ((argb >>> 24) != 0) destino[j] = argb & 0xFFFFFF;
+				}
+				area.setLinha(i, destino, 0);
+			}
+		} else {
+			descarte = "none";
+		}
+
+		if (quadro == null || quadro.largura() != tela.largura() || quadro.altura() != tela.altura()) {
+			quadro = new Imagem(tela.altura(), tela.largura());
+		}
+		int[] linha = new int[tela.largura()];
+		for (int i = 0; i < tela.altura(); i++) {
+			tela.getLinha(i, linha, 0);
+			quadro.setLinha(i, linha, 0);
+		}
+	}
+
+	/**
+	 * Lê o tamanho lógico da tela {@code gif}.
+	 * @return {@code [largura, altura]}, ou zeros caso não exista.
+	 */
+	private int[] tamanhoTela() {
+		try {
+			IIOMetadata m = leitor.getStreamMetadata();
+			if (m != null) {
+				IIOMetadataNode raiz = (IIOMetadataNode) m.getAsTree(FORMATO_GIF_FLUXO);
+				IIOMetadataNode tela = filho(raiz, "LogicalScreenDescriptor");
+				return new int[] {
+					atributo(tela, "logicalScreenWidth", 0), 
+					atributo(tela, "logicalScreenHeight", 0)
+				};
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("\nErro ao ler os metadados da imagem \"" + caminho + "\"", e);
+		}
+
+		return new int[] {0, 0};
+	}
+
+	/**
+	 * Copia uma {@code BufferedImage} para a imagem de destino, reaproveitando-a 
+	 * quando tiver o mesmo tamanho.
+	 */
+	private static Imagem copiar(BufferedImage bi, Imagem destino) {
+		int largura = bi.getWidth();
+		int altura = bi.getHeight();
+
+		Imagem img = destino;
+		if (img == null || img.largura() != largura || img.altura() != altura) {
+			img = new Imagem(altura, largura);
+		}
+
+		int[] linha = new int[largura];
+		for (int y = 0; y < altura; y++) {
+			bi.getRGB(0, y, largura, 1, linha, 0, largura);
+			for (int x = 0; x < largura; x++) {
+				linha[x] &= 0xFFFFFF;
+			}
+			img.setLinha(y, linha, 0);
+		}
+
+		return img;
+	}
+
+	private static IIOMetadataNode filho(IIOMetadataNode no, String nome) {
+		if (no == null) return null;
+		for (Node n = no.getFirstChild(); n != null; n = n.getNextSibling()) {
+			if (n.getNodeName().equals(nome)) return (IIOMetadataNode) n;
+		}
+		return null;
+	}
+
+	private static int atributo(IIOMetadataNode no, String nome, int padrao) {
+		if (no == null || !no.hasAttribute(nome)) return padrao;
+		try {
+			return Integer.parseInt(no.getAttribute(nome));
+		} catch (NumberFormatException e) {
+			return padrao;
+		}
+	}
+
+	private long posicao() {
+		try {
+			return entrada.getStreamPosition();
+		} catch (IOException e) {
+			return 0;
+		}
+	}
+
+	private void fecharEntrada() {
+		try {
+			entrada.close();
+		} catch (IOException e) {
+			// nada a fazer, o arquivo já não será usado
+		}
+	}
+
+	/**
+	 * Libera o leitor e fecha o arquivo.
+	 */
+	@Override
+	public void close() {
+		leitor.dispose();
+		fecharEntrada();
+	}
+
+}
@@ -0,0 +1,162 @@
+package geim.sequencia;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+
+import geim.imagem.Imagem;
+
+/**
+ * Processamento de sequências de quadros em memória constante.
+ * <p>
+ *    A decodificação é sequencial, já que em {@code gif} cada quadro depende 
+ *    da composição dos anteriores, mas a transformação de cada quadro é 
+ *    independente e executada em paralelo. Apenas um número limitado de quadros 
+ *    fica em processamento ao mesmo tempo, e os quadros são gravados na ordem 
+ *    original. Os buffers dos quadros são alugados do pool global e devolvidos 
+ *    após a gravação.
+ * </p>
+ */
+public class ProcessadorSequencia {
+
+	/**
+	 * Contém implementações de processamento de sequências de quadros.
+	 */
+	public ProcessadorSequencia() {}
+
+	/**
+	 * Lê todos os quadros restantes da entrada, aplica a transformação e grava 
+	 * o resultado na saída, mantendo o atraso de cada quadro.
+	 * <p>
+	 *    A transformação recebe uma cópia do quadro que pode ser alterada 
+	 *    livremente, e pode retornar essa mesma imagem ou uma nova.
+	 * </p>
+	 * @param entrada leitor dos quadros.
+	 * @param saida escritor dos quadros transformados.
+	 * @param transformacao transformação aplicada a cada quadro.
+	 * @param paralelismo quantidade de quadros transformados ao mesmo tempo.
+	 * @return quantidade de quadros processados.
+	 */
+	public int processar(LeitorSequencia entrada, EscritorSequencia saida, UnaryOperator<Imagem> transformacao, int paralelismo) {
+		if (entrada == null || saida == null) {
+			throw new IllegalArgumentException("\nEntrada e saída não podem ser nulas.");
+		}
+		if (transformacao == null) {
+			throw new IllegalArgumentException("\nA transformação fornecida é nula.");
+		}
+		if (paralelismo < 1) {
+			throw new IllegalArgumentException(
+				"\nParalelismo deve ser maior que zero, recebido: " + paralelismo
+			);
+		}
+
+		// quadros em processamento: alguns à frente de cada thread para mantê-las ocupadas
+		int limite = paralelismo * 2;
+		ArrayDeque<Pendente> pendentes = new ArrayDeque<>(limite);
+		ExecutorService executor = Executors.newFixedThreadPool(paralelismo);
+		int n = 0;
+
+		try {
+			while (entrada.proximo()) {
+				Imagem q = entrada.atual();
+				Imagem copia = Imagem.alugar(q.altura(), q.largura());
+				int[] linha = new int[q.largura()];
+				for (int y = 0; y < q.altura(); y++) {
+					q.getLinha(y, linha, 0);
+					copia.setLinha(y, linha, 0);
+				}
+
+				Future<Imagem> f;
+				try {
+					f = executor.submit(() -> transformacao.apply(copia));
+				} catch (RuntimeException e) {
+					copia.liberar();
+					throw e;
+				}
+				pendentes.add(new Pendente(copia, entrada.atraso(), f));
+
+				// o quadro só sai da fila depois de gravado, em caso de erro ele é liberado abaixo
+				if (pendentes.size() >= limite) {
+					gravar(pendentes.peek(), saida);
+					pendentes.poll().quadro.liberar();
+					n++;
+				}
+			}
+
+			while (!pendentes.isEmpty()) {
+				gravar(pendentes.peek(), saida);
+				pendentes.poll().quadro.liberar();
+				n++;
+			}
+		} finally {
+			for (Pendente p : pendentes) {
+				p.resultado.cancel(true);
+			}
+			executor.shutdownNow();
+
+			if (!pendentes.isEmpty() && aguardar(executor)) {
+				for (Pendente p : pendentes) {
+					p.quadro.liberar();
+				}
+			}
+		}
+
+		return n;
+	}
+
+	/**
+	 * Aguarda o término das transformações em execução, para que os buffers 
+	 * possam ser devolvidos sem que ainda estejam em uso.
+	 * <p>
+	 *    Uma interrupção pendente da thread atual é suspensa durante a espera e 
+	 *    restaurada ao final.
+	 * </p>
+	 * @return {@code false} caso a espera tenha sido interrompida, nesse caso os 
+	 * buffers não devem ser devolvidos.
+	 */
+	private static boolean aguardar(ExecutorService executor) {
+		boolean interrompida = Thread.interrupted();
+		try {
+			// a transformação pode ignorar o cancelamento, então a espera vai até o fim
+			while (!executor.awaitTermination(1, TimeUnit.SECONDS));
+			return true;
+		} catch (InterruptedException e) {
+			interrompida = true;
+			return false;
+		} finally {
+			if (interrompida) Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Aguarda a transformação de um quadro e grava o resultado.
+	 */
+	private static void gravar(Pendente p, EscritorSequencia saida) {
+		Imagem r;
+		try {
+			r = p.resultado.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("\nProcessamento interrompido.", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException re) throw re;
+			throw new IllegalStateException("\nErro ao transformar o quadro.", e.getCause());
+		}
+
+		if (r == null) {
+			throw new IllegalStateException("\nA transformação retornou um quadro nulo.");
+		}
+
+		saida.escrever(r, p.atraso);
+	}
+
+	/**
+	 * Quadro em processamento.
+	 */
+	private record Pendente(Imagem quadro, int atraso, Future<Imagem> resultado) {}
+
+}